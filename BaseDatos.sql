@@ -38,9 +38,13 @@ CREATE TABLE IF NOT EXISTS account (
     id BIGINT NOT NULL AUTO_INCREMENT,
     account_number VARCHAR(255) NOT NULL,
     account_type VARCHAR(50) NOT NULL,
-    initial_balance DOUBLE NOT NULL,
+    initial_balance DECIMAL(19,2) NOT NULL,
+    current_balance DECIMAL(19,2),
+    last_movement_id BIGINT,
+    last_movement_date DATETIME(6),
     status BOOLEAN NOT NULL DEFAULT TRUE,
     client_id BIGINT NOT NULL,
+    version BIGINT NOT NULL DEFAULT 0,
     PRIMARY KEY (id),
     CONSTRAINT UK_account_number UNIQUE (account_number),
     CONSTRAINT FK_account_client FOREIGN KEY (client_id) REFERENCES client(id) ON DELETE CASCADE
@@ -48,13 +52,88 @@ CREATE TABLE IF NOT EXISTS account (
 
 -- =============================================
 
+-- Particionada por mes sobre date: las consultas por rango de fechas solo leen las particiones del periodo.
+-- MySQL exige que la clave primaria incluya la columna de partición y no admite claves foráneas en tablas
+-- particionadas. La tabla nace solo con pmax: al arrancar, la aplicación la reparte en un mes por partición
+-- desde el movimiento más viejo hasta los meses siguientes (MovementPartitionMaintenance) y las fechas
+-- anteriores a la primera partición quedan en ella
+
 CREATE TABLE IF NOT EXISTS movement (
-    id BIGINT NOT NULL AUTO_INCREMENT,
+    id BIGINT NOT NULL,
     date DATETIME(6) NOT NULL,
-    movement_type VARCHAR(50) NOT NULL,
-    value DOUBLE NOT NULL,
-    balance DOUBLE NOT NULL,
+    movement_type VARCHAR(1) NOT NULL,
+    value DECIMAL(19,2) NOT NULL,
+    balance DECIMAL(19,2) NOT NULL,
     account_id BIGINT NOT NULL,
-    PRIMARY KEY (id),
-    CONSTRAINT FK_movement_account FOREIGN KEY (account_id) REFERENCES account(id) ON DELETE CASCADE
+    PRIMARY KEY (id, date),
+    INDEX idx_movement_account_date_id (account_id, date, id),
+    INDEX idx_movement_account_type_date (account_id, movement_type, date)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci
+PARTITION BY RANGE COLUMNS(date) (
+    PARTITION pmax VALUES LESS THAN (MAXVALUE)
+);
+
+-- =============================================
+-- Acumulado diario de retiros por cuenta (control del cupo diario)
+
+CREATE TABLE IF NOT EXISTS daily_withdrawal_total (
+    account_id BIGINT NOT NULL,
+    day DATE NOT NULL,
+    total DECIMAL(19,2) NOT NULL,
+    PRIMARY KEY (account_id, day),
+    CONSTRAINT FK_daily_withdrawal_account FOREIGN KEY (account_id) REFERENCES account(id) ON DELETE CASCADE
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
+
+-- =============================================
+-- Resumen diario de saldos por cuenta (solo días con movimientos) y día hasta el que está completo
+
+CREATE TABLE IF NOT EXISTS daily_balance_snapshot (
+    account_id BIGINT NOT NULL,
+    day DATE NOT NULL,
+    opening DECIMAL(19,2) NOT NULL,
+    closing DECIMAL(19,2) NOT NULL,
+    credits DECIMAL(19,2) NOT NULL,
+    debits DECIMAL(19,2) NOT NULL,
+    movement_count INT NOT NULL,
+    PRIMARY KEY (account_id, day)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
+
+CREATE TABLE IF NOT EXISTS balance_snapshot_watermark (
+    account_id BIGINT NOT NULL,
+    through_day DATE NOT NULL,
+    PRIMARY KEY (account_id)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
+
+-- =============================================
+-- Generador de ids por tabla (permite inserciones en lote de movement)
+
+CREATE TABLE IF NOT EXISTS id_generator (
+    sequence_name VARCHAR(255) NOT NULL,
+    next_val BIGINT,
+    PRIMARY KEY (sequence_name)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
+
+INSERT IGNORE INTO id_generator (sequence_name, next_val) VALUES ('movement', 1);
+
+-- =============================================
+-- Instancias activas y meses publicados en el archivo frío de movimientos (MovementArchiveNodes)
+
+CREATE TABLE IF NOT EXISTS movement_archive_node (
+    instance_id VARCHAR(36) NOT NULL,
+    beat DATETIME(6) NOT NULL,
+    PRIMARY KEY (instance_id)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
+
+CREATE TABLE IF NOT EXISTS movement_archive_month (
+    archived_month CHAR(7) NOT NULL,
+    PRIMARY KEY (archived_month)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
+
+-- =============================================
+-- Latido por instancia para medir el retraso de la réplica de lectura (ReplicaLagMonitor)
+
+CREATE TABLE IF NOT EXISTS replica_heartbeat (
+    instance_id VARCHAR(36) NOT NULL,
+    beat DATETIME(6) NOT NULL,
+    PRIMARY KEY (instance_id)
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
@@ -0,0 +1,109 @@
+package com.testdevsu.demo.config;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.testdevsu.demo.dto.AccountReportDTO;
+import com.testdevsu.demo.dto.ClientReportDTO;
+import com.testdevsu.demo.dto.MovementReportDTO;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+
+// Variante columnar del reporte JSON (format=columnar): los datos de cliente y cuenta se escriben una sola vez
+// y los movimientos de cada cuenta van como arreglos paralelos, uno por columna
+@Component
+public class ColumnarReportFormatter implements ReportFormatter {
+
+    private final ObjectMapper objectMapper;
+    private final boolean pretty;
+
+    @Autowired
+    public ColumnarReportFormatter(ObjectMapper objectMapper) {
+        this(objectMapper, true);
+    }
+
+    private ColumnarReportFormatter(ObjectMapper objectMapper, boolean pretty) {
+        this.objectMapper = objectMapper;
+        this.pretty = pretty;
+    }
+
+    @Override
+    public void write(ClientReportDTO reportData, OutputStream out) throws IOException {
+        try (JsonGenerator generator = objectMapper.createGenerator(out)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            if (pretty) {
+                generator.useDefaultPrettyPrinter();
+            }
+
+            generator.writeStartObject();
+            generator.writeStringField("client", reportData.getClientName());
+            generator.writeStringField("startDate", reportData.getStartDate());
+            generator.writeStringField("endDate", reportData.getEndDate());
+            generator.writeArrayFieldStart("accounts");
+            for (AccountReportDTO account : reportData.getAccounts()) {
+                writeAccount(generator, account);
+            }
+            generator.writeEndArray();
+            generator.writeEndObject();
+        }
+    }
+
+    private void writeAccount(JsonGenerator generator, AccountReportDTO account) throws IOException {
+        List<MovementReportDTO> movements = account.getMovements();
+
+        generator.writeStartObject();
+        generator.writeStringField("accountNumber", account.getAccountNumber());
+        generator.writeStringField("type", account.getAccountType());
+        generator.writeNumberField("initialBalance", account.getInitialBalance());
+        generator.writeNumberField("openingBalance", account.getOpeningBalance());
+        generator.writeBooleanField("status", account.getStatus());
+        generator.writeNumberField("totalCredits", account.getTotalCredits());
+        generator.writeNumberField("totalDebits", account.getTotalDebits());
+        generator.writeNumberField("availableBalance", account.getAvailableBalance());
+
+        // Cada columna recorre la lista de nuevo en lugar de copiarla a arreglos intermedios
+        generator.writeObjectFieldStart("movements");
+        generator.writeArrayFieldStart("date");
+        for (MovementReportDTO movement : movements) {
+            generator.writeString(movement.getDate().toString());
+        }
+        generator.writeEndArray();
+        generator.writeArrayFieldStart("movementType");
+        for (MovementReportDTO movement : movements) {
+            generator.writeString(movement.getMovementType().getLabel());
+        }
+        generator.writeEndArray();
+        generator.writeArrayFieldStart("movement");
+        for (MovementReportDTO movement : movements) {
+            generator.writeNumber(movement.getValue());
+        }
+        generator.writeEndArray();
+        generator.writeArrayFieldStart("availableBalance");
+        for (MovementReportDTO movement : movements) {
+            generator.writeNumber(movement.getBalance());
+        }
+        generator.writeEndArray();
+        generator.writeEndObject();
+
+        generator.writeEndObject();
+    }
+
+    @Override
+    public ReportFormatter compact() {
+        return pretty ? new ColumnarReportFormatter(objectMapper, false) : this;
+    }
+
+    @Override
+    public MediaType getContentType() {
+        return MediaType.APPLICATION_JSON;
+    }
+
+    @Override
+    public String getFileExtension() {
+        return "json";
+    }
+}
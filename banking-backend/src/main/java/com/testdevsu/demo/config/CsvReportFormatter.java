@@ -0,0 +1,90 @@
+package com.testdevsu.demo.config;
+
+import com.testdevsu.demo.dto.AccountReportDTO;
+import com.testdevsu.demo.dto.ClientReportDTO;
+import com.testdevsu.demo.dto.MovementReportDTO;
+import com.testdevsu.demo.dto.StatementRowDTO;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.stream.Stream;
+
+// Mismas columnas que las filas del reporte JSON, una línea por movimiento
+@Component
+public class CsvReportFormatter implements StreamingReportFormatter {
+
+    private static final MediaType TEXT_CSV = new MediaType("text", "csv", StandardCharsets.UTF_8);
+    private static final String HEADER = "date,client,accountNumber,type,initialBalance,status,movement,availableBalance";
+
+    @Override
+    public void write(ClientReportDTO reportData, Stream<StatementRowDTO> rows, OutputStream out) throws IOException {
+        // Se vacía al terminar pero no se cierra: el flujo pertenece a quien llama
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        String client = escape(reportData.getClientName());
+
+        writer.write(HEADER);
+        writer.write('\n');
+        try {
+            rows.forEach(row -> {
+                try {
+                    writeRow(writer, client, row);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        writer.flush();
+    }
+
+    private void writeRow(Writer writer, String client, StatementRowDTO row) throws IOException {
+        AccountReportDTO account = row.getAccount();
+        MovementReportDTO movement = row.getMovement();
+
+        writer.write(movement.getDate().toString());
+        writer.write(',');
+        writer.write(client);
+        writer.write(',');
+        writer.write(escape(account.getAccountNumber()));
+        writer.write(',');
+        writer.write(escape(account.getAccountType()));
+        writer.write(',');
+        writer.write(account.getInitialBalance().toPlainString());
+        writer.write(',');
+        writer.write(String.valueOf(account.getStatus()));
+        writer.write(',');
+        writer.write(movement.getValue().toPlainString());
+        writer.write(',');
+        writer.write(movement.getBalance().toPlainString());
+        writer.write('\n');
+    }
+
+    // RFC 4180: entre comillas solo si contiene separador, comillas o saltos de línea
+    private String escape(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+
+    @Override
+    public MediaType getContentType() {
+        return TEXT_CSV;
+    }
+
+    @Override
+    public String getFileExtension() {
+        return "csv";
+    }
+}
@@ -0,0 +1,30 @@
+package com.testdevsu.demo.config;
+
+import com.testdevsu.demo.repository.DailyWithdrawalTotalRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+// Construye los acumulados diarios de retiros a partir de los movimientos existentes la primera vez que la tabla está vacía.
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class DailyWithdrawalTotalBackfill implements ApplicationRunner {
+
+    private final DailyWithdrawalTotalRepository dailyWithdrawalTotalRepository;
+
+    @Override
+    @Transactional
+    public void run(ApplicationArguments args) {
+        if (dailyWithdrawalTotalRepository.existsAny()) {
+            return;
+        }
+        int inserted = dailyWithdrawalTotalRepository.backfillFromMovements();
+        if (inserted > 0) {
+            log.info("Acumulados diarios de retiros inicializados: {} filas", inserted);
+        }
+    }
+}
@@ -1,46 +1,90 @@
 package com.testdevsu.demo.config;
 
+import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.SerializationFeature;
-import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
-import com.testdevsu.demo.dto.AccountStatementDTO;
+import com.testdevsu.demo.dto.AccountReportDTO;
 import com.testdevsu.demo.dto.ClientReportDTO;
+import com.testdevsu.demo.dto.MovementReportDTO;
+import com.testdevsu.demo.dto.StatementRowDTO;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
 import org.springframework.stereotype.Component;
 
-import java.util.ArrayList;
-import java.util.List;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.stream.Stream;
 
+// Una fila por movimiento con los datos de cliente y cuenta repetidos, escrita directamente con JsonGenerator
+// a medida que las filas llegan del cursor
 @Component
-public class JsonReportFormatter implements ReportFormatter {
+public class JsonReportFormatter implements StreamingReportFormatter {
+
+    private final ObjectMapper objectMapper;
+    private final boolean pretty;
+
+    @Autowired
+    public JsonReportFormatter(ObjectMapper objectMapper) {
+        this(objectMapper, true);
+    }
+
+    private JsonReportFormatter(ObjectMapper objectMapper, boolean pretty) {
+        this.objectMapper = objectMapper;
+        this.pretty = pretty;
+    }
 
     @Override
-    public String format(ClientReportDTO reportData) {
-        try {
-            ObjectMapper mapper = new ObjectMapper();
-            mapper.registerModule(new JavaTimeModule());
-            mapper.disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
-
-            List<AccountStatementDTO> statements = new ArrayList<>();
-            
-            reportData.getAccounts().forEach(account -> 
-                account.getMovements().forEach(movement -> {
-                    AccountStatementDTO statement = new AccountStatementDTO();
-                    statement.setDate(movement.getDate().toString());
-                    statement.setClient(reportData.getClientName());
-                    statement.setAccountNumber(account.getAccountNumber());
-                    statement.setType(account.getAccountType());
-                    statement.setInitialBalance(account.getInitialBalance());
-                    statement.setStatus(account.getStatus());
-                    statement.setMovement(String.valueOf(movement.getValue()));
-                    statement.setAvailableBalance(movement.getBalance());
-                    statements.add(statement);
-                })
-            );
-            
-            return mapper.writerWithDefaultPrettyPrinter().writeValueAsString(statements);
-        } catch (Exception e) {
-            throw new RuntimeException("Error al formatear el reporte JSON", e);
+    public void write(ClientReportDTO reportData, Stream<StatementRowDTO> rows, OutputStream out) throws IOException {
+        try (JsonGenerator generator = objectMapper.createGenerator(out)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            if (pretty) {
+                generator.useDefaultPrettyPrinter();
+            }
+
+            generator.writeStartArray();
+            try {
+                rows.forEach(row -> {
+                    try {
+                        writeRow(generator, reportData.getClientName(), row);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+            generator.writeEndArray();
         }
     }
-    
+
+    private void writeRow(JsonGenerator generator, String client, StatementRowDTO row) throws IOException {
+        AccountReportDTO account = row.getAccount();
+        MovementReportDTO movement = row.getMovement();
+
+        generator.writeStartObject();
+        generator.writeStringField("date", movement.getDate().toString());
+        generator.writeStringField("client", client);
+        generator.writeStringField("accountNumber", account.getAccountNumber());
+        generator.writeStringField("type", account.getAccountType());
+        generator.writeNumberField("initialBalance", account.getInitialBalance());
+        generator.writeBooleanField("status", account.getStatus());
+        generator.writeStringField("movement", String.valueOf(movement.getValue()));
+        generator.writeNumberField("availableBalance", movement.getBalance());
+        generator.writeEndObject();
+    }
+
+    @Override
+    public ReportFormatter compact() {
+        return pretty ? new JsonReportFormatter(objectMapper, false) : this;
+    }
+
+    @Override
+    public MediaType getContentType() {
+        return MediaType.APPLICATION_JSON;
+    }
+
+    @Override
+    public String getFileExtension() {
+        return "json";
+    }
 }
@@ -0,0 +1,58 @@
+package com.testdevsu.demo.config;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.Types;
+import java.util.List;
+import java.util.Set;
+
+// ddl-auto=update no cambia el tipo de columnas existentes: las columnas de importes creadas como DOUBLE
+// se pasan a DECIMAL(19,2), redondeando al centavo. Si ya son DECIMAL no hace nada.
+@Slf4j
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@RequiredArgsConstructor
+public class MoneyColumnMigration implements ApplicationRunner {
+
+    private static final Set<Integer> FLOATING_TYPES = Set.of(Types.DOUBLE, Types.FLOAT, Types.REAL);
+
+    private static final List<String[]> MONEY_COLUMNS = List.of(
+            new String[] {"account", "initial_balance", "NOT NULL"},
+            new String[] {"account", "current_balance", "NULL"},
+            new String[] {"movement", "value", "NOT NULL"},
+            new String[] {"movement", "balance", "NOT NULL"},
+            new String[] {"daily_withdrawal_total", "total", "NOT NULL"}
+    );
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        for (String[] column : MONEY_COLUMNS) {
+            if (isFloating(column[0], column[1])) {
+                jdbcTemplate.execute("ALTER TABLE " + column[0] + " MODIFY COLUMN " + column[1]
+                        + " DECIMAL(19,2) " + column[2]);
+                log.info("Columna {}.{} migrada a DECIMAL(19,2)", column[0], column[1]);
+            }
+        }
+    }
+
+    private boolean isFloating(String table, String column) {
+        Boolean floating = jdbcTemplate.execute((ConnectionCallback<Boolean>) connection -> {
+            DatabaseMetaData metaData = connection.getMetaData();
+            try (ResultSet columns = metaData.getColumns(connection.getCatalog(), null, table, column)) {
+                return columns.next() && FLOATING_TYPES.contains(columns.getInt("DATA_TYPE"));
+            }
+        });
+        return Boolean.TRUE.equals(floating);
+    }
+}
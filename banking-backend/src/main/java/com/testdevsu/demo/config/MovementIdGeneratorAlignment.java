@@ -0,0 +1,32 @@
+package com.testdevsu.demo.config;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+// Los movimientos creados con AUTO_INCREMENT dejan ids ocupados; el generador por tabla debe arrancar después de ellos.
+// Con el optimizador pooled-lo, next_val es el próximo id libre.
+@Component
+@RequiredArgsConstructor
+public class MovementIdGeneratorAlignment implements ApplicationRunner {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    @Transactional
+    public void run(ApplicationArguments args) {
+        Integer rows = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM id_generator WHERE sequence_name = 'movement'", Integer.class);
+        if (rows == null || rows == 0) {
+            jdbcTemplate.update("INSERT INTO id_generator (sequence_name, next_val) VALUES ('movement', 1)");
+        }
+        jdbcTemplate.update("""
+                UPDATE id_generator SET next_val = (SELECT COALESCE(MAX(id), 0) + 1 FROM movement)
+                WHERE sequence_name = 'movement'
+                  AND next_val <= (SELECT COALESCE(MAX(id), 0) FROM movement)
+                """);
+    }
+}
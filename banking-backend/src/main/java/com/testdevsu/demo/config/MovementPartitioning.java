@@ -0,0 +1,57 @@
+package com.testdevsu.demo.config;
+
+import com.testdevsu.demo.service.MovementPartitionMaintenance;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.util.List;
+
+// Convierte una tabla movement existente sin particionar: quita las claves foráneas, amplía la clave primaria
+// a (id, date) y la particiona por mes. Reescribe la tabla completa, por eso solo corre si se habilita.
+// Después, y en cada arranque, completa las particiones futuras
+@Slf4j
+@Component
+public class MovementPartitioning implements ApplicationRunner {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final MovementPartitionMaintenance partitionMaintenance;
+    private final boolean convertExisting;
+
+    public MovementPartitioning(JdbcTemplate jdbcTemplate,
+                                MovementPartitionMaintenance partitionMaintenance,
+                                @Value("${banking.movement-partitions.convert-existing:false}") boolean convertExisting) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.partitionMaintenance = partitionMaintenance;
+        this.convertExisting = convertExisting;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (convertExisting && partitionMaintenance.isSupported() && !partitionMaintenance.isPartitioned()) {
+            convert();
+        }
+        partitionMaintenance.maintain();
+    }
+
+    private void convert() {
+        List<String> foreignKeys = jdbcTemplate.queryForList("""
+                SELECT CONSTRAINT_NAME FROM information_schema.TABLE_CONSTRAINTS
+                WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'movement' AND CONSTRAINT_TYPE = 'FOREIGN KEY'
+                """, String.class);
+        for (String foreignKey : foreignKeys) {
+            jdbcTemplate.execute("ALTER TABLE movement DROP FOREIGN KEY " + foreignKey);
+        }
+
+        Timestamp oldest = jdbcTemplate.queryForObject("SELECT MIN(date) FROM movement", Timestamp.class);
+        LocalDate firstMonth = oldest != null ? oldest.toLocalDateTime().toLocalDate() : LocalDate.now();
+
+        jdbcTemplate.execute("ALTER TABLE movement DROP PRIMARY KEY, ADD PRIMARY KEY (id, date) "
+                + partitionMaintenance.partitionClause(firstMonth));
+        log.info("Tabla movement particionada por mes desde {}", firstMonth.withDayOfMonth(1));
+    }
+}
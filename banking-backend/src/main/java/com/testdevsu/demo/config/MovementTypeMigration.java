@@ -0,0 +1,53 @@
+package com.testdevsu.demo.config;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import java.sql.ResultSet;
+
+// Los movimientos anteriores guardaban el tipo como texto libre ("Retiro", "DEPOSITO", ...).
+// El signo del valor siempre fue la fuente de verdad, así que se normalizan a 'R' o 'D' según él
+// y luego se reduce la columna a un carácter. Con la columna ya reducida la migración está hecha: la aplicación
+// solo escribe 'R' o 'D', y un arranque normal no recorre movement.
+@Slf4j
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@RequiredArgsConstructor
+public class MovementTypeMigration implements ApplicationRunner {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        // Si una caída dejó la normalización sin la reducción, la columna sigue ancha y se repite entera
+        if (columnSize("movement", "movement_type") <= 1) {
+            return;
+        }
+
+        int normalized = jdbcTemplate.update("""
+                UPDATE movement SET movement_type = CASE WHEN value < 0 THEN 'R' ELSE 'D' END
+                WHERE movement_type NOT IN ('R', 'D')
+                """);
+        if (normalized > 0) {
+            log.info("Tipo de movimiento normalizado en {} filas", normalized);
+        }
+
+        jdbcTemplate.execute("ALTER TABLE movement MODIFY COLUMN movement_type VARCHAR(1) NOT NULL");
+        log.info("Columna movement.movement_type reducida a VARCHAR(1)");
+    }
+
+    private int columnSize(String table, String column) {
+        Integer size = jdbcTemplate.execute((ConnectionCallback<Integer>) connection -> {
+            try (ResultSet columns = connection.getMetaData().getColumns(connection.getCatalog(), null, table, column)) {
+                return columns.next() ? columns.getInt("COLUMN_SIZE") : 0;
+            }
+        });
+        return size != null ? size : 0;
+    }
+}
@@ -0,0 +1,71 @@
+package com.testdevsu.demo.config;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.testdevsu.demo.dto.AccountReportDTO;
+import com.testdevsu.demo.dto.ClientReportDTO;
+import com.testdevsu.demo.dto.MovementReportDTO;
+import com.testdevsu.demo.dto.StatementRowDTO;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.stream.Stream;
+
+// Un objeto JSON por línea con las mismas claves que las filas del reporte JSON
+@Component
+@RequiredArgsConstructor
+public class NdjsonReportFormatter implements StreamingReportFormatter {
+
+    private final ObjectMapper objectMapper;
+
+    @Override
+    public void write(ClientReportDTO reportData, Stream<StatementRowDTO> rows, OutputStream out) throws IOException {
+        try (JsonGenerator generator = objectMapper.createGenerator(out)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            // Cada fila termina en salto de línea; sin el espacio que Jackson pone entre valores raíz
+            generator.setRootValueSeparator(null);
+            try {
+                rows.forEach(row -> {
+                    try {
+                        writeRow(generator, reportData.getClientName(), row);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+        }
+    }
+
+    private void writeRow(JsonGenerator generator, String client, StatementRowDTO row) throws IOException {
+        AccountReportDTO account = row.getAccount();
+        MovementReportDTO movement = row.getMovement();
+
+        generator.writeStartObject();
+        generator.writeStringField("date", movement.getDate().toString());
+        generator.writeStringField("client", client);
+        generator.writeStringField("accountNumber", account.getAccountNumber());
+        generator.writeStringField("type", account.getAccountType());
+        generator.writeNumberField("initialBalance", account.getInitialBalance());
+        generator.writeBooleanField("status", account.getStatus());
+        generator.writeStringField("movement", String.valueOf(movement.getValue()));
+        generator.writeNumberField("availableBalance", movement.getBalance());
+        generator.writeEndObject();
+        generator.writeRaw('\n');
+    }
+
+    @Override
+    public MediaType getContentType() {
+        return MediaType.APPLICATION_NDJSON;
+    }
+
+    @Override
+    public String getFileExtension() {
+        return "ndjson";
+    }
+}
@@ -1,85 +1,140 @@
 package com.testdevsu.demo.config;
 
+import com.itextpdf.io.font.constants.StandardFonts;
+import com.itextpdf.kernel.font.PdfFont;
+import com.itextpdf.kernel.font.PdfFontFactory;
 import com.itextpdf.kernel.pdf.PdfDocument;
 import com.itextpdf.kernel.pdf.PdfWriter;
 import com.itextpdf.layout.Document;
+import com.itextpdf.layout.Style;
 import com.itextpdf.layout.element.Cell;
 import com.itextpdf.layout.element.Paragraph;
 import com.itextpdf.layout.element.Table;
 import com.itextpdf.layout.properties.TextAlignment;
+import com.itextpdf.layout.properties.UnitValue;
+import com.testdevsu.demo.dto.AccountReportDTO;
 import com.testdevsu.demo.dto.ClientReportDTO;
+import com.testdevsu.demo.dto.MovementReportDTO;
+import com.testdevsu.demo.dto.StatementRowDTO;
+import org.springframework.http.MediaType;
 import org.springframework.stereotype.Component;
 
-import java.io.ByteArrayOutputStream;
-import java.util.Base64;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Iterator;
+import java.util.stream.Stream;
 
+// Las filas llegan del cursor en el orden de las cuentas de la cabecera; cada sección toma las de su cuenta
 @Component
-public class PdfReportFormatter implements ReportFormatter {
+public class PdfReportFormatter implements StreamingReportFormatter {
+
+    // Solo las columnas que cambian por fila; cliente, cuenta, tipo, saldo inicial y estado van en la cabecera de sección
+    private static final String[] COLUMNS = {"Fecha", "Tipo Movimiento", "Movimiento", "Saldo Disponible"};
+    private static final float[] COLUMN_WIDTHS = {3f, 2f, 2f, 2f};
+
+    // Cada cuántas filas la tabla grande vuelca al documento lo ya maquetado y lo libera
+    static final int FLUSH_EVERY_ROWS = 200;
 
     @Override
-    public String format(ClientReportDTO reportData) {
+    public void write(ClientReportDTO reportData, Stream<StatementRowDTO> rows, OutputStream out) throws IOException {
+        // El PDF se escribe directo en la respuesta; cerrar el documento no debe cerrar el flujo del servlet
+        PdfWriter writer = new PdfWriter(out);
+        writer.setCloseStream(false);
         try {
-            ByteArrayOutputStream baos = new ByteArrayOutputStream();
-            PdfWriter writer = new PdfWriter(baos);
             PdfDocument pdfDoc = new PdfDocument(writer);
             Document document = new Document(pdfDoc);
 
+            // Fuentes y estilos se crean una vez por documento y se comparten entre todas las celdas
+            PdfFont regular = PdfFontFactory.createFont(StandardFonts.HELVETICA);
+            PdfFont bold = PdfFontFactory.createFont(StandardFonts.HELVETICA_BOLD);
+            Style headerStyle = new Style().setFont(bold).setFontSize(9);
+            Style rowStyle = new Style().setFont(regular).setFontSize(8);
+            document.setFont(regular);
+
             // Título
             document.add(new Paragraph("Estado de Cuenta")
                     .setTextAlignment(TextAlignment.CENTER)
-                    .setFontSize(18)
-                    .setBold());
-            
+                    .setFont(bold)
+                    .setFontSize(18));
+
             // Información del cliente
             document.add(new Paragraph("Cliente: " + reportData.getClientName()));
             document.add(new Paragraph("Periodo: " + reportData.getStartDate() + " - " + reportData.getEndDate()));
             document.add(new Paragraph("\n"));
 
-            // Crear una tabla por cada cuenta
-            reportData.getAccounts().forEach(account -> {
-                // Título de la cuenta
-                if (reportData.getAccounts().size() > 1) {
-                    document.add(new Paragraph("Cuenta: " + account.getAccountNumber() + " (" + account.getAccountType() + ")")
-                            .setFontSize(12)
-                            .setBold());
-                }
-
-                float[] columnWidths = {1.5f, 2f, 1.5f, 1.2f, 1.3f, 1f, 1.3f, 1.5f};
-                Table table = new Table(columnWidths);
-                
-
-                table.addHeaderCell(new Cell().add(new Paragraph("Fecha").setFontSize(9).setBold()));
-                table.addHeaderCell(new Cell().add(new Paragraph("Cliente").setFontSize(9).setBold()));
-                table.addHeaderCell(new Cell().add(new Paragraph("Número Cuenta").setFontSize(9).setBold()));
-                table.addHeaderCell(new Cell().add(new Paragraph("Tipo").setFontSize(9).setBold()));
-                table.addHeaderCell(new Cell().add(new Paragraph("Saldo Inicial").setFontSize(9).setBold()));
-                table.addHeaderCell(new Cell().add(new Paragraph("Estado").setFontSize(9).setBold()));
-                table.addHeaderCell(new Cell().add(new Paragraph("Movimiento").setFontSize(9).setBold()));
-                table.addHeaderCell(new Cell().add(new Paragraph("Saldo Disponible").setFontSize(9).setBold()));
-
-                account.getMovements().forEach(movement -> {
-                    table.addCell(new Cell().add(new Paragraph(movement.getDate().toString()).setFontSize(8)));
-                    table.addCell(new Cell().add(new Paragraph(reportData.getClientName()).setFontSize(8)));
-                    table.addCell(new Cell().add(new Paragraph(account.getAccountNumber()).setFontSize(8)));
-                    table.addCell(new Cell().add(new Paragraph(account.getAccountType()).setFontSize(8)));
-                    table.addCell(new Cell().add(new Paragraph("$" + account.getInitialBalance()).setFontSize(8)));
-                    table.addCell(new Cell().add(new Paragraph(account.getStatus() ? "Activa" : "Inactiva").setFontSize(8)));
-                    table.addCell(new Cell().add(new Paragraph(movement.getValue().toString()).setFontSize(8)));
-                    table.addCell(new Cell().add(new Paragraph("$" + movement.getBalance()).setFontSize(8)));
-                });
-                
-                document.add(table);
-                document.add(new Paragraph("\n"));
-            });
+            // Una cuenta sin movimientos en el periodo conserva su sección con la tabla vacía
+            Iterator<StatementRowDTO> pending = rows.iterator();
+            StatementRowDTO next = pending.hasNext() ? pending.next() : null;
+            for (AccountReportDTO account : reportData.getAccounts()) {
+                next = writeAccountSection(document, account, next, pending, headerStyle, rowStyle, bold);
+            }
 
             document.close();
+        } catch (RuntimeException e) {
+            throw new IOException("Error al formatear el reporte PDF", e);
+        }
+    }
 
-            byte[] pdfBytes = baos.toByteArray();
-            return Base64.getEncoder().encodeToString(pdfBytes);
-            
-        } catch (Exception e) {
-            throw new RuntimeException("Error al formatear el reporte PDF", e);
+    // Devuelve la primera fila que ya no es de esta cuenta
+    private StatementRowDTO writeAccountSection(Document document, AccountReportDTO account,
+                                                StatementRowDTO next, Iterator<StatementRowDTO> pending,
+                                                Style headerStyle, Style rowStyle, PdfFont bold) {
+        document.add(new Paragraph("Cuenta: " + account.getAccountNumber() + " (" + account.getAccountType() + ")")
+                .setFont(bold)
+                .setFontSize(12));
+        document.add(new Paragraph("Saldo Inicial: $" + account.getInitialBalance()
+                + "    Saldo al inicio del periodo: $" + account.getOpeningBalance()
+                + "    Estado: " + (account.getStatus() ? "Activa" : "Inactiva"))
+                .setFontSize(9));
+
+        // Tabla grande: se agrega al documento antes de llenarla y se vacía por tramos,
+        // así la memoria no crece con el número de movimientos
+        Table table = new Table(UnitValue.createPercentArray(COLUMN_WIDTHS), true)
+                .setWidth(UnitValue.createPercentValue(100));
+        for (String column : COLUMNS) {
+            table.addHeaderCell(new Cell().add(new Paragraph(column)).addStyle(headerStyle));
         }
+        document.add(table);
+
+        int rows = 0;
+        for (; next != null && belongsTo(next, account); next = pending.hasNext() ? pending.next() : null) {
+            MovementReportDTO movement = next.getMovement();
+            table.addCell(new Cell().add(new Paragraph(movement.getDate().toString())).addStyle(rowStyle));
+            table.addCell(new Cell().add(new Paragraph(movement.getMovementType().getLabel())).addStyle(rowStyle));
+            table.addCell(new Cell().add(new Paragraph(movement.getValue().toPlainString())).addStyle(rowStyle));
+            table.addCell(new Cell().add(new Paragraph("$" + movement.getBalance())).addStyle(rowStyle));
+
+            if (++rows % FLUSH_EVERY_ROWS == 0) {
+                table.flush();
+            }
+        }
+        table.complete();
+
+        document.add(new Paragraph("Créditos: $" + account.getTotalCredits()
+                + "    Débitos: $" + account.getTotalDebits()
+                + "    Saldo Disponible: $" + account.getAvailableBalance())
+                .setFontSize(9));
+        document.add(new Paragraph("\n"));
+        return next;
     }
 
+    private static boolean belongsTo(StatementRowDTO row, AccountReportDTO account) {
+        return row.getAccount().getAccountNumber().equals(account.getAccountNumber());
+    }
+
+    // Saldo de apertura y totales de cada sección vienen en la cabecera
+    @Override
+    public boolean needsAccountTotals() {
+        return true;
+    }
+
+    @Override
+    public MediaType getContentType() {
+        return MediaType.APPLICATION_PDF;
+    }
+
+    @Override
+    public String getFileExtension() {
+        return "pdf";
+    }
 }
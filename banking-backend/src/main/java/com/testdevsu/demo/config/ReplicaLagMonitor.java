@@ -0,0 +1,100 @@
+package com.testdevsu.demo.config;
+
+import com.testdevsu.demo.service.ReplicaConsistency;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import javax.sql.DataSource;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.UUID;
+
+// Latido de esta instancia: escribe la hora en la principal y la lee de vuelta en la réplica. La última hora que ya
+// llegó a la réplica marca hasta dónde aplicó la replicación; se mide con el reloj de la instancia en ambos extremos.
+// Cada instancia usa su propia fila para no depender de la sincronización de relojes entre servidores.
+// La tabla replica_heartbeat viene de BaseDatos.sql (entidad ReplicaHeartbeat) y llega a la réplica por replicación
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "banking.datasource.replica.enabled", havingValue = "true")
+public class ReplicaLagMonitor implements ApplicationRunner {
+
+    // Filas de instancias que terminaron sin borrar la suya
+    private static final Duration STALE_ROWS = Duration.ofDays(1);
+
+    private final JdbcTemplate primary;
+    private final JdbcTemplate replica;
+    private final ReplicaConsistency consistency;
+    private final String instanceId = UUID.randomUUID().toString();
+    private volatile boolean started;
+    private volatile boolean replicaDown;
+
+    public ReplicaLagMonitor(@Qualifier("primaryDataSource") DataSource primaryDataSource,
+                             @Qualifier("replicaDataSource") DataSource replicaDataSource,
+                             ReplicaConsistency consistency) {
+        this.primary = new JdbcTemplate(primaryDataSource);
+        this.replica = new JdbcTemplate(replicaDataSource);
+        // Una réplica que no responde no debe frenar los latidos; sin respuesta cuenta como caída
+        this.replica.setQueryTimeout(2);
+        this.consistency = consistency;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        primary.update("DELETE FROM replica_heartbeat WHERE beat < ?", Timestamp.from(Instant.now().minus(STALE_ROWS)));
+        started = true;
+        heartbeat();
+    }
+
+    @Scheduled(fixedDelayString = "${banking.datasource.replica.heartbeat-interval-ms:1000}")
+    public void heartbeat() {
+        if (!started) {
+            return;
+        }
+        try {
+            primary.update("INSERT INTO replica_heartbeat (instance_id, beat) VALUES (?, ?) "
+                            + "ON DUPLICATE KEY UPDATE beat = VALUES(beat)",
+                    instanceId, Timestamp.from(Instant.now().truncatedTo(ChronoUnit.MICROS)));
+        } catch (DataAccessException e) {
+            log.warn("No se pudo escribir el latido de réplica en la base principal: {}", e.getMessage());
+            return;
+        }
+
+        try {
+            List<Timestamp> beats = replica.queryForList(
+                    "SELECT beat FROM replica_heartbeat WHERE instance_id = ?", Timestamp.class, instanceId);
+            // Sin fila todavía: el primer latido no llegó y no se sabe hasta dónde aplicó
+            if (!beats.isEmpty()) {
+                consistency.replicaAppliedThrough(beats.get(0).toInstant());
+            }
+            if (replicaDown) {
+                replicaDown = false;
+                log.info("Réplica disponible de nuevo para lecturas");
+            }
+        } catch (DataAccessException e) {
+            consistency.replicaUnavailable();
+            if (!replicaDown) {
+                replicaDown = true;
+                log.warn("Réplica sin responder, las lecturas van a la base principal: {}", e.getMessage());
+            }
+        }
+    }
+
+    @PreDestroy
+    public void removeHeartbeat() {
+        try {
+            primary.update("DELETE FROM replica_heartbeat WHERE instance_id = ?", instanceId);
+        } catch (DataAccessException e) {
+            log.debug("No se pudo borrar el latido de réplica: {}", e.getMessage());
+        }
+    }
+}
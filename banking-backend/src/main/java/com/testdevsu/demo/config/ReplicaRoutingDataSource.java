@@ -0,0 +1,31 @@
+package com.testdevsu.demo.config;
+
+import com.testdevsu.demo.service.ReplicaConsistency;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import javax.sql.DataSource;
+import java.util.Map;
+
+// Las transacciones de solo lectura van a la réplica cuando ReplicaConsistency lo permite; todo lo demás, incluido
+// lo que corre fuera de una transacción, va a la principal. Se usa detrás de LazyConnectionDataSourceProxy para que
+// la conexión se pida con la primera sentencia, cuando la transacción ya está marcada como de solo lectura
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    private static final String PRIMARY = "primary";
+    private static final String REPLICA = "replica";
+
+    private final ReplicaConsistency consistency;
+
+    public ReplicaRoutingDataSource(DataSource primary, DataSource replica, ReplicaConsistency consistency) {
+        this.consistency = consistency;
+        setTargetDataSources(Map.of(PRIMARY, primary, REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return TransactionSynchronizationManager.isCurrentTransactionReadOnly() && consistency.replicaUsable()
+                ? REPLICA
+                : PRIMARY;
+    }
+}
@@ -1,7 +1,19 @@
 package com.testdevsu.demo.config;
 
 import com.testdevsu.demo.dto.ClientReportDTO;
+import org.springframework.http.MediaType;
 
+import java.io.IOException;
+import java.io.OutputStream;
+
+// Escribe el reporte directamente en el flujo de salida; no debe cerrarlo
 public interface ReportFormatter {
-    String format(ClientReportDTO reportData);
+    void write(ClientReportDTO reportData, OutputStream out) throws IOException;
+    MediaType getContentType();
+    String getFileExtension();
+
+    // Variante sin sangrías ni saltos de línea; los formatos que no la tienen se devuelven a sí mismos
+    default ReportFormatter compact() {
+        return this;
+    }
 }
@@ -0,0 +1,28 @@
+package com.testdevsu.demo.config;
+
+import com.testdevsu.demo.repository.AccountRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+// Completa el saldo corriente de las cuentas creadas antes de la columna current_balance.
+// Solo toca filas con saldo nulo, así que tras la primera ejecución no hace nada.
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class RunningBalanceBackfill implements ApplicationRunner {
+
+    private final AccountRepository accountRepository;
+
+    @Override
+    @Transactional
+    public void run(ApplicationArguments args) {
+        int updated = accountRepository.backfillRunningBalances();
+        if (updated > 0) {
+            log.info("Saldo corriente inicializado para {} cuentas", updated);
+        }
+    }
+}
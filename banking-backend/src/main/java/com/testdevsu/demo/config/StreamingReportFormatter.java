@@ -0,0 +1,27 @@
+package com.testdevsu.demo.config;
+
+import com.testdevsu.demo.dto.ClientReportDTO;
+import com.testdevsu.demo.dto.StatementRowDTO;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.stream.Stream;
+
+// Formatos por filas: reciben los movimientos desde el cursor de la base sin un ClientReportDTO completo en memoria
+public interface StreamingReportFormatter extends ReportFormatter {
+    void write(ClientReportDTO reportData, Stream<StatementRowDTO> rows, OutputStream out) throws IOException;
+
+    // Los formatos que imprimen saldo de apertura y totales por cuenta los reciben en las cabeceras, calculados
+    // desde los resúmenes diarios sin leer los movimientos
+    default boolean needsAccountTotals() {
+        return false;
+    }
+
+    // Con el reporte ya cargado, sus movimientos se recorren como filas
+    @Override
+    default void write(ClientReportDTO reportData, OutputStream out) throws IOException {
+        write(reportData, reportData.getAccounts().stream()
+                .flatMap(account -> account.getMovements().stream()
+                        .map(movement -> new StatementRowDTO(account, movement))), out);
+    }
+}
@@ -1,8 +1,11 @@
 package com.testdevsu.demo.controller;
 
+import com.testdevsu.demo.dto.AccountBalanceDTO;
 import com.testdevsu.demo.dto.AccountRequestDTO;
 import com.testdevsu.demo.dto.AccountResponseDTO;
+import com.testdevsu.demo.dto.MovementPageDTO;
 import com.testdevsu.demo.service.AccountService;
+import com.testdevsu.demo.service.MovementService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
@@ -16,10 +19,13 @@ import java.util.List;
 public class AccountController {
 
     private final AccountService accountService;
+    private final MovementService movementService;
 
     @GetMapping
-    public ResponseEntity<List<AccountResponseDTO>> getAllAccounts() {
-        List<AccountResponseDTO> accounts = accountService.getAllAccounts();
+    public ResponseEntity<List<AccountResponseDTO>> getAllAccounts(
+            @RequestParam(required = false) Integer page,
+            @RequestParam(required = false) Integer size) {
+        List<AccountResponseDTO> accounts = accountService.getAllAccounts(page, size);
         return ResponseEntity.ok(accounts);
     }
 
@@ -29,6 +35,21 @@ public class AccountController {
         return ResponseEntity.ok(account);
     }
 
+    @GetMapping("/{id}/balance")
+    public ResponseEntity<AccountBalanceDTO> getAccountBalance(@PathVariable Long id) {
+        AccountBalanceDTO balance = accountService.getAccountBalance(id);
+        return ResponseEntity.ok(balance);
+    }
+
+    @GetMapping("/{id}/movements")
+    public ResponseEntity<MovementPageDTO> getAccountMovements(
+            @PathVariable Long id,
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "50") int limit) {
+        MovementPageDTO movements = movementService.getAccountMovements(id, after, limit);
+        return ResponseEntity.ok(movements);
+    }
+
     @PostMapping
     public ResponseEntity<AccountResponseDTO> createAccount(@Valid @RequestBody AccountRequestDTO requestDTO) {
         AccountResponseDTO account = accountService.createAccount(requestDTO);
@@ -0,0 +1,21 @@
+package com.testdevsu.demo.controller;
+
+import com.testdevsu.demo.dto.CacheStatsDTO;
+import com.testdevsu.demo.service.CacheStatsService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/cache")
+@RequiredArgsConstructor
+public class CacheStatsController {
+
+    private final CacheStatsService cacheStatsService;
+
+    @GetMapping("/stats")
+    public ResponseEntity<CacheStatsDTO> getCacheStats() {
+        CacheStatsDTO stats = cacheStatsService.getCacheStats();
+        return ResponseEntity.ok(stats);
+    }
+}
@@ -1,5 +1,7 @@
 package com.testdevsu.demo.controller;
 
+import com.testdevsu.demo.dto.MovementBatchResultDTO;
+import com.testdevsu.demo.dto.MovementPageDTO;
 import com.testdevsu.demo.dto.MovementRequestDTO;
 import com.testdevsu.demo.dto.MovementResponseDTO;
 import com.testdevsu.demo.service.MovementService;
@@ -18,8 +20,10 @@ public class MovementController {
     private final MovementService movementService;
 
     @GetMapping
-    public ResponseEntity<List<MovementResponseDTO>> getAllMovements() {
-        List<MovementResponseDTO> movements = movementService.getAllMovements();
+    public ResponseEntity<MovementPageDTO> getMovements(
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "50") int limit) {
+        MovementPageDTO movements = movementService.getMovements(after, limit);
         return ResponseEntity.ok(movements);
     }
 
@@ -35,6 +39,12 @@ public class MovementController {
         return ResponseEntity.status(HttpStatus.CREATED).body(movement);
     }
 
+    @PostMapping("/batch")
+    public ResponseEntity<List<MovementBatchResultDTO>> createMovements(@RequestBody List<MovementRequestDTO> requests) {
+        List<MovementBatchResultDTO> results = movementService.createMovements(requests);
+        return ResponseEntity.ok(results);
+    }
+
     @PutMapping("/{id}")
     public ResponseEntity<MovementResponseDTO> updateMovement(
             @PathVariable Long id, 
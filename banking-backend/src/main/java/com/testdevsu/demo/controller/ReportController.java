@@ -1,15 +1,21 @@
 package com.testdevsu.demo.controller;
 
+import com.testdevsu.demo.dto.ClientReportDTO;
 import com.testdevsu.demo.service.ReportService;
+import com.testdevsu.demo.service.StatementReport;
 import lombok.RequiredArgsConstructor;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
 import org.springframework.http.HttpHeaders;
-import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.util.StreamUtils;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.OutputStream;
 import java.time.LocalDateTime;
+import java.util.Base64;
 
 @RestController
 @RequestMapping("/reportes")
@@ -19,22 +25,41 @@ public class ReportController {
     private final ReportService reportService;
 
     @GetMapping
-    public ResponseEntity<String> getAccountStatement(
+    public ResponseEntity<StreamingResponseBody> getAccountStatement(
             @RequestParam Long clientId,
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDate,
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate,
-            @RequestParam(defaultValue = "json") String format) {
-
-        String report = reportService.generateAccountStatement(clientId, startDate, endDate, format);
-
-        HttpHeaders headers = new HttpHeaders();
-        
-        if ("pdf".equalsIgnoreCase(format)) {
-            headers.setContentType(MediaType.TEXT_PLAIN);
-            return new ResponseEntity<>(report, headers, HttpStatus.OK);
-        } else {
-            headers.setContentType(MediaType.APPLICATION_JSON);
-            return new ResponseEntity<>(report, headers, HttpStatus.OK);
+            @RequestParam(defaultValue = "json") String format,
+            @RequestParam(defaultValue = "false") boolean base64,
+            @RequestParam(defaultValue = "false") boolean compact) {
+
+        StatementReport report = reportService.generateAccountStatement(clientId, startDate, endDate, format, compact);
+
+        // Compatibilidad con clientes que esperan el contenido codificado en Base64 como texto plano
+        if (base64) {
+            StreamingResponseBody body = out -> {
+                try (OutputStream encoded = Base64.getEncoder().wrap(StreamUtils.nonClosing(out))) {
+                    report.writeTo(encoded);
+                }
+            };
+            return ResponseEntity.ok().contentType(MediaType.TEXT_PLAIN).body(body);
         }
+
+        StreamingResponseBody body = out -> report.writeTo(StreamUtils.nonClosing(out));
+        return ResponseEntity.ok()
+                .contentType(report.contentType())
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        ContentDisposition.inline().filename(report.fileName()).build().toString())
+                .body(body);
+    }
+
+    @GetMapping("/resumen")
+    public ResponseEntity<ClientReportDTO> getAccountSummary(
+            @RequestParam Long clientId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDate,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate) {
+
+        ClientReportDTO summary = reportService.generateAccountSummary(clientId, startDate, endDate);
+        return ResponseEntity.ok(summary);
     }
 }
@@ -0,0 +1,67 @@
+package com.testdevsu.demo.controller;
+
+import com.testdevsu.demo.dto.ReportJobDTO;
+import com.testdevsu.demo.dto.ReportJobRequestDTO;
+import com.testdevsu.demo.service.ReportArtifact;
+import com.testdevsu.demo.service.ReportJobService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+
+import java.net.URI;
+
+@RestController
+@RequestMapping("/reportes/jobs")
+@RequiredArgsConstructor
+public class ReportJobController {
+
+    // Atributos con los que Tomcat envía un archivo por sendfile, del disco al socket sin pasar por la JVM
+    private static final String SENDFILE_SUPPORTED = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    private final ReportJobService reportJobService;
+
+    @PostMapping
+    public ResponseEntity<ReportJobDTO> submitJob(@Valid @RequestBody ReportJobRequestDTO requestDTO) {
+        ReportJobDTO job = reportJobService.submit(requestDTO);
+        URI location = ServletUriComponentsBuilder.fromCurrentRequest()
+                .path("/{id}")
+                .buildAndExpand(job.getId())
+                .toUri();
+        return ResponseEntity.accepted().location(location).body(job);
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<ReportJobDTO> getJob(@PathVariable String id) {
+        return ResponseEntity.ok(reportJobService.getJob(id));
+    }
+
+    @GetMapping("/{id}/download")
+    public ResponseEntity<Resource> downloadJob(@PathVariable String id, HttpServletRequest request) {
+        ReportArtifact artifact = reportJobService.getArtifact(id);
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(artifact.contentType());
+        headers.setContentLength(artifact.size());
+        headers.setContentDisposition(ContentDisposition.attachment().filename(artifact.fileName()).build());
+
+        if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORTED))) {
+            request.setAttribute(SENDFILE_FILENAME, artifact.path().toAbsolutePath().toString());
+            request.setAttribute(SENDFILE_START, 0L);
+            request.setAttribute(SENDFILE_END, artifact.size());
+            return ResponseEntity.ok().headers(headers).build();
+        }
+
+        // Sin sendfile (otro contenedor o conector) se copia el archivo por el flujo de la respuesta
+        return ResponseEntity.ok().headers(headers).body(new FileSystemResource(artifact.path()));
+    }
+}
@@ -0,0 +1,19 @@
+package com.testdevsu.demo.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.NoArgsConstructor;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class AccountBalanceDTO {
+    private Long accountId;
+    private BigDecimal currentBalance;
+    private Long lastMovementId;
+    private LocalDateTime lastMovementDate;
+}
@@ -1,10 +1,12 @@
 package com.testdevsu.demo.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.Setter;
 import lombok.NoArgsConstructor;
 
+import java.math.BigDecimal;
 import java.util.List;
 
 @Getter
@@ -14,10 +16,14 @@ import java.util.List;
 public class AccountReportDTO {
     private String accountNumber;
     private String accountType;
-    private Double initialBalance;
+    private BigDecimal initialBalance;
+    // Saldo al inicio del periodo: el del último movimiento anterior, o el inicial si no hay ninguno
+    private BigDecimal openingBalance;
     private Boolean status;
-    private Double totalCredits;
-    private Double totalDebits;
-    private Double availableBalance;
+    private BigDecimal totalCredits;
+    private BigDecimal totalDebits;
+    private BigDecimal availableBalance;
+    // Nulo en el modo resumen, que solo devuelve totales
+    @JsonInclude(JsonInclude.Include.NON_NULL)
     private List<MovementReportDTO> movements;
 }
@@ -5,6 +5,7 @@ import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.Setter;
 import lombok.NoArgsConstructor;
+import java.math.BigDecimal;
 
 @Getter
 @Setter
@@ -20,7 +21,8 @@ public class AccountRequestDTO {
     private String accountType;
     
     @NotNull(message = "El saldo inicial es requerido")
-    private Double initialBalance;
+    @Digits(integer = 17, fraction = 2, message = "El saldo inicial admite como máximo 2 decimales")
+    private BigDecimal initialBalance;
     
     private Boolean status;
     
@@ -1,9 +1,11 @@
 package com.testdevsu.demo.dto;
 
+import com.testdevsu.demo.model.Money;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.Setter;
 import lombok.NoArgsConstructor;
+import java.math.BigDecimal;
 
 @Getter
 @Setter
@@ -13,9 +15,18 @@ public class AccountResponseDTO {
     private Long id;
     private String accountNumber;
     private String accountType;
-    private Double initialBalance;
-    private Double currentBalance;
+    private BigDecimal initialBalance;
+    private BigDecimal currentBalance;
     private Boolean status;
     private Long clientId;
     private String clientName;
+
+    // Destino de la proyección JPQL: los saldos llegan en centavos ya convertidos por MoneyConverter
+    public AccountResponseDTO(Long id, String accountNumber, String accountType, Long initialBalance,
+                              Long currentBalance, Boolean status, Long clientId, String clientName) {
+        this(id, accountNumber, accountType,
+                Money.toAmount(initialBalance),
+                currentBalance != null ? Money.toAmount(currentBalance) : null,
+                status, clientId, clientName);
+    }
 }
@@ -0,0 +1,25 @@
+package com.testdevsu.demo.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.NoArgsConstructor;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class MovementBatchResultDTO {
+    private int index;
+    private String status;
+    private MovementResponseDTO movement;
+    private String error;
+
+    public static MovementBatchResultDTO created(int index, MovementResponseDTO movement) {
+        return new MovementBatchResultDTO(index, "CREATED", movement, null);
+    }
+
+    public static MovementBatchResultDTO rejected(int index, String error) {
+        return new MovementBatchResultDTO(index, "REJECTED", null, error);
+    }
+}
@@ -0,0 +1,17 @@
+package com.testdevsu.demo.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.NoArgsConstructor;
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class MovementPageDTO {
+    private List<MovementResponseDTO> items;
+    // Nulo cuando no hay más páginas
+    private String nextCursor;
+}
@@ -1,10 +1,12 @@
 package com.testdevsu.demo.dto;
 
+import com.testdevsu.demo.model.MovementType;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.Setter;
 import lombok.NoArgsConstructor;
 
+import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 @Getter
@@ -13,7 +15,7 @@ import java.time.LocalDateTime;
 @AllArgsConstructor
 public class MovementReportDTO {
     private LocalDateTime date;
-    private String movementType;
-    private Double value;
-    private Double balance;
+    private MovementType movementType;
+    private BigDecimal value;
+    private BigDecimal balance;
 }
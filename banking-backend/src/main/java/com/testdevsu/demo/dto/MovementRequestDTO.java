@@ -1,10 +1,12 @@
 package com.testdevsu.demo.dto;
 
+import com.testdevsu.demo.model.MovementType;
 import jakarta.validation.constraints.*;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.Setter;
 import lombok.NoArgsConstructor;
+import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 @Getter
@@ -14,12 +16,12 @@ import java.time.LocalDateTime;
 public class MovementRequestDTO {
     private LocalDateTime date;
     
-    @NotBlank(message = "El tipo de movimiento es requerido")
-    @Size(max = 50, message = "El tipo de movimiento no debe exceder 50 caracteres")
-    private String movementType;
+    @NotNull(message = "El tipo de movimiento es requerido")
+    private MovementType movementType;
     
     @NotNull(message = "El valor es requerido")
-    private Double value;
+    @Digits(integer = 17, fraction = 2, message = "El valor admite como máximo 2 decimales")
+    private BigDecimal value;
     
     @NotNull(message = "El ID de la cuenta es requerido")
     private Long accountId;
@@ -1,9 +1,11 @@
 package com.testdevsu.demo.dto;
 
+import com.testdevsu.demo.model.MovementType;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.Setter;
 import lombok.NoArgsConstructor;
+import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 @Getter
@@ -13,9 +15,9 @@ import java.time.LocalDateTime;
 public class MovementResponseDTO {
     private Long id;
     private LocalDateTime date;
-    private String movementType;
-    private Double value;
-    private Double balance;
+    private MovementType movementType;
+    private BigDecimal value;
+    private BigDecimal balance;
     private Long accountId;
     private String accountNumber;
 }
@@ -0,0 +1,20 @@
+package com.testdevsu.demo.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.NoArgsConstructor;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReportCacheStatsDTO {
+    private long hits;
+    private long misses;
+    // Entradas descartadas porque la marca de agua del cliente cambió desde que se generaron
+    private long invalidations;
+    private long evictions;
+    private long entries;
+    private long weightBytes;
+}
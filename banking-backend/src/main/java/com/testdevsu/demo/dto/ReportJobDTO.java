@@ -0,0 +1,30 @@
+package com.testdevsu.demo.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ReportJobDTO {
+    private String id;
+    private ReportJobStatus status;
+    private Long clientId;
+    private String format;
+    private boolean gzip;
+    private LocalDateTime createdAt;
+    private LocalDateTime startedAt;
+    private LocalDateTime completedAt;
+    // Pasada esta fecha el trabajo y su archivo se eliminan
+    private LocalDateTime expiresAt;
+    private String fileName;
+    private Long size;
+    private String error;
+}
@@ -0,0 +1,29 @@
+package com.testdevsu.demo.dto;
+
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReportJobRequestDTO {
+    @NotNull(message = "El ID del cliente es requerido")
+    private Long clientId;
+
+    @NotNull(message = "La fecha de inicio es requerida")
+    private LocalDateTime startDate;
+
+    @NotNull(message = "La fecha de fin es requerida")
+    private LocalDateTime endDate;
+
+    private String format = "json";
+    private boolean compact;
+    // El archivo se guarda y se descarga comprimido (.gz)
+    private boolean gzip;
+}
@@ -0,0 +1,8 @@
+package com.testdevsu.demo.dto;
+
+public enum ReportJobStatus {
+    PENDIENTE,
+    EN_PROCESO,
+    COMPLETADO,
+    FALLIDO
+}
@@ -0,0 +1,16 @@
+package com.testdevsu.demo.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.NoArgsConstructor;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class StatementRowDTO {
+    // Cabecera de la cuenta compartida por todas sus filas; no lleva la lista de movimientos
+    private AccountReportDTO account;
+    private MovementReportDTO movement;
+}
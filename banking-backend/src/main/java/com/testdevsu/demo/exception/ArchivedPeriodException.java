@@ -0,0 +1,7 @@
+package com.testdevsu.demo.exception;
+
+public class ArchivedPeriodException extends RuntimeException {
+    public ArchivedPeriodException(String message) {
+        super(message);
+    }
+}
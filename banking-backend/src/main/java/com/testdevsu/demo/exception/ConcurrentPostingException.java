@@ -0,0 +1,7 @@
+package com.testdevsu.demo.exception;
+
+public class ConcurrentPostingException extends RuntimeException {
+    public ConcurrentPostingException(String message) {
+        super(message);
+    }
+}
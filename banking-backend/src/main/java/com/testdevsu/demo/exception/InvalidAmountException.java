@@ -0,0 +1,7 @@
+package com.testdevsu.demo.exception;
+
+public class InvalidAmountException extends RuntimeException {
+    public InvalidAmountException(String message) {
+        super(message);
+    }
+}
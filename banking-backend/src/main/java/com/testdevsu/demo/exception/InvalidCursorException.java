@@ -0,0 +1,7 @@
+package com.testdevsu.demo.exception;
+
+public class InvalidCursorException extends RuntimeException {
+    public InvalidCursorException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,7 @@
+package com.testdevsu.demo.exception;
+
+public class ReportJobRejectedException extends RuntimeException {
+    public ReportJobRejectedException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,7 @@
+package com.testdevsu.demo.exception;
+
+public class UnsupportedReportFormatException extends RuntimeException {
+    public UnsupportedReportFormatException(String message) {
+        super(message);
+    }
+}
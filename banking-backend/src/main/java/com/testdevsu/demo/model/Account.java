@@ -4,10 +4,16 @@ import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.ColumnDefault;
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Entity
 @Table(name = "account")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "account")
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -23,8 +29,19 @@ public class Account {
     @Column(nullable = false, length = 50)
     private String accountType;
 
-    @Column(nullable = false)
-    private Double initialBalance;
+    @Convert(converter = MoneyConverter.class)
+    @Column(nullable = false, precision = 19, scale = 2)
+    private long initialBalance;
+
+    @Convert(converter = MoneyConverter.class)
+    @Column(precision = 19, scale = 2)
+    private Long currentBalance;
+
+    @Column
+    private Long lastMovementId;
+
+    @Column
+    private LocalDateTime lastMovementDate;
 
     @Column(nullable = false)
     private Boolean status;
@@ -33,6 +50,12 @@ public class Account {
     @JoinColumn(name = "client_id", nullable = false)
     private Client client;
 
+    @Version
+    @Column(nullable = false)
+    @ColumnDefault("0")
+    private Long version;
+
+    // Los movimientos no se cachean: crecen sin límite y cambian con cada posteo
     @OneToMany(mappedBy = "account", cascade = {CascadeType.PERSIST, CascadeType.MERGE})
     private List<Movement> movements;
 }
@@ -0,0 +1,22 @@
+package com.testdevsu.demo.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.time.LocalDate;
+
+// Último día de la cuenta cuyos resúmenes diarios están completos; los días posteriores se leen de movement
+@Entity
+@Table(name = "balance_snapshot_watermark")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BalanceSnapshotWatermark {
+
+    @Id
+    private Long accountId;
+
+    @Column(nullable = false)
+    private LocalDate throughDay;
+}
@@ -5,6 +5,8 @@ import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import java.util.List;
 
 @Entity
@@ -24,6 +26,8 @@ public class Client extends Person {
     @Column(nullable = false)
     private Boolean status;
 
+    // La región de la entidad es la de Person (raíz de la jerarquía); aquí solo se cachea la colección
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "client-accounts")
     @OneToMany(mappedBy = "client", cascade = {CascadeType.PERSIST, CascadeType.MERGE})
     private List<Account> accounts;
 }
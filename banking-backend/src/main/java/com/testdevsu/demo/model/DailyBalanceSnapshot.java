@@ -0,0 +1,44 @@
+package com.testdevsu.demo.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.time.LocalDate;
+
+// Resumen de un día cerrado de una cuenta; solo existen filas para los días con movimientos
+@Entity
+@Table(name = "daily_balance_snapshot")
+@IdClass(DailyBalanceSnapshotId.class)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DailyBalanceSnapshot {
+
+    @Id
+    @Column(nullable = false)
+    private Long accountId;
+
+    @Id
+    @Column(nullable = false)
+    private LocalDate day;
+
+    @Convert(converter = MoneyConverter.class)
+    @Column(nullable = false, precision = 19, scale = 2)
+    private long opening;
+
+    @Convert(converter = MoneyConverter.class)
+    @Column(nullable = false, precision = 19, scale = 2)
+    private long closing;
+
+    @Convert(converter = MoneyConverter.class)
+    @Column(nullable = false, precision = 19, scale = 2)
+    private long credits;
+
+    @Convert(converter = MoneyConverter.class)
+    @Column(nullable = false, precision = 19, scale = 2)
+    private long debits;
+
+    @Column(name = "movement_count", nullable = false)
+    private int count;
+}
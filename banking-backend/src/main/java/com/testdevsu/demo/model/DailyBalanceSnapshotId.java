@@ -0,0 +1,15 @@
+package com.testdevsu.demo.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.io.Serializable;
+import java.time.LocalDate;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DailyBalanceSnapshotId implements Serializable {
+    private Long accountId;
+    private LocalDate day;
+}
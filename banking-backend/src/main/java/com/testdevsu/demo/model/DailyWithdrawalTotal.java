@@ -0,0 +1,28 @@
+package com.testdevsu.demo.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.time.LocalDate;
+
+@Entity
+@Table(name = "daily_withdrawal_total")
+@IdClass(DailyWithdrawalTotalId.class)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DailyWithdrawalTotal {
+
+    @Id
+    @Column(nullable = false)
+    private Long accountId;
+
+    @Id
+    @Column(nullable = false)
+    private LocalDate day;
+
+    @Convert(converter = MoneyConverter.class)
+    @Column(nullable = false, precision = 19, scale = 2)
+    private long total;
+}
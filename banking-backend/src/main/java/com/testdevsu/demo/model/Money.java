@@ -0,0 +1,34 @@
+package com.testdevsu.demo.model;
+
+import com.testdevsu.demo.exception.InvalidAmountException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+// Los importes viajan por el dominio como centavos en un long; BigDecimal solo aparece en los bordes (DTO y columna DECIMAL)
+public final class Money {
+
+    public static final int SCALE = 2;
+
+    private Money() {
+    }
+
+    // Un importe con más de dos decimales se rechaza en lugar de redondearse; los ceros sobrantes (10.500) se aceptan.
+    // Cubre también PATCH y cualquier otro camino que no pase por @Digits
+    public static long toCents(BigDecimal amount) {
+        BigDecimal scaled;
+        try {
+            scaled = amount.setScale(SCALE, RoundingMode.UNNECESSARY);
+        } catch (ArithmeticException e) {
+            throw new InvalidAmountException("El monto " + amount.toPlainString() + " admite como máximo " + SCALE + " decimales");
+        }
+        try {
+            return scaled.unscaledValue().longValueExact();
+        } catch (ArithmeticException e) {
+            throw new InvalidAmountException("El monto " + amount.toPlainString() + " está fuera de rango");
+        }
+    }
+
+    public static BigDecimal toAmount(long cents) {
+        return BigDecimal.valueOf(cents, SCALE);
+    }
+}
@@ -4,32 +4,45 @@ import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.PartitionKey;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "movement")
+@Table(name = "movement", indexes = {
+        @Index(name = "idx_movement_account_date_id", columnList = "account_id, date, id"),
+        @Index(name = "idx_movement_account_type_date", columnList = "account_id, movement_type, date")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class Movement {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "movement_id")
+    @TableGenerator(name = "movement_id", table = "id_generator", pkColumnName = "sequence_name",
+            valueColumnName = "next_val", pkColumnValue = "movement", allocationSize = 50)
     private Long id;
 
+    // Columna de partición: Hibernate la agrega al WHERE de UPDATE y DELETE para que solo toquen la partición del mes.
+    // La búsqueda por id sola no puede podarse y prueba la clave primaria de cada partición viva
+    @PartitionKey
     @Column(nullable = false)
     private LocalDateTime date;
 
-    @Column(nullable = false, length = 50)
-    private String movementType;
+    @Convert(converter = MovementTypeConverter.class)
+    @Column(nullable = false, length = 1)
+    private MovementType movementType;
 
-    @Column(nullable = false)
-    private Double value;
+    @Convert(converter = MoneyConverter.class)
+    @Column(nullable = false, precision = 19, scale = 2)
+    private long value;
 
-    @Column(nullable = false)
-    private Double balance;
+    @Convert(converter = MoneyConverter.class)
+    @Column(nullable = false, precision = 19, scale = 2)
+    private long balance;
 
+    // MySQL no admite claves foráneas en tablas particionadas; las cuentas solo se desactivan, nunca se borran
     @ManyToOne(fetch = FetchType.LAZY)
-    @JoinColumn(name = "account_id", nullable = false)
+    @JoinColumn(name = "account_id", nullable = false, foreignKey = @ForeignKey(ConstraintMode.NO_CONSTRAINT))
     private Account account;
 }
@@ -0,0 +1,19 @@
+package com.testdevsu.demo.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Mes ya archivado por alguna instancia, en formato yyyy-MM; todas deben tenerlo en su directorio
+@Entity
+@Table(name = "movement_archive_month")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class MovementArchiveMonth {
+
+    @Id
+    @Column(length = 7, columnDefinition = "CHAR(7)")
+    private String archivedMonth;
+}
@@ -0,0 +1,23 @@
+package com.testdevsu.demo.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.time.LocalDateTime;
+
+// Latido de una instancia con archivo frío; lo escribe y lee MovementArchiveNodes
+@Entity
+@Table(name = "movement_archive_node")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class MovementArchiveNode {
+
+    @Id
+    @Column(length = 36)
+    private String instanceId;
+
+    @Column(nullable = false)
+    private LocalDateTime beat;
+}
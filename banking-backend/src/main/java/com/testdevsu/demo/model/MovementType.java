@@ -0,0 +1,47 @@
+package com.testdevsu.demo.model;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonValue;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import java.text.Normalizer;
+
+@Getter
+@RequiredArgsConstructor
+public enum MovementType {
+    DEPOSITO("D", "Depósito"),
+    RETIRO("R", "Retiro");
+
+    // Código de una letra que se guarda en la columna movement_type
+    private final String code;
+
+    @JsonValue
+    private final String label;
+
+    // El retiro siempre resta y el depósito siempre suma, sin importar el signo recibido
+    public long signed(long amount) {
+        return this == RETIRO ? -Math.abs(amount) : Math.abs(amount);
+    }
+
+    // Acepta el nombre o la etiqueta con o sin tilde, y el código, sin distinguir mayúsculas,
+    // para que los clientes que envían "Retiro" o "Deposito" sigan funcionando
+    @JsonCreator
+    public static MovementType fromValue(String value) {
+        String normalized = Normalizer.normalize(value.trim(), Normalizer.Form.NFD).replaceAll("\\p{M}", "");
+        for (MovementType type : values()) {
+            if (type.name().equalsIgnoreCase(normalized) || type.code.equalsIgnoreCase(normalized)) {
+                return type;
+            }
+        }
+        throw new IllegalArgumentException("Tipo de movimiento no válido: " + value);
+    }
+
+    public static MovementType fromCode(String code) {
+        for (MovementType type : values()) {
+            if (type.code.equals(code)) {
+                return type;
+            }
+        }
+        throw new IllegalArgumentException("Código de tipo de movimiento no válido: " + code);
+    }
+}
@@ -0,0 +1,18 @@
+package com.testdevsu.demo.model;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+@Converter
+public class MovementTypeConverter implements AttributeConverter<MovementType, String> {
+
+    @Override
+    public String convertToDatabaseColumn(MovementType type) {
+        return type != null ? type.getCode() : null;
+    }
+
+    @Override
+    public MovementType convertToEntityAttribute(String code) {
+        return code != null ? MovementType.fromCode(code) : null;
+    }
+}
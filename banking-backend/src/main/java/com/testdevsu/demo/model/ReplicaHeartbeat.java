@@ -0,0 +1,23 @@
+package com.testdevsu.demo.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.time.LocalDateTime;
+
+// Latido de una instancia hacia la réplica; lo escribe en la principal y lo lee en la réplica ReplicaLagMonitor
+@Entity
+@Table(name = "replica_heartbeat")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReplicaHeartbeat {
+
+    @Id
+    @Column(length = 36)
+    private String instanceId;
+
+    @Column(nullable = false)
+    private LocalDateTime beat;
+}
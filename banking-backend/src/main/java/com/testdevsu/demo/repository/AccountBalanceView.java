@@ -0,0 +1,18 @@
+package com.testdevsu.demo.repository;
+
+import com.testdevsu.demo.model.Account;
+import java.time.LocalDateTime;
+
+// Proyección del saldo corriente en centavos; la versión de la cuenta ordena las instantáneas concurrentes
+public record AccountBalanceView(Long accountId, Long currentBalance, Long lastMovementId,
+                                 LocalDateTime lastMovementDate, Long version) {
+
+    public static AccountBalanceView of(Account account) {
+        return new AccountBalanceView(account.getId(), account.getCurrentBalance(), account.getLastMovementId(),
+                account.getLastMovementDate(), account.getVersion());
+    }
+
+    public boolean isNewerThan(AccountBalanceView other) {
+        return version >= other.version;
+    }
+}
@@ -1,13 +1,89 @@
 package com.testdevsu.demo.repository;
 
+import com.testdevsu.demo.dto.AccountResponseDTO;
 import com.testdevsu.demo.model.Account;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
+import static org.hibernate.jpa.HibernateHints.HINT_CACHEABLE;
+
 @Repository
 public interface AccountRepository extends JpaRepository<Account, Long> {
+    // Caché de consultas: Hibernate las invalida en cuanto cambia cualquier fila de account
+    @QueryHints(@QueryHint(name = HINT_CACHEABLE, value = "true"))
     Optional<Account> findByAccountNumber(String accountNumber);
+
+    @QueryHints(@QueryHint(name = HINT_CACHEABLE, value = "true"))
     List<Account> findByClientId(Long clientId);
+
+    // Una sola sentencia con el cliente unido; el saldo corriente ya está desnormalizado en la cuenta
+    @Query("""
+            SELECT new com.testdevsu.demo.dto.AccountResponseDTO(
+                a.id, a.accountNumber, a.accountType, a.initialBalance, a.currentBalance, a.status, c.id, c.name)
+            FROM Account a JOIN a.client c
+            ORDER BY a.id
+            """)
+    List<AccountResponseDTO> findAllSummaries(Pageable pageable);
+
+    @Query("""
+            SELECT new com.testdevsu.demo.dto.AccountResponseDTO(
+                a.id, a.accountNumber, a.accountType, a.initialBalance, a.currentBalance, a.status, c.id, c.name)
+            FROM Account a JOIN a.client c
+            WHERE a.id = :id
+            """)
+    Optional<AccountResponseDTO> findSummaryById(@Param("id") Long id);
+
+    @Query("""
+            SELECT new com.testdevsu.demo.repository.AccountBalanceView(
+                a.id, a.currentBalance, a.lastMovementId, a.lastMovementDate, a.version)
+            FROM Account a
+            WHERE a.id = :id
+            """)
+    Optional<AccountBalanceView> findBalanceById(@Param("id") Long id);
+
+    // Una fila agregada sobre el índice de account.client_id; sin filas si el cliente no existe
+    @Query("""
+            SELECT new com.testdevsu.demo.repository.ReportWatermark(
+                c.name, c.clientId, COUNT(a.id), COALESCE(SUM(a.version), 0L), COALESCE(MAX(a.id), 0L))
+            FROM Client c LEFT JOIN c.accounts a
+            WHERE c.id = :clientId
+            GROUP BY c.id, c.name, c.clientId
+            """)
+    Optional<ReportWatermark> findReportWatermark(@Param("clientId") Long clientId);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT a FROM Account a WHERE a.id = :id")
+    Optional<Account> findByIdForUpdate(@Param("id") Long id);
+
+    // En orden de id para que dos bloqueos de varias cuentas no se crucen
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT a FROM Account a WHERE a.id IN :ids ORDER BY a.id")
+    List<Account> findAllByIdForUpdate(@Param("ids") Collection<Long> ids);
+
+    @Lock(LockModeType.OPTIMISTIC_FORCE_INCREMENT)
+    @Query("SELECT a FROM Account a WHERE a.id = :id")
+    Optional<Account> findByIdForVersionIncrement(@Param("id") Long id);
+
+    @Modifying
+    @Query("""
+            UPDATE Account a SET
+                a.currentBalance = a.initialBalance
+                    + COALESCE((SELECT SUM(m.value) FROM Movement m WHERE m.account = a), 0),
+                a.lastMovementDate = (SELECT MAX(m.date) FROM Movement m WHERE m.account = a),
+                a.lastMovementId = (SELECT MAX(m.id) FROM Movement m WHERE m.account = a
+                    AND m.date = (SELECT MAX(l.date) FROM Movement l WHERE l.account = a))
+            WHERE a.currentBalance IS NULL
+            """)
+    int backfillRunningBalances();
 }
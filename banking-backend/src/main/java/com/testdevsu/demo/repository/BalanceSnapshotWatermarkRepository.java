@@ -0,0 +1,31 @@
+package com.testdevsu.demo.repository;
+
+import com.testdevsu.demo.model.BalanceSnapshotWatermark;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface BalanceSnapshotWatermarkRepository extends JpaRepository<BalanceSnapshotWatermark, Long> {
+
+    // Cuentas cuyos resúmenes todavía no llegan al día indicado, incluidas las que nunca se procesaron
+    @Query("""
+            SELECT a.id FROM Account a
+            WHERE NOT EXISTS (SELECT w FROM BalanceSnapshotWatermark w WHERE w.accountId = a.id AND w.throughDay >= :day)
+            ORDER BY a.id
+            """)
+    List<Long> findAccountIdsBehind(@Param("day") LocalDate day);
+
+    // Proyección y no entidad: una marca ya cargada en el contexto no vería un lowerTo de la misma transacción
+    @Query("SELECT w.throughDay FROM BalanceSnapshotWatermark w WHERE w.accountId = :accountId")
+    Optional<LocalDate> findThroughDay(@Param("accountId") Long accountId);
+
+    @Modifying
+    @Query("UPDATE BalanceSnapshotWatermark w SET w.throughDay = :day WHERE w.accountId = :accountId AND w.throughDay > :day")
+    int lowerTo(@Param("accountId") Long accountId, @Param("day") LocalDate day);
+}
@@ -0,0 +1,36 @@
+package com.testdevsu.demo.repository;
+
+import com.testdevsu.demo.model.DailyBalanceSnapshot;
+import com.testdevsu.demo.model.DailyBalanceSnapshotId;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface DailyBalanceSnapshotRepository extends JpaRepository<DailyBalanceSnapshot, DailyBalanceSnapshotId> {
+
+    // Una fila por día con movimientos sobre la clave primaria (account_id, day), en lugar de cada movimiento
+    @Query(value = """
+            SELECT s.account_id AS accountId,
+                   COALESCE(SUM(s.credits), 0) AS credits,
+                   COALESCE(SUM(s.debits), 0) AS debits
+            FROM daily_balance_snapshot s
+            WHERE s.account_id IN (:accountIds) AND s.day BETWEEN :fromDay AND :toDay
+            GROUP BY s.account_id
+            """, nativeQuery = true)
+    List<StatementTotalsView> findTotals(@Param("accountIds") Collection<Long> accountIds,
+                                         @Param("fromDay") LocalDate fromDay,
+                                         @Param("toDay") LocalDate toDay);
+
+    Optional<DailyBalanceSnapshot> findTopByAccountIdAndDayBeforeOrderByDayDesc(Long accountId, LocalDate day);
+
+    @Modifying
+    @Query("DELETE FROM DailyBalanceSnapshot s WHERE s.accountId = :accountId AND s.day >= :day")
+    int deleteFrom(@Param("accountId") Long accountId, @Param("day") LocalDate day);
+}
@@ -0,0 +1,12 @@
+package com.testdevsu.demo.repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+// Totales de un día de una cuenta calculados en la base de datos; los importes llegan como DECIMAL
+public interface DailyTotalsView {
+    LocalDate getDay();
+    BigDecimal getCredits();
+    BigDecimal getDebits();
+    Long getMovementCount();
+}
@@ -0,0 +1,54 @@
+package com.testdevsu.demo.repository;
+
+import com.testdevsu.demo.model.DailyWithdrawalTotal;
+import com.testdevsu.demo.model.DailyWithdrawalTotalId;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import java.time.LocalDate;
+
+@Repository
+public interface DailyWithdrawalTotalRepository extends JpaRepository<DailyWithdrawalTotal, DailyWithdrawalTotalId> {
+
+    // El hint limita el flush previo a esta tabla, así no se vacía el lote de inserciones de movimientos
+    @Modifying
+    @QueryHints(@QueryHint(name = "org.hibernate.query.native.spaces", value = "daily_withdrawal_total"))
+    @Query(value = """
+            INSERT INTO daily_withdrawal_total (account_id, day, total) VALUES (:accountId, :day, 0)
+            ON DUPLICATE KEY UPDATE total = total
+            """, nativeQuery = true)
+    void ensureExists(@Param("accountId") Long accountId, @Param("day") LocalDate day);
+
+    // maxTotal = cupo - monto; se compara directo contra la columna para que el conversor de centavos se aplique
+    @Modifying
+    @Query("""
+            UPDATE DailyWithdrawalTotal d SET d.total = d.total + :amount
+            WHERE d.accountId = :accountId AND d.day = :day AND d.total <= :maxTotal
+            """)
+    int incrementWithinLimit(@Param("accountId") Long accountId, @Param("day") LocalDate day,
+                             @Param("amount") long amount, @Param("maxTotal") long maxTotal);
+
+    @Modifying
+    @Query("""
+            UPDATE DailyWithdrawalTotal d SET d.total = d.total + :amount
+            WHERE d.accountId = :accountId AND d.day = :day
+            """)
+    int increment(@Param("accountId") Long accountId, @Param("day") LocalDate day, @Param("amount") long amount);
+
+    @Query("SELECT COUNT(d) > 0 FROM DailyWithdrawalTotal d")
+    boolean existsAny();
+
+    @Modifying
+    @Query(value = """
+            INSERT INTO daily_withdrawal_total (account_id, day, total)
+            SELECT m.account_id, CAST(m.date AS DATE), SUM(-m.value)
+            FROM movement m
+            WHERE m.value < 0
+            GROUP BY m.account_id, CAST(m.date AS DATE)
+            """, nativeQuery = true)
+    int backfillFromMovements();
+}
@@ -1,13 +1,158 @@
 package com.testdevsu.demo.repository;
 
 import com.testdevsu.demo.model.Movement;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.HibernateHints.HINT_READ_ONLY;
 
 @Repository
 public interface MovementRepository extends JpaRepository<Movement, Long> {
-    List<Movement> findByAccountId(Long accountId);
-    List<Movement> findByAccountIdAndDateBetween(Long accountId, LocalDateTime startDate, LocalDateTime endDate);
+    // Todas las consultas por cuenta recorren el índice (account_id, date, id) en orden, sin filesort
+    List<Movement> findByAccountIdOrderByDateAscIdAsc(Long accountId);
+    Optional<Movement> findTopByAccountIdOrderByDateAscIdAsc(Long accountId);
+    Optional<Movement> findTopByAccountIdOrderByDateDescIdDesc(Long accountId);
+    Optional<Movement> findTopByAccountIdAndDateBeforeOrderByDateDescIdDesc(Long accountId, LocalDateTime date);
+    List<Movement> findByAccountIdOrderByDateDescIdDesc(Long accountId, Pageable pageable);
+
+    // Páginas del listado global por búsqueda sobre la clave primaria, del más reciente al más antiguo
+    @Query("SELECT m FROM Movement m JOIN FETCH m.account ORDER BY m.id DESC")
+    List<Movement> findLatest(Pageable pageable);
+
+    @Query("SELECT m FROM Movement m JOIN FETCH m.account WHERE m.id < :id ORDER BY m.id DESC")
+    List<Movement> findLatestBefore(@Param("id") Long id, Pageable pageable);
+
+    // Movimientos del rango para varias cuentas a la vez, agrupados por cuenta y en orden cronológico dentro de cada una
+    @Query("SELECT m FROM Movement m WHERE m.account.id IN :accountIds " +
+           "AND m.date BETWEEN :startDate AND :endDate ORDER BY m.account.id, m.date, m.id")
+    List<Movement> findStatementMovements(@Param("accountIds") Collection<Long> accountIds,
+                                          @Param("startDate") LocalDateTime startDate,
+                                          @Param("endDate") LocalDateTime endDate);
+
+    // Misma consulta como cursor para los formatos por filas: el driver trae bloques de 500 filas
+    // (en MySQL requiere useCursorFetch=true en la URL) y las entidades no guardan copia para dirty checking
+    @QueryHints({
+            @QueryHint(name = HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT m FROM Movement m WHERE m.account.id IN :accountIds " +
+           "AND m.date BETWEEN :startDate AND :endDate ORDER BY m.account.id, m.date, m.id")
+    Stream<Movement> streamStatementMovements(@Param("accountIds") Collection<Long> accountIds,
+                                              @Param("startDate") LocalDateTime startDate,
+                                              @Param("endDate") LocalDateTime endDate);
+
+    // Nativa para que SUM opere sobre la columna DECIMAL sin pasar por el conversor de centavos
+    @Query(value = """
+            SELECT m.account_id AS accountId,
+                   COALESCE(SUM(CASE WHEN m.value > 0 THEN m.value ELSE 0 END), 0) AS credits,
+                   COALESCE(SUM(CASE WHEN m.value < 0 THEN -m.value ELSE 0 END), 0) AS debits
+            FROM movement m
+            WHERE m.account_id IN (:accountIds) AND m.date BETWEEN :startDate AND :endDate
+            GROUP BY m.account_id
+            """, nativeQuery = true)
+    List<StatementTotalsView> findStatementTotals(@Param("accountIds") Collection<Long> accountIds,
+                                                  @Param("startDate") LocalDateTime startDate,
+                                                  @Param("endDate") LocalDateTime endDate);
+
+    // Igual que la anterior pero solo para los tramos del periodo que no cubren los resúmenes diarios:
+    // dos rangos sobre (account_id, date) antes de :fullFrom y desde :fullTo
+    @Query(value = """
+            SELECT m.account_id AS accountId,
+                   COALESCE(SUM(CASE WHEN m.value > 0 THEN m.value ELSE 0 END), 0) AS credits,
+                   COALESCE(SUM(CASE WHEN m.value < 0 THEN -m.value ELSE 0 END), 0) AS debits
+            FROM movement m
+            WHERE m.account_id IN (:accountIds)
+              AND ((m.date >= :startDate AND m.date < :fullFrom) OR (m.date >= :fullTo AND m.date <= :endDate))
+            GROUP BY m.account_id
+            """, nativeQuery = true)
+    List<StatementTotalsView> findStatementEdgeTotals(@Param("accountIds") Collection<Long> accountIds,
+                                                      @Param("startDate") LocalDateTime startDate,
+                                                      @Param("endDate") LocalDateTime endDate,
+                                                      @Param("fullFrom") LocalDateTime fullFrom,
+                                                      @Param("fullTo") LocalDateTime fullTo);
+
+    // Totales por día de una cuenta para el cierre nocturno, en orden cronológico
+    @Query(value = """
+            SELECT CAST(m.date AS DATE) AS day,
+                   COALESCE(SUM(CASE WHEN m.value > 0 THEN m.value ELSE 0 END), 0) AS credits,
+                   COALESCE(SUM(CASE WHEN m.value < 0 THEN -m.value ELSE 0 END), 0) AS debits,
+                   COUNT(*) AS movementCount
+            FROM movement m
+            WHERE m.account_id = :accountId AND m.date >= :fromDate AND m.date < :toDate
+            GROUP BY CAST(m.date AS DATE)
+            ORDER BY CAST(m.date AS DATE)
+            """, nativeQuery = true)
+    List<DailyTotalsView> findDailyTotals(@Param("accountId") Long accountId,
+                                          @Param("fromDate") LocalDateTime fromDate,
+                                          @Param("toDate") LocalDateTime toDate);
+
+    @Query(value = """
+            SELECT CAST(m.date AS DATE) AS day,
+                   COALESCE(SUM(CASE WHEN m.value > 0 THEN m.value ELSE 0 END), 0) AS credits,
+                   COALESCE(SUM(CASE WHEN m.value < 0 THEN -m.value ELSE 0 END), 0) AS debits,
+                   COUNT(*) AS movementCount
+            FROM movement m
+            WHERE m.account_id = :accountId AND m.date < :toDate
+            GROUP BY CAST(m.date AS DATE)
+            ORDER BY CAST(m.date AS DATE)
+            """, nativeQuery = true)
+    List<DailyTotalsView> findDailyTotalsBefore(@Param("accountId") Long accountId,
+                                                @Param("toDate") LocalDateTime toDate);
+
+    @Query("SELECT m.account.id FROM Movement m WHERE m.id = :id")
+    Optional<Long> findAccountIdById(@Param("id") Long id);
+
+    // Saldos anteriores a (date, id) del más reciente al más antiguo; con una página de 1 se obtiene el predecesor
+    @Query("SELECT m.balance FROM Movement m WHERE m.account.id = :accountId " +
+           "AND (m.date < :date OR (m.date = :date AND m.id < :id)) ORDER BY m.date DESC, m.id DESC")
+    List<Long> findPrecedingBalances(@Param("accountId") Long accountId, @Param("date") LocalDateTime date,
+                                     @Param("id") Long id, Pageable pageable);
+
+    // Mismo predecesor acotado desde :since: con la tabla particionada por mes solo se recorre la partición de ese día
+    @Query("SELECT m.balance FROM Movement m WHERE m.account.id = :accountId AND m.date >= :since " +
+           "AND (m.date < :date OR (m.date = :date AND m.id < :id)) ORDER BY m.date DESC, m.id DESC")
+    List<Long> findPrecedingBalancesSince(@Param("accountId") Long accountId, @Param("since") LocalDateTime since,
+                                          @Param("date") LocalDateTime date, @Param("id") Long id,
+                                          Pageable pageable);
+
+    @Query("SELECT m FROM Movement m WHERE m.account.id = :accountId " +
+           "AND (m.date < :date OR (m.date = :date AND m.id < :id)) ORDER BY m.date DESC, m.id DESC")
+    List<Movement> findPreceding(@Param("accountId") Long accountId, @Param("date") LocalDateTime date,
+                                 @Param("id") Long id, Pageable pageable);
+
+    // Movimiento inmediatamente anterior en orden (fecha, id) dentro de su cuenta
+    default Optional<Movement> findPredecessor(Movement movement) {
+        return findPreceding(movement.getAccount().getId(), movement.getDate(), movement.getId(), PageRequest.of(0, 1))
+                .stream()
+                .findFirst();
+    }
+
+    // Saldos desde (date, id), incluida, del menor al mayor; con una página de 1 se obtiene el mínimo del tramo.
+    // La cota m.date >= :date deja que MySQL pode las particiones anteriores
+    @Query("SELECT m.balance FROM Movement m WHERE m.account.id = :accountId AND m.date >= :date " +
+           "AND (m.date > :date OR (m.date = :date AND m.id >= :id)) ORDER BY m.balance")
+    List<Long> findBalancesFromPositionAscending(@Param("accountId") Long accountId, @Param("date") LocalDateTime date,
+                                                 @Param("id") Long id, Pageable pageable);
+
+    // Desplaza en delta los saldos desde (date, id), incluida, con un solo UPDATE sin cargar las filas;
+    // excludedId deja fuera al movimiento que se está reubicando. Se vacía antes la sesión para que la
+    // sentencia vea las fechas y cuentas pendientes
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE Movement m SET m.balance = m.balance + :delta WHERE m.account.id = :accountId AND m.date >= :date " +
+           "AND (m.date > :date OR (m.date = :date AND m.id >= :id)) AND m.id <> :excludedId")
+    int shiftBalancesFrom(@Param("accountId") Long accountId, @Param("date") LocalDateTime date, @Param("id") Long id,
+                          @Param("delta") long delta, @Param("excludedId") Long excludedId);
 }
@@ -0,0 +1,7 @@
+package com.testdevsu.demo.repository;
+
+// Resumen barato de todo lo que puede cambiar un estado de cuenta del cliente. Cada movimiento, edición o borrado
+// incrementa la versión de su cuenta; crear o borrar cuentas cambia el conteo y el id máximo
+public record ReportWatermark(String clientName, String clientCode, Long accounts, Long versionSum,
+                              Long maxAccountId) {
+}
@@ -0,0 +1,10 @@
+package com.testdevsu.demo.repository;
+
+import java.math.BigDecimal;
+
+// Totales de un rango por cuenta calculados en la base de datos; los importes llegan como DECIMAL
+public interface StatementTotalsView {
+    Long getAccountId();
+    BigDecimal getCredits();
+    BigDecimal getDebits();
+}
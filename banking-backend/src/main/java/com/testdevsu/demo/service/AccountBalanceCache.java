@@ -0,0 +1,72 @@
+package com.testdevsu.demo.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.testdevsu.demo.model.Account;
+import com.testdevsu.demo.repository.AccountBalanceView;
+import com.testdevsu.demo.repository.AccountRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+// Saldo corriente por cuenta, cargado bajo demanda y actualizado solo cuando la transacción que lo cambió confirma
+@Component
+public class AccountBalanceCache {
+
+    private final AccountRepository accountRepository;
+    private final Cache<Long, AccountBalanceView> balances;
+
+    public AccountBalanceCache(AccountRepository accountRepository,
+                               @Value("${banking.balance-cache.maximum-size:10000}") long maximumSize,
+                               @Value("${banking.balance-cache.time-to-live:10m}") Duration timeToLive) {
+        this.accountRepository = accountRepository;
+        this.balances = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(timeToLive)
+                .build();
+    }
+
+    public Optional<AccountBalanceView> get(Long accountId) {
+        return Optional.ofNullable(balances.get(accountId, id -> accountRepository.findBalanceById(id).orElse(null)));
+    }
+
+    // Se toma la instantánea en afterCommit, cuando la versión ya fue incrementada por el flush;
+    // si la transacción se revierte no se publica nada
+    public void publishAfterCommit(Account account) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            put(AccountBalanceView.of(account));
+            return;
+        }
+
+        @SuppressWarnings("unchecked")
+        Map<Long, Account> pending = (Map<Long, Account>) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            Map<Long, Account> accounts = new LinkedHashMap<>();
+            TransactionSynchronizationManager.bindResource(this, accounts);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    accounts.values().forEach(changed -> put(AccountBalanceView.of(changed)));
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(AccountBalanceCache.this);
+                }
+            });
+            pending = accounts;
+        }
+        pending.put(account.getId(), account);
+    }
+
+    // Dos confirmaciones pueden llegar en desorden; prevalece la de versión más alta
+    private void put(AccountBalanceView balance) {
+        balances.asMap().merge(balance.accountId(), balance,
+                (current, candidate) -> candidate.isNewerThan(current) ? candidate : current);
+    }
+}
@@ -1,12 +1,14 @@
 package com.testdevsu.demo.service;
 
+import com.testdevsu.demo.dto.AccountBalanceDTO;
 import com.testdevsu.demo.dto.AccountRequestDTO;
 import com.testdevsu.demo.dto.AccountResponseDTO;
 import java.util.List;
 
 public interface AccountService {
-    List<AccountResponseDTO> getAllAccounts();
+    List<AccountResponseDTO> getAllAccounts(Integer page, Integer size);
     AccountResponseDTO getAccountById(Long id);
+    AccountBalanceDTO getAccountBalance(Long id);
     AccountResponseDTO createAccount(AccountRequestDTO requestDTO);
     AccountResponseDTO updateAccount(Long id, AccountRequestDTO requestDTO);
     AccountResponseDTO partialUpdateAccount(Long id, AccountRequestDTO requestDTO);
@@ -1,20 +1,27 @@
 package com.testdevsu.demo.service;
 
+import com.testdevsu.demo.dto.AccountBalanceDTO;
 import com.testdevsu.demo.dto.AccountRequestDTO;
 import com.testdevsu.demo.dto.AccountResponseDTO;
+import com.testdevsu.demo.exception.ArchivedPeriodException;
 import com.testdevsu.demo.exception.DuplicateResourceException;
 import com.testdevsu.demo.exception.ResourceNotFoundException;
 import com.testdevsu.demo.model.Account;
 import com.testdevsu.demo.model.Client;
+import com.testdevsu.demo.model.Money;
 import com.testdevsu.demo.model.Movement;
+import com.testdevsu.demo.repository.AccountBalanceView;
 import com.testdevsu.demo.repository.AccountRepository;
 import com.testdevsu.demo.repository.ClientRepository;
 import com.testdevsu.demo.repository.MovementRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import java.math.BigDecimal;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Optional;
 
 @Service
 @RequiredArgsConstructor
@@ -23,19 +30,43 @@ public class AccountServiceImpl implements AccountService {
     private final AccountRepository accountRepository;
     private final ClientRepository clientRepository;
     private final MovementRepository movementRepository;
+    private final PostingConcurrencyStrategy postingStrategy;
+    private final BalanceChain balanceChain;
+    private final BalanceSnapshots balanceSnapshots;
+    private final MovementArchive movementArchive;
+    private final AccountBalanceCache balanceCache;
+    private final ReplicaConsistency replicaConsistency;
 
+    private static final int DEFAULT_PAGE_SIZE = 50;
+    private static final int MAX_PAGE_SIZE = 500;
+
+    // Sin parámetros de página se devuelve el listado completo, pero igualmente en una sola consulta
     @Transactional(readOnly = true)
-    public List<AccountResponseDTO> getAllAccounts() {
-        return accountRepository.findAll().stream()
-                .map(this::mapToResponseDTO)
-                .collect(Collectors.toList());
+    public List<AccountResponseDTO> getAllAccounts(Integer page, Integer size) {
+        Pageable pageable = page == null && size == null
+                ? Pageable.unpaged()
+                : PageRequest.of(page != null ? Math.max(page, 0) : 0,
+                        size != null ? Math.min(Math.max(size, 1), MAX_PAGE_SIZE) : DEFAULT_PAGE_SIZE);
+        return accountRepository.findAllSummaries(pageable);
     }
 
     @Transactional(readOnly = true)
     public AccountResponseDTO getAccountById(Long id) {
-        Account account = accountRepository.findById(id)
+        replicaConsistency.readingAccount(id);
+        return accountRepository.findSummaryById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Cuenta no encontrada con id: " + id));
+    }
+
+    // Sin transacción: si el saldo está en caché no se toca la base de datos
+    public AccountBalanceDTO getAccountBalance(Long id) {
+        AccountBalanceView balance = balanceCache.get(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Cuenta no encontrada con id: " + id));
-        return mapToResponseDTO(account);
+        return new AccountBalanceDTO(
+                balance.accountId(),
+                balance.currentBalance() != null ? Money.toAmount(balance.currentBalance()) : null,
+                balance.lastMovementId(),
+                balance.lastMovementDate()
+        );
     }
 
     @Transactional
@@ -51,7 +82,9 @@ public class AccountServiceImpl implements AccountService {
         Account account = new Account();
         account.setAccountNumber(requestDTO.getAccountNumber());
         account.setAccountType(requestDTO.getAccountType());
-        account.setInitialBalance(requestDTO.getInitialBalance());
+        long initialBalance = Money.toCents(requestDTO.getInitialBalance());
+        account.setInitialBalance(initialBalance);
+        account.setCurrentBalance(initialBalance);
         account.setStatus(requestDTO.getStatus() != null ? requestDTO.getStatus() : true);
         account.setClient(client);
 
@@ -59,9 +92,13 @@ public class AccountServiceImpl implements AccountService {
         return mapToResponseDTO(savedAccount);
     }
 
-    @Transactional
+    // Cambiar el saldo inicial reescribe los saldos de la cuenta: va bajo el modo de concurrencia de los movimientos
     public AccountResponseDTO updateAccount(Long id, AccountRequestDTO requestDTO) {
-        Account account = accountRepository.findById(id)
+        return postingStrategy.execute(id, () -> applyUpdate(id, requestDTO));
+    }
+
+    private AccountResponseDTO applyUpdate(Long id, AccountRequestDTO requestDTO) {
+        Account account = postingStrategy.loadAccount(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Cuenta no encontrada con id: " + id));
 
         Client client = clientRepository.findById(requestDTO.getClientId())
@@ -69,7 +106,7 @@ public class AccountServiceImpl implements AccountService {
 
         account.setAccountNumber(requestDTO.getAccountNumber());
         account.setAccountType(requestDTO.getAccountType());
-        account.setInitialBalance(requestDTO.getInitialBalance());
+        changeInitialBalance(account, requestDTO.getInitialBalance());
         account.setStatus(requestDTO.getStatus());
         account.setClient(client);
 
@@ -77,14 +114,17 @@ public class AccountServiceImpl implements AccountService {
         return mapToResponseDTO(updatedAccount);
     }
 
-    @Transactional
     public AccountResponseDTO partialUpdateAccount(Long id, AccountRequestDTO requestDTO) {
-        Account account = accountRepository.findById(id)
+        return postingStrategy.execute(id, () -> applyPartialUpdate(id, requestDTO));
+    }
+
+    private AccountResponseDTO applyPartialUpdate(Long id, AccountRequestDTO requestDTO) {
+        Account account = postingStrategy.loadAccount(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Cuenta no encontrada con id: " + id));
 
         if (requestDTO.getAccountNumber() != null) account.setAccountNumber(requestDTO.getAccountNumber());
         if (requestDTO.getAccountType() != null) account.setAccountType(requestDTO.getAccountType());
-        if (requestDTO.getInitialBalance() != null) account.setInitialBalance(requestDTO.getInitialBalance());
+        if (requestDTO.getInitialBalance() != null) changeInitialBalance(account, requestDTO.getInitialBalance());
         if (requestDTO.getStatus() != null) account.setStatus(requestDTO.getStatus());
         
         if (requestDTO.getClientId() != null) {
@@ -106,25 +146,42 @@ public class AccountServiceImpl implements AccountService {
     }
 
     private AccountResponseDTO mapToResponseDTO(Account account) {
-        Double currentBalance = getCurrentBalance(account);
         return new AccountResponseDTO(
                 account.getId(),
                 account.getAccountNumber(),
                 account.getAccountType(),
-                account.getInitialBalance(),
-                currentBalance,
+                Money.toAmount(account.getInitialBalance()),
+                Money.toAmount(account.getCurrentBalance()),
                 account.getStatus(),
                 account.getClient().getId(),
                 account.getClient().getName()
         );
     }
     
-    private Double getCurrentBalance(Account account) {
-        List<Movement> movements = movementRepository.findByAccountId(account.getId());
-        
-        return movements.stream()
-                .reduce((first, second) -> second)
-                .map(Movement::getBalance)
-                .orElse(account.getInitialBalance());
+    // Todos los saldos de la cuenta parten del inicial, así que la cadena entera se desplaza con él desde el primer
+    // movimiento, igual que ante un movimiento retroactivo. Los meses archivados guardan sus saldos y no se reescriben
+    private void changeInitialBalance(Account account, BigDecimal amount) {
+        long initialBalance = Money.toCents(amount);
+        long delta = initialBalance - account.getInitialBalance();
+        if (delta == 0) {
+            return;
+        }
+        if (movementArchive.holds(account.getId())) {
+            throw new ArchivedPeriodException("La cuenta " + account.getId()
+                    + " tiene movimientos archivados y su saldo inicial ya no admite cambios");
+        }
+
+        Optional<Movement> firstMovement = movementRepository.findTopByAccountIdOrderByDateAscIdAsc(account.getId());
+        if (firstMovement.isPresent()) {
+            Movement first = firstMovement.get();
+            BalanceChain.Rechain balances = balanceChain.planFrom(account, first.getDate(), first.getId(), delta);
+            balanceSnapshots.invalidateFrom(account, first.getDate().toLocalDate());
+            balances.apply();
+        }
+
+        account.setInitialBalance(initialBalance);
+        account.setCurrentBalance(account.getCurrentBalance() + delta);
+        balanceCache.publishAfterCommit(account);
+        replicaConsistency.recordPosting(account);
     }
 }
@@ -0,0 +1,116 @@
+package com.testdevsu.demo.service;
+
+import com.testdevsu.demo.exception.InsufficientBalanceException;
+import com.testdevsu.demo.model.Account;
+import com.testdevsu.demo.model.DailyBalanceSnapshot;
+import com.testdevsu.demo.model.Movement;
+import com.testdevsu.demo.repository.BalanceSnapshotWatermarkRepository;
+import com.testdevsu.demo.repository.DailyBalanceSnapshotRepository;
+import com.testdevsu.demo.repository.MovementRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+// Mantiene encadenados los saldos de una cuenta en orden (fecha, id) ante movimientos retroactivos, ediciones y borrados
+@Component
+@RequiredArgsConstructor
+public class BalanceChain {
+
+    private final MovementRepository movementRepository;
+    private final DailyBalanceSnapshotRepository snapshotRepository;
+    private final BalanceSnapshotWatermarkRepository watermarkRepository;
+    private final MovementArchive movementArchive;
+
+    // Saldo del movimiento inmediatamente anterior a la posición (date, id), o el saldo inicial si no hay ninguno.
+    // Primero se busca dentro del mismo día y, para los días anteriores, en el cierre resumido más reciente;
+    // así no se recorren las particiones de meses viejos de movement, que además pueden estar en el archivo frío
+    public long balanceBefore(Account account, LocalDateTime date, long id) {
+        LocalDateTime dayStart = date.toLocalDate().atStartOfDay();
+        if (date.isAfter(dayStart) || id > 0) {
+            Optional<Long> sameDay = movementRepository.findPrecedingBalancesSince(account.getId(), dayStart, date, id,
+                    PageRequest.of(0, 1)).stream().findFirst();
+            if (sameDay.isEmpty()) {
+                sameDay = movementArchive.balanceBefore(account.getId(), date, id);
+            }
+            if (sameDay.isPresent()) {
+                return sameDay.get();
+            }
+        }
+
+        LocalDate day = dayStart.toLocalDate();
+        boolean summarized = watermarkRepository.findThroughDay(account.getId())
+                .map(throughDay -> !throughDay.isBefore(day.minusDays(1)))
+                .orElse(false);
+        if (summarized) {
+            return snapshotRepository.findTopByAccountIdAndDayBeforeOrderByDayDesc(account.getId(), day)
+                    .map(DailyBalanceSnapshot::getClosing)
+                    .orElse(account.getInitialBalance());
+        }
+
+        // Si en movement no queda nada anterior, lo previo está archivado y su cierre sigue en los resúmenes
+        return movementRepository.findPrecedingBalances(account.getId(), dayStart, 0L, PageRequest.of(0, 1)).stream()
+                .findFirst()
+                .or(() -> snapshotRepository.findTopByAccountIdAndDayBeforeOrderByDayDesc(account.getId(), day)
+                        .map(DailyBalanceSnapshot::getClosing))
+                .orElse(account.getInitialBalance());
+    }
+
+    // Todo cambio en una posición desplaza en el mismo monto los saldos posteriores, porque la cadena ya estaba
+    // encadenada; basta el menor de ellos para saber si alguno quedaría negativo y rechazar antes de modificar nada
+    public Rechain planFrom(Account account, LocalDateTime date, long id, long delta) {
+        if (delta < 0 && lowestBalanceFrom(account, date, id).map(lowest -> lowest + delta < 0).orElse(false)) {
+            throw new InsufficientBalanceException("Saldo no disponible");
+        }
+        return new Rechain(account.getId(), date, id, delta);
+    }
+
+    // Un movimiento editado se quita de su posición anterior y se inserta en la nueva, que puede estar en otra
+    // cuenta. Su propio saldo sale del predecesor en la nueva posición; los dos desplazamientos no se pueden
+    // validar por separado, así que el saldo negativo se detecta al final y la transacción se revierte entera
+    public void reposition(Account previousAccount, LocalDateTime previousDate, long previousValue, Movement movement) {
+        Account account = movement.getAccount();
+        long id = movement.getId();
+
+        movementRepository.shiftBalancesFrom(previousAccount.getId(), previousDate, id + 1, -previousValue, id);
+        long balance = balanceBefore(account, movement.getDate(), id) + movement.getValue();
+        movementRepository.shiftBalancesFrom(account.getId(), movement.getDate(), id + 1, movement.getValue(), id);
+        movement.setBalance(balance);
+
+        if (balance < 0
+                || lowestBalanceFrom(previousAccount, previousDate, id).map(lowest -> lowest < 0).orElse(false)
+                || lowestBalanceFrom(account, movement.getDate(), id).map(lowest -> lowest < 0).orElse(false)) {
+            throw new InsufficientBalanceException("Saldo no disponible");
+        }
+    }
+
+    private Optional<Long> lowestBalanceFrom(Account account, LocalDateTime date, long id) {
+        return movementRepository.findBalancesFromPositionAscending(account.getId(), date, id, PageRequest.of(0, 1))
+                .stream()
+                .findFirst();
+    }
+
+    public final class Rechain {
+
+        private final Long accountId;
+        private final LocalDateTime date;
+        private final long id;
+        private final long delta;
+
+        private Rechain(Long accountId, LocalDateTime date, long id, long delta) {
+            this.accountId = accountId;
+            this.date = date;
+            this.id = id;
+            this.delta = delta;
+        }
+
+        public void apply() {
+            if (delta != 0) {
+                // Los ids empiezan en 1: no queda ningún movimiento fuera
+                movementRepository.shiftBalancesFrom(accountId, date, id, delta, 0L);
+            }
+        }
+    }
+}
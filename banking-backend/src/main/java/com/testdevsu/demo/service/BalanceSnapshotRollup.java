@@ -0,0 +1,149 @@
+package com.testdevsu.demo.service;
+
+import com.testdevsu.demo.model.Account;
+import com.testdevsu.demo.model.BalanceSnapshotWatermark;
+import com.testdevsu.demo.model.DailyBalanceSnapshot;
+import com.testdevsu.demo.model.Money;
+import com.testdevsu.demo.repository.AccountRepository;
+import com.testdevsu.demo.repository.BalanceSnapshotWatermarkRepository;
+import com.testdevsu.demo.repository.DailyTotalsView;
+import com.testdevsu.demo.repository.MovementRepository;
+import jakarta.persistence.EntityManager;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+
+// Cierre nocturno: resume en daily_balance_snapshot los días completos de cada cuenta desde su marca de agua.
+// Las cuentas se procesan por tramos, cada tramo en su propia transacción y varios tramos a la vez
+@Slf4j
+@Component
+public class BalanceSnapshotRollup {
+
+    private final AccountRepository accountRepository;
+    private final MovementRepository movementRepository;
+    private final BalanceSnapshotWatermarkRepository watermarkRepository;
+    private final BalanceChain balanceChain;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final int chunkSize;
+    private final int parallelism;
+
+    public BalanceSnapshotRollup(AccountRepository accountRepository,
+                                 MovementRepository movementRepository,
+                                 BalanceSnapshotWatermarkRepository watermarkRepository,
+                                 BalanceChain balanceChain,
+                                 EntityManager entityManager,
+                                 PlatformTransactionManager transactionManager,
+                                 @Value("${banking.balance-snapshots.chunk-size:100}") int chunkSize,
+                                 @Value("${banking.balance-snapshots.parallelism:4}") int parallelism) {
+        this.accountRepository = accountRepository;
+        this.movementRepository = movementRepository;
+        this.watermarkRepository = watermarkRepository;
+        this.balanceChain = balanceChain;
+        this.entityManager = entityManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.chunkSize = chunkSize;
+        this.parallelism = parallelism;
+    }
+
+    // Pasada la medianoche el día anterior ya no recibe movimientos salvo retroactivos, que invalidan por su cuenta
+    @Scheduled(cron = "${banking.balance-snapshots.cron:0 30 0 * * *}")
+    public void rollUpClosedDays() {
+        int accounts = rollUpThrough(LocalDate.now().minusDays(1));
+        if (accounts > 0) {
+            log.info("Resúmenes diarios de saldo actualizados para {} cuentas", accounts);
+        }
+    }
+
+    // Devuelve cuántas cuentas quedaron al día; un tramo que falla se registra y se reintenta en la próxima pasada
+    public int rollUpThrough(LocalDate throughDay) {
+        List<Long> accountIds = watermarkRepository.findAccountIdsBehind(throughDay);
+        Semaphore connections = new Semaphore(parallelism);
+
+        int processed = 0;
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<Integer>> futures = new ArrayList<>();
+            for (int from = 0; from < accountIds.size(); from += chunkSize) {
+                List<Long> chunk = accountIds.subList(from, Math.min(from + chunkSize, accountIds.size()));
+                futures.add(executor.submit(() -> {
+                    connections.acquire();
+                    try {
+                        return transactionTemplate.execute(status -> rollUpChunk(chunk, throughDay));
+                    } finally {
+                        connections.release();
+                    }
+                }));
+            }
+
+            for (Future<Integer> future : futures) {
+                try {
+                    processed += future.get();
+                } catch (ExecutionException e) {
+                    log.warn("Falló un tramo del cierre de saldos diarios", e.getCause());
+                } catch (InterruptedException e) {
+                    executor.shutdownNow();
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+            }
+        }
+        return processed;
+    }
+
+    // Todas las cuentas del tramo se bloquean antes de leer: los movimientos confirmados antes quedan incluidos
+    // y los retroactivos que lleguen después esperan y borran lo resumido aquí
+    private int rollUpChunk(List<Long> accountIds, LocalDate throughDay) {
+        List<Account> accounts = accountRepository.findAllByIdForUpdate(accountIds);
+        for (Account account : accounts) {
+            rollUpAccount(account, throughDay);
+        }
+        entityManager.flush();
+        entityManager.clear();
+        return accounts.size();
+    }
+
+    private void rollUpAccount(Account account, LocalDate throughDay) {
+        BalanceSnapshotWatermark watermark = watermarkRepository.findById(account.getId()).orElse(null);
+        if (watermark != null && !watermark.getThroughDay().isBefore(throughDay)) {
+            return;
+        }
+
+        List<DailyTotalsView> days;
+        long balance;
+        if (watermark == null) {
+            days = movementRepository.findDailyTotalsBefore(account.getId(), throughDay.plusDays(1).atStartOfDay());
+            balance = account.getInitialBalance();
+        } else {
+            LocalDate fromDay = watermark.getThroughDay().plusDays(1);
+            days = movementRepository.findDailyTotals(account.getId(), fromDay.atStartOfDay(),
+                    throughDay.plusDays(1).atStartOfDay());
+            balance = balanceChain.balanceBefore(account, fromDay.atStartOfDay(), 0L);
+        }
+
+        for (DailyTotalsView day : days) {
+            long credits = Money.toCents(day.getCredits());
+            long debits = Money.toCents(day.getDebits());
+            long closing = balance + credits - debits;
+            entityManager.persist(new DailyBalanceSnapshot(account.getId(), day.getDay(), balance, closing,
+                    credits, debits, day.getMovementCount().intValue()));
+            balance = closing;
+        }
+
+        if (watermark == null) {
+            entityManager.persist(new BalanceSnapshotWatermark(account.getId(), throughDay));
+        } else {
+            watermark.setThroughDay(throughDay);
+        }
+    }
+}
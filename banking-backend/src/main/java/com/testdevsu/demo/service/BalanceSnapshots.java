@@ -0,0 +1,114 @@
+package com.testdevsu.demo.service;
+
+import com.testdevsu.demo.model.Account;
+import com.testdevsu.demo.model.BalanceSnapshotWatermark;
+import com.testdevsu.demo.model.Money;
+import com.testdevsu.demo.repository.BalanceSnapshotWatermarkRepository;
+import com.testdevsu.demo.repository.DailyBalanceSnapshotRepository;
+import com.testdevsu.demo.repository.MovementRepository;
+import com.testdevsu.demo.repository.StatementTotalsView;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.LockModeType;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Totales de un periodo combinando los resúmenes diarios de los días completos con los movimientos de los días parciales
+@Component
+@RequiredArgsConstructor
+public class BalanceSnapshots {
+
+    private final DailyBalanceSnapshotRepository snapshotRepository;
+    private final BalanceSnapshotWatermarkRepository watermarkRepository;
+    private final MovementRepository movementRepository;
+    private final MovementArchive movementArchive;
+    private final EntityManager entityManager;
+
+    // Los días cubiertos son los completos dentro de [startDate, endDate] hasta la marca más antigua de las cuentas;
+    // si alguna cuenta no tiene resúmenes todo el periodo se suma desde movement
+    public Map<Long, PeriodTotals> periodTotals(List<Long> accountIds, LocalDateTime startDate, LocalDateTime endDate) {
+        Map<Long, PeriodTotals> totals = new HashMap<>();
+        if (accountIds.isEmpty()) {
+            return totals;
+        }
+
+        LocalDate firstFullDay = startDate.toLocalTime().equals(LocalTime.MIDNIGHT)
+                ? startDate.toLocalDate()
+                : startDate.toLocalDate().plusDays(1);
+        // La columna guarda microsegundos: un día está completo si endDate llega a su último microsegundo
+        LocalDate lastFullDay = endDate.plus(1, ChronoUnit.MICROS).toLocalDate().minusDays(1);
+
+        List<BalanceSnapshotWatermark> watermarks = watermarkRepository.findAllById(accountIds);
+        if (watermarks.size() == accountIds.size()) {
+            for (BalanceSnapshotWatermark watermark : watermarks) {
+                if (watermark.getThroughDay().isBefore(lastFullDay)) {
+                    lastFullDay = watermark.getThroughDay();
+                }
+            }
+        } else {
+            lastFullDay = firstFullDay.minusDays(1);
+        }
+
+        // Un mismo corte para movement y el archivo: las filas de un mes archivado que sigan en la base no se suman
+        LocalDateTime liveFrom = movementArchive.liveFrom(startDate);
+
+        if (lastFullDay.isBefore(firstFullDay)) {
+            movementRepository.findStatementTotals(accountIds, liveFrom, endDate)
+                    .forEach(row -> add(totals, row));
+            movementArchive.totals(accountIds, startDate, MovementArchive.archivedUntil(endDate, liveFrom))
+                    .forEach((accountId, archived) -> totals.merge(accountId, archived, PeriodTotals::plus));
+            return totals;
+        }
+
+        LocalDateTime fullFrom = firstFullDay.atStartOfDay();
+        LocalDateTime fullTo = lastFullDay.plusDays(1).atStartOfDay();
+        snapshotRepository.findTotals(accountIds, firstFullDay, lastFullDay)
+                .forEach(row -> add(totals, row));
+        movementRepository.findStatementEdgeTotals(accountIds, liveFrom, endDate, fullFrom,
+                        fullTo.isBefore(liveFrom) ? liveFrom : fullTo)
+                .forEach(row -> add(totals, row));
+        // Los días parciales que caen en meses archivados salen del archivo frío
+        movementArchive.totals(accountIds, startDate,
+                        MovementArchive.archivedUntil(fullFrom.minus(1, ChronoUnit.MICROS), liveFrom))
+                .forEach((accountId, archived) -> totals.merge(accountId, archived, PeriodTotals::plus));
+        movementArchive.totals(accountIds, fullTo, MovementArchive.archivedUntil(endDate, liveFrom))
+                .forEach((accountId, archived) -> totals.merge(accountId, archived, PeriodTotals::plus));
+        return totals;
+    }
+
+    // Un movimiento en un día ya cerrado deja obsoletos los resúmenes desde ese día; los meses archivados
+    // no admiten cambios porque sus resúmenes ya no podrían reconstruirse desde movement. El bloqueo de la cuenta
+    // ordena este borrado contra el cierre nocturno, que también la bloquea mientras resume sus días
+    public void invalidateFrom(Account account, LocalDate day) {
+        if (!day.isBefore(LocalDate.now())) {
+            return;
+        }
+        // Se comprueba con la cuenta ya bloqueada: el archivador bloquea todas las cuentas tras cerrar el mes
+        entityManager.lock(account, LockModeType.PESSIMISTIC_WRITE);
+        movementArchive.ensureOpen(day.atStartOfDay());
+        watermarkRepository.lowerTo(account.getId(), day.minusDays(1));
+        snapshotRepository.deleteFrom(account.getId(), day);
+    }
+
+    private static void add(Map<Long, PeriodTotals> totals, StatementTotalsView row) {
+        PeriodTotals partial = new PeriodTotals(Money.toCents(row.getCredits()), Money.toCents(row.getDebits()));
+        totals.merge(row.getAccountId(), partial, PeriodTotals::plus);
+    }
+
+    // Importes en centavos
+    public record PeriodTotals(long credits, long debits) {
+
+        public static final PeriodTotals NONE = new PeriodTotals(0, 0);
+
+        public PeriodTotals plus(PeriodTotals other) {
+            return new PeriodTotals(credits + other.credits, debits + other.debits);
+        }
+    }
+}
@@ -0,0 +1,7 @@
+package com.testdevsu.demo.service;
+
+import com.testdevsu.demo.dto.CacheStatsDTO;
+
+public interface CacheStatsService {
+    CacheStatsDTO getCacheStats();
+}
@@ -0,0 +1,312 @@
+package com.testdevsu.demo.service;
+
+import com.testdevsu.demo.exception.ArchivedPeriodException;
+import com.testdevsu.demo.service.BalanceSnapshots.PeriodTotals;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.stream.Collectors;
+
+// Archivo frío de movimientos: un segmento inmutable por mes en disco local, de los meses más viejos hacia adelante.
+// Las fechas anteriores al primer día no archivado quedan cerradas: no admiten movimientos ni cambios.
+// Los segmentos se cargan al arrancar; MovementArchiveNodes impide archivar con más de una instancia activa
+@Slf4j
+@Component
+public class MovementArchive {
+
+    private static final DateTimeFormatter SEGMENT_SUFFIX = DateTimeFormatter.ofPattern("yyyyMM");
+
+    private final Path directory;
+    private final NavigableMap<YearMonth, MovementSegment> segments = new ConcurrentSkipListMap<>();
+    private volatile LocalDate closedBefore;
+
+    public MovementArchive(@Value("${banking.movement-archive.directory:${user.home}/banking-movement-archive}") Path directory) {
+        this.directory = directory;
+        try {
+            Files.createDirectories(directory);
+            // Un .tmp es un segmento que no llegó a publicarse; sus filas siguen en movement
+            try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "movements-*.seg.tmp")) {
+                for (Path file : files) {
+                    Files.delete(file);
+                }
+            }
+            try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "movements-*.seg")) {
+                for (Path file : files) {
+                    MovementSegment segment = MovementSegment.open(file);
+                    segments.put(segment.month(), segment);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("No se pudo abrir el archivo de movimientos en " + directory, e);
+        }
+        if (!segments.isEmpty()) {
+            closedBefore = segments.lastKey().plusMonths(1).atDay(1);
+            log.info("Archivo de movimientos: {} meses, hasta {}", segments.size(), segments.lastKey());
+        }
+    }
+
+    public boolean contains(YearMonth month) {
+        return segments.containsKey(month);
+    }
+
+    public Set<YearMonth> months() {
+        return Collections.unmodifiableSet(segments.keySet());
+    }
+
+    // Si algún mes archivado tiene movimientos de la cuenta
+    public boolean holds(long accountId) {
+        return segments.values().stream().anyMatch(segment -> segment.contains(accountId));
+    }
+
+    public Optional<YearMonth> lastArchivedMonth() {
+        return segments.isEmpty() ? Optional.empty() : Optional.of(segments.lastKey());
+    }
+
+    // Se llama antes de empezar a archivar el mes para que no entren movimientos que el segmento no incluiría
+    public void close(YearMonth month) {
+        LocalDate next = month.plusMonths(1).atDay(1);
+        if (closedBefore == null || closedBefore.isBefore(next)) {
+            closedBefore = next;
+        }
+    }
+
+    // Si el mes no llegó a publicarse vuelve a admitir cambios en lo que no está archivado
+    public void reopen() {
+        closedBefore = segments.isEmpty() ? null : segments.lastKey().plusMonths(1).atDay(1);
+    }
+
+    public void ensureOpen(LocalDateTime date) {
+        LocalDate limit = closedBefore;
+        if (limit != null && date.toLocalDate().isBefore(limit)) {
+            throw new ArchivedPeriodException("El periodo anterior a " + limit + " está archivado y no admite cambios");
+        }
+    }
+
+    public boolean reaches(LocalDateTime date) {
+        return !segments.isEmpty() && date.isBefore(segments.lastKey().plusMonths(1).atDay(1).atStartOfDay());
+    }
+
+    // Primer instante que se lee de movement para un periodo que empieza en date. Las filas de un mes archivado
+    // siguen en la base entre publicar su segmento y borrarlas, o tras una caída en medio: esos meses se leen
+    // solo del archivo y movement desde el mes siguiente al último archivado
+    public LocalDateTime liveFrom(LocalDateTime date) {
+        if (segments.isEmpty()) {
+            return date;
+        }
+        LocalDateTime firstLive = segments.lastKey().plusMonths(1).atDay(1).atStartOfDay();
+        return date.isBefore(firstLive) ? firstLive : date;
+    }
+
+    // Fin del tramo que se lee del archivo con el corte tomado en liveFrom; un mes publicado después no entra
+    public static LocalDateTime archivedUntil(LocalDateTime endDate, LocalDateTime liveFrom) {
+        LocalDateTime lastArchived = liveFrom.minus(1, ChronoUnit.MICROS);
+        return endDate.isBefore(lastArchived) ? endDate : lastArchived;
+    }
+
+    public Writer writer(YearMonth month) throws IOException {
+        return new Writer(month, directory.resolve(fileName(month) + ".tmp"));
+    }
+
+    // Movimientos archivados de las cuentas entre startDate y endDate, ambos incluidos, en orden (cuenta, fecha, id).
+    // Se descomprime un bloque de cuenta y mes a la vez
+    public Iterator<MovementRecord> movements(Collection<Long> accountIds, LocalDateTime startDate, LocalDateTime endDate) {
+        if (!reaches(startDate) || endDate.isBefore(startDate)) {
+            return Collections.emptyIterator();
+        }
+        Collection<MovementSegment> months = segments
+                .subMap(YearMonth.from(startDate), true, YearMonth.from(endDate), true)
+                .values();
+        List<Long> sortedIds = accountIds.stream().sorted().collect(Collectors.toList());
+
+        return new Iterator<>() {
+            private final Iterator<Long> accounts = sortedIds.iterator();
+            private Iterator<MovementSegment> accountMonths = Collections.emptyIterator();
+            private Iterator<MovementRecord> rows = Collections.emptyIterator();
+            private long accountId;
+            private MovementRecord next;
+
+            @Override
+            public boolean hasNext() {
+                while (next == null) {
+                    if (rows.hasNext()) {
+                        MovementRecord candidate = rows.next();
+                        if (!candidate.date().isBefore(startDate) && !candidate.date().isAfter(endDate)) {
+                            next = candidate;
+                        }
+                    } else if (accountMonths.hasNext()) {
+                        rows = accountMonths.next().read(accountId).iterator();
+                    } else if (accounts.hasNext()) {
+                        accountId = accounts.next();
+                        accountMonths = months.iterator();
+                    } else {
+                        return false;
+                    }
+                }
+                return true;
+            }
+
+            @Override
+            public MovementRecord next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                MovementRecord current = next;
+                next = null;
+                return current;
+            }
+        };
+    }
+
+    // Movimiento archivado por id, del mes más reciente al más viejo
+    public Optional<MovementRecord> find(long id) {
+        for (MovementSegment segment : segments.descendingMap().values()) {
+            Optional<MovementRecord> record = segment.find(id);
+            if (record.isPresent()) {
+                return record;
+            }
+        }
+        return Optional.empty();
+    }
+
+    // Movimientos archivados de la cuenta anteriores a la posición (date, id), del más reciente al más viejo;
+    // se descomprime un mes a la vez a medida que se recorren
+    public Iterator<MovementRecord> preceding(long accountId, LocalDateTime date, long id) {
+        if (segments.isEmpty()) {
+            return Collections.emptyIterator();
+        }
+        Iterator<MovementSegment> months = segments.headMap(YearMonth.from(date), true).descendingMap().values().iterator();
+
+        return new Iterator<>() {
+            private List<MovementRecord> rows = List.of();
+            private int position;
+            private MovementRecord next;
+
+            @Override
+            public boolean hasNext() {
+                while (next == null) {
+                    if (position > 0) {
+                        MovementRecord candidate = rows.get(--position);
+                        if (candidate.date().isBefore(date) || (candidate.date().equals(date) && candidate.id() < id)) {
+                            next = candidate;
+                        }
+                    } else if (months.hasNext()) {
+                        rows = months.next().read(accountId);
+                        position = rows.size();
+                    } else {
+                        return false;
+                    }
+                }
+                return true;
+            }
+
+            @Override
+            public MovementRecord next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                MovementRecord current = next;
+                next = null;
+                return current;
+            }
+        };
+    }
+
+    public Map<Long, PeriodTotals> totals(Collection<Long> accountIds, LocalDateTime startDate, LocalDateTime endDate) {
+        Map<Long, PeriodTotals> totals = new HashMap<>();
+        movements(accountIds, startDate, endDate).forEachRemaining(record -> totals.merge(record.accountId(),
+                record.value() > 0 ? new PeriodTotals(record.value(), 0) : new PeriodTotals(0, -record.value()),
+                PeriodTotals::plus));
+        return totals;
+    }
+
+    // Saldo del último movimiento archivado del mismo día anterior a la posición (date, id)
+    public Optional<Long> balanceBefore(long accountId, LocalDateTime date, long id) {
+        if (!reaches(date)) {
+            return Optional.empty();
+        }
+        MovementSegment segment = segments.get(YearMonth.from(date));
+        if (segment == null) {
+            return Optional.empty();
+        }
+        LocalDateTime dayStart = date.toLocalDate().atStartOfDay();
+        Long balance = null;
+        for (MovementRecord record : segment.read(accountId)) {
+            boolean before = record.date().isBefore(date) || (record.date().equals(date) && record.id() < id);
+            if (!before) {
+                break;
+            }
+            if (!record.date().isBefore(dayStart)) {
+                balance = record.balance();
+            }
+        }
+        return Optional.ofNullable(balance);
+    }
+
+    public Optional<MovementSegment> segment(YearMonth month) {
+        return Optional.ofNullable(segments.get(month));
+    }
+
+    private static String fileName(YearMonth month) {
+        return "movements-" + month.format(SEGMENT_SUFFIX) + ".seg";
+    }
+
+    // Escribe a un .tmp y al publicar lo renombra de forma atómica y lo mapea; hasta entonces nadie lo lee
+    public final class Writer implements AutoCloseable {
+
+        private final YearMonth month;
+        private final Path temporary;
+        private final MovementSegment.Writer segmentWriter;
+        private boolean published;
+
+        private Writer(YearMonth month, Path temporary) throws IOException {
+            this.month = month;
+            this.temporary = temporary;
+            this.segmentWriter = new MovementSegment.Writer(temporary, month);
+        }
+
+        public void add(MovementRecord record) throws IOException {
+            segmentWriter.add(record);
+        }
+
+        public long publish() throws IOException {
+            segmentWriter.finish();
+            segmentWriter.close();
+            Path file = temporary.resolveSibling(fileName(month));
+            Files.move(temporary, file, StandardCopyOption.ATOMIC_MOVE);
+            segments.put(month, MovementSegment.open(file));
+            published = true;
+            return segmentWriter.rowCount();
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (!published) {
+                segmentWriter.close();
+                Files.deleteIfExists(temporary);
+            }
+        }
+    }
+}
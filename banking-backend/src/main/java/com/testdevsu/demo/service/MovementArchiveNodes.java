@@ -0,0 +1,110 @@
+package com.testdevsu.demo.service;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.YearMonth;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+// Los segmentos del archivo frío están en el disco de cada instancia, pero las filas archivadas se borran de la base
+// que comparten todas. Cada instancia deja un latido en la base: solo se archiva cuando no hay otra activa, y una
+// instancia no arranca si su directorio no tiene algún mes que la base registra como archivado. Las tablas están en
+// BaseDatos.sql (MovementArchiveNode, MovementArchiveMonth)
+@Slf4j
+@Component
+public class MovementArchiveNodes implements ApplicationRunner {
+
+    // Filas de instancias que terminaron sin borrar la suya
+    private static final Duration STALE_ROWS = Duration.ofDays(1);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final MovementArchive archive;
+    // Tres latidos perdidos dan a la otra instancia por terminada; el margen cubre diferencias de reloj entre servidores
+    private final Duration activeWindow;
+    private final String instanceId = UUID.randomUUID().toString();
+    private volatile boolean started;
+
+    public MovementArchiveNodes(JdbcTemplate jdbcTemplate,
+                                MovementArchive archive,
+                                @Value("${banking.movement-archive.heartbeat-interval-ms:60000}") long heartbeatIntervalMs) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.archive = archive;
+        this.activeWindow = Duration.ofMillis(heartbeatIntervalMs).multipliedBy(3);
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        jdbcTemplate.update("DELETE FROM movement_archive_node WHERE beat < ?",
+                Timestamp.from(Instant.now().minus(STALE_ROWS)));
+        verifySegments();
+        started = true;
+        heartbeat();
+    }
+
+    // Un mes registrado que falta en el directorio ya no está en ningún lugar que esta instancia pueda leer:
+    // sus reportes saldrían incompletos. Los segmentos propios que no llegaron a registrarse se registran ahora
+    private void verifySegments() {
+        Set<YearMonth> registered = new HashSet<>();
+        jdbcTemplate.queryForList("SELECT archived_month FROM movement_archive_month", String.class)
+                .forEach(month -> registered.add(YearMonth.parse(month.trim())));
+        List<YearMonth> missing = registered.stream()
+                .filter(month -> !archive.contains(month))
+                .sorted()
+                .toList();
+        if (!missing.isEmpty()) {
+            throw new IllegalStateException("El archivo de movimientos no tiene los meses " + missing
+                    + " que otra instancia archivó; todas las instancias deben usar el mismo "
+                    + "banking.movement-archive.directory");
+        }
+        archive.months().stream()
+                .filter(month -> !registered.contains(month))
+                .forEach(this::recordArchived);
+    }
+
+    @Scheduled(fixedDelayString = "${banking.movement-archive.heartbeat-interval-ms:60000}")
+    public void heartbeat() {
+        if (!started) {
+            return;
+        }
+        try {
+            jdbcTemplate.update("INSERT INTO movement_archive_node (instance_id, beat) VALUES (?, ?) "
+                    + "ON DUPLICATE KEY UPDATE beat = VALUES(beat)", instanceId, Timestamp.from(Instant.now()));
+        } catch (DataAccessException e) {
+            log.warn("No se pudo escribir el latido del archivo de movimientos: {}", e.getMessage());
+        }
+    }
+
+    // Otra instancia activa no vería el segmento que esta publique y seguiría leyendo de movement las filas borradas
+    public boolean otherInstancesActive() {
+        Integer others = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM movement_archive_node WHERE instance_id <> ? AND beat >= ?", Integer.class,
+                instanceId, Timestamp.from(Instant.now().minus(activeWindow)));
+        return others != null && others > 0;
+    }
+
+    public void recordArchived(YearMonth month) {
+        jdbcTemplate.update("INSERT INTO movement_archive_month (archived_month) VALUES (?) "
+                + "ON DUPLICATE KEY UPDATE archived_month = archived_month", month.toString());
+    }
+
+    @PreDestroy
+    public void removeHeartbeat() {
+        try {
+            jdbcTemplate.update("DELETE FROM movement_archive_node WHERE instance_id = ?", instanceId);
+        } catch (DataAccessException e) {
+            log.debug("No se pudo borrar el latido del archivo de movimientos: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,189 @@
+package com.testdevsu.demo.service;
+
+import com.testdevsu.demo.model.Money;
+import com.testdevsu.demo.model.MovementType;
+import com.testdevsu.demo.repository.AccountRepository;
+import com.testdevsu.demo.repository.BalanceSnapshotWatermarkRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+
+// Pasa los meses más viejos de movement al archivo frío, un mes a la vez y en orden. Cada mes se cierra a cambios,
+// se copia a un segmento y solo después de publicarlo se quita de la base; con movement particionada la partición
+// que queda vacía se elimina
+@Slf4j
+@Component
+public class MovementArchiver {
+
+    private static final String COLUMNS = "id, account_id, date, movement_type, value, balance";
+    private static final int FETCH_SIZE = 500;
+    private static final int BATCH_SIZE = 500;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final JdbcTemplate cursorTemplate;
+    private final MovementArchive archive;
+    private final MovementArchiveNodes nodes;
+    private final MovementPartitionMaintenance partitions;
+    private final AccountRepository accountRepository;
+    private final BalanceSnapshotWatermarkRepository watermarkRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final int retentionMonths;
+
+    public MovementArchiver(JdbcTemplate jdbcTemplate,
+                            MovementArchive archive,
+                            MovementArchiveNodes nodes,
+                            MovementPartitionMaintenance partitions,
+                            AccountRepository accountRepository,
+                            BalanceSnapshotWatermarkRepository watermarkRepository,
+                            PlatformTransactionManager transactionManager,
+                            @Value("${banking.movement-archive.retention-months:0}") int retentionMonths) {
+        this.jdbcTemplate = jdbcTemplate;
+        // Plantilla propia para leer el mes con cursor sin cambiar el fetch size de la compartida
+        this.cursorTemplate = new JdbcTemplate(jdbcTemplate.getDataSource());
+        this.cursorTemplate.setFetchSize(FETCH_SIZE);
+        this.archive = archive;
+        this.nodes = nodes;
+        this.partitions = partitions;
+        this.accountRepository = accountRepository;
+        this.watermarkRepository = watermarkRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.retentionMonths = retentionMonths;
+    }
+
+    @Scheduled(cron = "${banking.movement-archive.cron:0 0 2 * * *}")
+    public void archiveExpiredMonths() {
+        if (retentionMonths <= 0) {
+            return;
+        }
+        int months = archiveBefore(YearMonth.now().minusMonths(retentionMonths));
+        if (months > 0) {
+            log.info("Meses de movimientos archivados: {}", months);
+        }
+    }
+
+    // Archiva los meses anteriores a firstRetained que aún no lo están. Solo avanza sobre meses ya resumidos para
+    // todas las cuentas: las aperturas y los totales de esos días salen después de daily_balance_snapshot
+    public synchronized int archiveBefore(YearMonth firstRetained) {
+        if (nodes.otherInstancesActive()) {
+            log.warn("No se archivan movimientos: hay otras instancias activas y cada una lee su propio directorio");
+            return 0;
+        }
+        // Una pasada interrumpida tras publicar el segmento puede haber dejado filas del último mes en la base
+        archive.lastArchivedMonth().ifPresent(this::removeArchived);
+
+        Optional<YearMonth> next = nextMonth();
+        if (next.isEmpty()) {
+            return 0;
+        }
+        int archived = 0;
+        for (YearMonth month = next.get(); month.isBefore(firstRetained); month = month.plusMonths(1)) {
+            if (!watermarkRepository.findAccountIdsBehind(month.atEndOfMonth()).isEmpty()) {
+                log.warn("El mes {} de movimientos no se archiva: hay cuentas sin resumir hasta {}",
+                        month, month.atEndOfMonth());
+                break;
+            }
+            archiveMonth(month);
+            archived++;
+        }
+        return archived;
+    }
+
+    private void archiveMonth(YearMonth month) {
+        archive.close(month);
+        waitForWriters();
+
+        long rows;
+        try (MovementArchive.Writer writer = archive.writer(month)) {
+            RowCallbackHandler copy = rs -> {
+                try {
+                    writer.add(new MovementRecord(
+                            rs.getLong("id"),
+                            rs.getLong("account_id"),
+                            rs.getObject("date", LocalDateTime.class),
+                            MovementType.fromCode(rs.getString("movement_type")),
+                            Money.toCents(rs.getBigDecimal("value")),
+                            Money.toCents(rs.getBigDecimal("balance"))));
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            };
+            cursorTemplate.query("SELECT " + COLUMNS + " FROM movement WHERE date >= ? AND date < ? "
+                            + "ORDER BY account_id, date, id", copy,
+                    Timestamp.valueOf(start(month)), Timestamp.valueOf(end(month)));
+            rows = writer.publish();
+        } catch (IOException e) {
+            // Las filas siguen en movement: el mes vuelve a admitir cambios hasta la próxima pasada
+            archive.reopen();
+            throw new UncheckedIOException("No se pudo archivar el mes " + month, e);
+        } catch (RuntimeException e) {
+            archive.reopen();
+            throw e;
+        }
+
+        // Si otra instancia arrancó mientras tanto las filas se quedan en movement, donde ella las lee; aquí
+        // el mes sale del archivo y la próxima pasada con una sola instancia las borra
+        nodes.recordArchived(month);
+        if (!nodes.otherInstancesActive()) {
+            removeArchived(month);
+        }
+        log.info("Mes {} archivado: {} movimientos", month, rows);
+    }
+
+    // Las escrituras comprueban el cierre con la cuenta bloqueada; tomar y soltar el bloqueo de cada cuenta asegura
+    // que las que pasaron la comprobación antes de cerrar el mes ya confirmaron
+    private void waitForWriters() {
+        List<Long> accountIds = jdbcTemplate.queryForList("SELECT id FROM account ORDER BY id", Long.class);
+        for (int from = 0; from < accountIds.size(); from += BATCH_SIZE) {
+            List<Long> chunk = accountIds.subList(from, Math.min(from + BATCH_SIZE, accountIds.size()));
+            transactionTemplate.executeWithoutResult(status -> accountRepository.findAllByIdForUpdate(chunk));
+        }
+    }
+
+    // Quita de la base las filas de un mes ya publicado; repetirlo no cambia nada. El borrado va por cuenta sobre
+    // el índice (account_id, date, id) para no recorrer la tabla
+    private void removeArchived(YearMonth month) {
+        long[] accountIds = archive.segment(month).map(MovementSegment::accountIds).orElse(new long[0]);
+        Timestamp start = Timestamp.valueOf(start(month));
+        Timestamp end = Timestamp.valueOf(end(month));
+        for (int from = 0; from < accountIds.length; from += BATCH_SIZE) {
+            List<Object[]> batch = new ArrayList<>();
+            for (long accountId : Arrays.copyOfRange(accountIds, from, Math.min(from + BATCH_SIZE, accountIds.length))) {
+                batch.add(new Object[]{accountId, start, end});
+            }
+            jdbcTemplate.batchUpdate("DELETE FROM movement WHERE account_id = ? AND date >= ? AND date < ?", batch);
+        }
+        partitions.dropPartitionIfEmpty(month);
+    }
+
+    // El mes siguiente al último archivado o, la primera vez, el más viejo con movimientos en la base
+    private Optional<YearMonth> nextMonth() {
+        Optional<YearMonth> last = archive.lastArchivedMonth();
+        if (last.isPresent()) {
+            return Optional.of(last.get().plusMonths(1));
+        }
+        Timestamp oldest = jdbcTemplate.queryForObject("SELECT MIN(date) FROM movement", Timestamp.class);
+        return Optional.ofNullable(oldest).map(date -> YearMonth.from(date.toLocalDateTime()));
+    }
+
+    private static LocalDateTime start(YearMonth month) {
+        return month.atDay(1).atStartOfDay();
+    }
+
+    private static LocalDateTime end(YearMonth month) {
+        return month.plusMonths(1).atDay(1).atStartOfDay();
+    }
+}
@@ -0,0 +1,35 @@
+package com.testdevsu.demo.service;
+
+import com.testdevsu.demo.exception.InvalidCursorException;
+import com.testdevsu.demo.model.Movement;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+// Posición (fecha, id) del último movimiento entregado; viaja al cliente como texto opaco
+record MovementCursor(LocalDateTime date, long id) {
+
+    static MovementCursor of(Movement movement) {
+        return new MovementCursor(movement.getDate(), movement.getId());
+    }
+
+    static MovementCursor of(MovementRecord record) {
+        return new MovementCursor(record.date(), record.id());
+    }
+
+    String encode() {
+        String raw = date + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    static MovementCursor decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.indexOf('|');
+            return new MovementCursor(LocalDateTime.parse(raw.substring(0, separator)),
+                    Long.parseLong(raw.substring(separator + 1)));
+        } catch (RuntimeException e) {
+            throw new InvalidCursorException("Cursor de paginación no válido: " + cursor);
+        }
+    }
+}
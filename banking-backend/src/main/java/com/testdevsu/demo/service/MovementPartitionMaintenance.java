@@ -0,0 +1,178 @@
+package com.testdevsu.demo.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+
+// Particiones mensuales de movement (RANGE COLUMNS sobre date): mantiene creadas las de los próximos meses,
+// quita las que el archivo frío deja vacías (MovementArchiver) y, con retention-months, las de meses vencidos que
+// ya están en el archivo. Solo actúa en MySQL y cuando la tabla ya está particionada
+@Slf4j
+@Component
+public class MovementPartitionMaintenance {
+
+    private static final String MAX_PARTITION = "pmax";
+    private static final DateTimeFormatter PARTITION_SUFFIX = DateTimeFormatter.ofPattern("yyyyMM");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final MovementArchive archive;
+    private final int monthsAhead;
+    private final int retentionMonths;
+
+    public MovementPartitionMaintenance(JdbcTemplate jdbcTemplate,
+                                        MovementArchive archive,
+                                        @Value("${banking.movement-partitions.months-ahead:3}") int monthsAhead,
+                                        @Value("${banking.movement-partitions.retention-months:0}") int retentionMonths) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.archive = archive;
+        this.monthsAhead = monthsAhead;
+        this.retentionMonths = retentionMonths;
+    }
+
+    @Scheduled(cron = "${banking.movement-partitions.cron:0 0 1 * * *}")
+    public void maintain() {
+        if (!isPartitioned()) {
+            return;
+        }
+        createFuturePartitions(LocalDate.now());
+        if (retentionMonths > 0) {
+            dropExpiredPartitions(YearMonth.now().minusMonths(retentionMonths));
+        }
+    }
+
+    public boolean isPartitioned() {
+        return isSupported() && !listPartitions().isEmpty();
+    }
+
+    // Definición de particiones para una tabla nueva o recién convertida: un mes por partición desde firstMonth
+    // hasta monthsAhead meses después del actual, más pmax para fechas posteriores
+    public String partitionClause(LocalDate firstMonth) {
+        List<String> definitions = new ArrayList<>();
+        for (LocalDate month = firstMonth.withDayOfMonth(1); month.isBefore(horizon(LocalDate.now())); month = month.plusMonths(1)) {
+            definitions.add(definition(month));
+        }
+        definitions.add("PARTITION " + MAX_PARTITION + " VALUES LESS THAN (MAXVALUE)");
+        return "PARTITION BY RANGE COLUMNS(date) (" + String.join(", ", definitions) + ")";
+    }
+
+    // pmax queda vacía mientras haya particiones por delante, así reorganizarla no mueve filas. Una tabla recién
+    // creada con BaseDatos.sql solo tiene pmax: la primera vez se reparte desde el mes del movimiento más viejo
+    private void createFuturePartitions(LocalDate today) {
+        List<MovementPartition> partitions = listPartitions();
+        LocalDate next = partitions.stream()
+                .map(MovementPartition::upperBound)
+                .filter(bound -> bound != null)
+                .max(LocalDate::compareTo)
+                .orElseGet(() -> oldestMonth(today));
+
+        List<String> definitions = new ArrayList<>();
+        for (LocalDate month = next; month.isBefore(horizon(today)); month = month.plusMonths(1)) {
+            definitions.add(definition(month));
+        }
+        if (definitions.isEmpty()) {
+            return;
+        }
+
+        boolean hasMax = partitions.stream().anyMatch(partition -> partition.upperBound() == null);
+        if (hasMax) {
+            definitions.add("PARTITION " + MAX_PARTITION + " VALUES LESS THAN (MAXVALUE)");
+            jdbcTemplate.execute("ALTER TABLE movement REORGANIZE PARTITION " + MAX_PARTITION + " INTO ("
+                    + String.join(", ", definitions) + ")");
+        } else {
+            jdbcTemplate.execute("ALTER TABLE movement ADD PARTITION (" + String.join(", ", definitions) + ")");
+        }
+        log.info("Particiones de movement creadas: {}", definitions.size() - (hasMax ? 1 : 0));
+    }
+
+    // Quita, en orden, las particiones de los meses anteriores a firstRetained. Las filas de un mes solo se
+    // descartan si el archivo frío ya lo tiene: el primer mes sin archivar detiene la pasada y queda en la base
+    // con todos los posteriores
+    private void dropExpiredPartitions(YearMonth firstRetained) {
+        int dropped = 0;
+        for (MovementPartition partition : listPartitions()) {
+            if (partition.upperBound() == null || partition.upperBound().isAfter(firstRetained.atDay(1))) {
+                break;
+            }
+            YearMonth month = YearMonth.from(partition.upperBound().minusMonths(1));
+            if (!archive.contains(month)) {
+                log.warn("La partición {} supera la retención pero el mes {} no está archivado; se conserva",
+                        partition.name(), month);
+                break;
+            }
+            jdbcTemplate.execute("ALTER TABLE movement DROP PARTITION " + partition.name());
+            dropped++;
+        }
+        if (dropped > 0) {
+            log.info("Particiones vencidas de movement eliminadas: {}", dropped);
+        }
+    }
+
+    // Quitar una partición vacía es solo un cambio de metadatos; con filas se deja para no perderlas
+    public void dropPartitionIfEmpty(YearMonth month) {
+        String partition = partitionName(month);
+        if (!isPartitioned() || listPartitions().stream().noneMatch(p -> p.name().equals(partition))) {
+            return;
+        }
+        Integer rows = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM movement PARTITION (" + partition + ")", Integer.class);
+        if (rows != null && rows == 0) {
+            jdbcTemplate.execute("ALTER TABLE movement DROP PARTITION " + partition);
+        }
+    }
+
+    private LocalDate oldestMonth(LocalDate today) {
+        Timestamp oldest = jdbcTemplate.queryForObject("SELECT MIN(date) FROM movement", Timestamp.class);
+        LocalDate from = oldest != null && oldest.toLocalDateTime().toLocalDate().isBefore(today)
+                ? oldest.toLocalDateTime().toLocalDate()
+                : today;
+        return from.withDayOfMonth(1);
+    }
+
+    private LocalDate horizon(LocalDate today) {
+        return today.withDayOfMonth(1).plusMonths(monthsAhead + 1L);
+    }
+
+    private static String partitionName(YearMonth month) {
+        return "p" + month.format(PARTITION_SUFFIX);
+    }
+
+    private static String definition(LocalDate month) {
+        return "PARTITION p" + month.format(PARTITION_SUFFIX)
+                + " VALUES LESS THAN ('" + month.plusMonths(1) + " 00:00:00')";
+    }
+
+    private List<MovementPartition> listPartitions() {
+        return jdbcTemplate.query("""
+                        SELECT PARTITION_NAME, PARTITION_DESCRIPTION FROM information_schema.PARTITIONS
+                        WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'movement' AND PARTITION_NAME IS NOT NULL
+                        ORDER BY PARTITION_ORDINAL_POSITION
+                        """,
+                (rs, rowNum) -> new MovementPartition(rs.getString(1), upperBound(rs.getString(2))));
+    }
+
+    // RANGE COLUMNS informa el límite como '2024-02-01 00:00:00'
+    private static LocalDate upperBound(String description) {
+        if (description == null || description.equalsIgnoreCase("MAXVALUE")) {
+            return null;
+        }
+        return LocalDate.parse(description.replace("'", "").substring(0, 10));
+    }
+
+    public boolean isSupported() {
+        String product = jdbcTemplate.execute((ConnectionCallback<String>) connection ->
+                connection.getMetaData().getDatabaseProductName());
+        return "MySQL".equalsIgnoreCase(product);
+    }
+
+    private record MovementPartition(String name, LocalDate upperBound) {
+    }
+}
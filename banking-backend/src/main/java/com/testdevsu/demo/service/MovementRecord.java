@@ -0,0 +1,62 @@
+package com.testdevsu.demo.service;
+
+import com.testdevsu.demo.dto.MovementReportDTO;
+import com.testdevsu.demo.model.Money;
+import com.testdevsu.demo.model.Movement;
+import com.testdevsu.demo.model.MovementType;
+
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+// Movimiento leído de movement o del archivo frío, con importes en centavos
+public record MovementRecord(long id, long accountId, LocalDateTime date, MovementType movementType,
+                             long value, long balance) {
+
+    // Mismo orden que las consultas de estados de cuenta: cuenta, fecha e id
+    public static final Comparator<MovementRecord> STATEMENT_ORDER = Comparator
+            .comparingLong(MovementRecord::accountId)
+            .thenComparing(MovementRecord::date)
+            .thenComparingLong(MovementRecord::id);
+
+    // Une dos recorridos ya ordenados por STATEMENT_ORDER; una fila presente en ambos (archivada y todavía sin
+    // borrar de movement) se entrega una sola vez
+    public static Iterator<MovementRecord> merge(Iterator<MovementRecord> first, Iterator<MovementRecord> second) {
+        return new Iterator<>() {
+            private MovementRecord nextFirst = first.hasNext() ? first.next() : null;
+            private MovementRecord nextSecond = second.hasNext() ? second.next() : null;
+
+            @Override
+            public boolean hasNext() {
+                return nextFirst != null || nextSecond != null;
+            }
+
+            @Override
+            public MovementRecord next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                int order = nextFirst == null ? 1 : nextSecond == null ? -1 : STATEMENT_ORDER.compare(nextFirst, nextSecond);
+                MovementRecord current = order <= 0 ? nextFirst : nextSecond;
+                if (order <= 0) {
+                    nextFirst = first.hasNext() ? first.next() : null;
+                }
+                if (order >= 0) {
+                    nextSecond = second.hasNext() ? second.next() : null;
+                }
+                return current;
+            }
+        };
+    }
+
+    // getAccount().getId() sale de la clave foránea sin inicializar la cuenta
+    public static MovementRecord of(Movement movement) {
+        return new MovementRecord(movement.getId(), movement.getAccount().getId(), movement.getDate(),
+                movement.getMovementType(), movement.getValue(), movement.getBalance());
+    }
+
+    public MovementReportDTO toReportDTO() {
+        return new MovementReportDTO(date, movementType, Money.toAmount(value), Money.toAmount(balance));
+    }
+}
@@ -0,0 +1,369 @@
+package com.testdevsu.demo.service;
+
+import com.testdevsu.demo.model.MovementType;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+// Archivo inmutable con los movimientos de un mes, mapeado en memoria para leerlo.
+// Un bloque comprimido por cuenta con las columnas una tras otra: ids como diferencias, fechas como microsegundos
+// desde el inicio del mes y luego diferencias, tipos de un byte, importes en varint y saldos como la diferencia
+// contra saldo anterior + importe (casi siempre 0). Al final, el índice ordenado por cuenta, con el menor y el mayor
+// id de cada bloque para buscar por id sin descomprimir, y un pie fijo: posición del índice, cantidad de cuentas,
+// mes (AAAAMM), versión y firma. La versión 1 no guarda los ids en el índice y una búsqueda por id la recorre entera
+public final class MovementSegment {
+
+    private static final int MAGIC = 0x4D565347;
+    private static final int VERSION = 2;
+    private static final int FOOTER_BYTES = 24;
+    private static final int INDEX_ENTRY_BYTES = 44;
+    private static final int V1_INDEX_ENTRY_BYTES = 28;
+
+    private final YearMonth month;
+    private final MappedByteBuffer buffer;
+    private final int indexOffset;
+    private final int accountCount;
+    private final int entryBytes;
+    private final long minId;
+    private final long maxId;
+
+    private MovementSegment(YearMonth month, MappedByteBuffer buffer, int indexOffset, int accountCount, int version) {
+        this.month = month;
+        this.buffer = buffer;
+        this.indexOffset = indexOffset;
+        this.accountCount = accountCount;
+        this.entryBytes = version == 1 ? V1_INDEX_ENTRY_BYTES : INDEX_ENTRY_BYTES;
+        long min = Long.MIN_VALUE;
+        long max = Long.MAX_VALUE;
+        if (version > 1) {
+            min = Long.MAX_VALUE;
+            max = Long.MIN_VALUE;
+            for (int i = 0; i < accountCount; i++) {
+                min = Math.min(min, buffer.getLong(entry(i) + 28));
+                max = Math.max(max, buffer.getLong(entry(i) + 36));
+            }
+        }
+        this.minId = min;
+        this.maxId = max;
+    }
+
+    public static MovementSegment open(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < FOOTER_BYTES || size > Integer.MAX_VALUE) {
+                throw new IOException("Segmento de movimientos inválido: " + file);
+            }
+            // El mapeo sigue vigente después de cerrar el canal
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            int footer = (int) size - FOOTER_BYTES;
+            long indexOffset = buffer.getLong(footer);
+            int accountCount = buffer.getInt(footer + 8);
+            int yearMonth = buffer.getInt(footer + 12);
+            int version = buffer.getInt(footer + 16);
+            if (buffer.getInt(footer + 20) != MAGIC || version < 1 || version > VERSION) {
+                throw new IOException("Segmento de movimientos inválido: " + file);
+            }
+            return new MovementSegment(YearMonth.of(yearMonth / 100, yearMonth % 100), buffer, (int) indexOffset,
+                    accountCount, version);
+        }
+    }
+
+    public YearMonth month() {
+        return month;
+    }
+
+    // Movimientos de la cuenta en orden (fecha, id); búsqueda binaria sobre el índice mapeado, sin copiarlo
+    public List<MovementRecord> read(long accountId) {
+        int entry = indexEntry(accountId);
+        return entry < 0 ? List.of() : readBlock(entry(entry));
+    }
+
+    // Solo se descomprimen los bloques cuyo rango de ids incluye el buscado
+    public Optional<MovementRecord> find(long id) {
+        if (id < minId || id > maxId) {
+            return Optional.empty();
+        }
+        for (int i = 0; i < accountCount; i++) {
+            int entry = entry(i);
+            if (entryBytes == INDEX_ENTRY_BYTES && (id < buffer.getLong(entry + 28) || id > buffer.getLong(entry + 36))) {
+                continue;
+            }
+            for (MovementRecord record : readBlock(entry)) {
+                if (record.id() == id) {
+                    return Optional.of(record);
+                }
+            }
+        }
+        return Optional.empty();
+    }
+
+    // Si la cuenta tiene movimientos en el mes; solo lee el índice
+    public boolean contains(long accountId) {
+        return indexEntry(accountId) >= 0;
+    }
+
+    private int indexEntry(long accountId) {
+        int low = 0;
+        int high = accountCount - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            long current = buffer.getLong(entry(middle));
+            if (current < accountId) {
+                low = middle + 1;
+            } else if (current > accountId) {
+                high = middle - 1;
+            } else {
+                return middle;
+            }
+        }
+        return -1;
+    }
+
+    // Cuentas con movimientos en el mes, en orden; solo lee el índice
+    public long[] accountIds() {
+        long[] accountIds = new long[accountCount];
+        for (int i = 0; i < accountCount; i++) {
+            accountIds[i] = buffer.getLong(entry(i));
+        }
+        return accountIds;
+    }
+
+    public void forEach(Consumer<MovementRecord> action) {
+        for (int i = 0; i < accountCount; i++) {
+            readBlock(entry(i)).forEach(action);
+        }
+    }
+
+    private int entry(int index) {
+        return indexOffset + index * entryBytes;
+    }
+
+    private List<MovementRecord> readBlock(int entry) {
+        long accountId = buffer.getLong(entry);
+        int offset = (int) buffer.getLong(entry + 8);
+        int compressedLength = buffer.getInt(entry + 16);
+        int rawLength = buffer.getInt(entry + 20);
+
+        byte[] raw = new byte[rawLength];
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(buffer.slice(offset, compressedLength));
+            inflater.inflate(raw);
+        } catch (DataFormatException e) {
+            throw new IllegalStateException("Bloque dañado en el segmento de movimientos " + month, e);
+        } finally {
+            inflater.end();
+        }
+
+        ByteBuffer in = ByteBuffer.wrap(raw);
+        int count = (int) readVarLong(in);
+        long[] ids = new long[count];
+        long[] micros = new long[count];
+
+        long id = 0;
+        for (int i = 0; i < count; i++) {
+            id += zigZagDecode(readVarLong(in));
+            ids[i] = id;
+        }
+        long time = 0;
+        for (int i = 0; i < count; i++) {
+            time += readVarLong(in);
+            micros[i] = time;
+        }
+        MovementType[] types = new MovementType[count];
+        for (int i = 0; i < count; i++) {
+            types[i] = MovementType.fromCode(String.valueOf((char) in.get()));
+        }
+        long[] values = new long[count];
+        for (int i = 0; i < count; i++) {
+            values[i] = zigZagDecode(readVarLong(in));
+        }
+
+        LocalDateTime monthStart = month.atDay(1).atStartOfDay();
+        List<MovementRecord> records = new ArrayList<>(count);
+        long balance = 0;
+        for (int i = 0; i < count; i++) {
+            balance = balance + values[i] + zigZagDecode(readVarLong(in));
+            records.add(new MovementRecord(ids[i], accountId, monthStart.plus(micros[i], ChronoUnit.MICROS),
+                    types[i], values[i], balance));
+        }
+        return records;
+    }
+
+    // Recibe las filas en orden (cuenta, fecha, id) y escribe un bloque cada vez que cambia la cuenta
+    public static final class Writer implements Closeable {
+
+        private final YearMonth month;
+        private final LocalDateTime monthStart;
+        private final FileChannel channel;
+        private final OutputStream out;
+        private final ByteArrayOutputStream index = new ByteArrayOutputStream();
+        private final Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION);
+        private final List<MovementRecord> block = new ArrayList<>();
+        private long position;
+        private int accountCount;
+        private long rowCount;
+
+        public Writer(Path file, YearMonth month) throws IOException {
+            this.month = month;
+            this.monthStart = month.atDay(1).atStartOfDay();
+            this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                    StandardOpenOption.WRITE);
+            this.out = Channels.newOutputStream(channel);
+        }
+
+        public void add(MovementRecord record) throws IOException {
+            if (!YearMonth.from(record.date()).equals(month)) {
+                throw new IllegalArgumentException("El movimiento " + record.id() + " no pertenece al mes " + month);
+            }
+            if (!block.isEmpty()) {
+                MovementRecord last = block.get(block.size() - 1);
+                if (MovementRecord.STATEMENT_ORDER.compare(last, record) >= 0) {
+                    throw new IllegalArgumentException("Los movimientos deben llegar en orden (cuenta, fecha, id)");
+                }
+                if (last.accountId() != record.accountId()) {
+                    flushBlock();
+                }
+            }
+            block.add(record);
+            rowCount++;
+        }
+
+        public long rowCount() {
+            return rowCount;
+        }
+
+        // Escribe el último bloque, el índice y el pie, y fuerza el archivo a disco
+        public void finish() throws IOException {
+            if (!block.isEmpty()) {
+                flushBlock();
+            }
+            long indexOffset = position;
+            index.writeTo(out);
+            ByteBuffer footer = ByteBuffer.allocate(FOOTER_BYTES);
+            footer.putLong(indexOffset)
+                    .putInt(accountCount)
+                    .putInt(month.getYear() * 100 + month.getMonthValue())
+                    .putInt(VERSION)
+                    .putInt(MAGIC);
+            out.write(footer.array());
+            position += index.size() + FOOTER_BYTES;
+            if (position > Integer.MAX_VALUE) {
+                throw new IOException("El segmento del mes " + month + " supera 2 GB");
+            }
+            channel.force(true);
+        }
+
+        private void flushBlock() throws IOException {
+            ByteArrayOutputStream raw = new ByteArrayOutputStream(block.size() * 8);
+            writeVarLong(raw, block.size());
+
+            long previousId = 0;
+            for (MovementRecord record : block) {
+                writeVarLong(raw, zigZagEncode(record.id() - previousId));
+                previousId = record.id();
+            }
+            long previousMicros = 0;
+            for (MovementRecord record : block) {
+                long micros = ChronoUnit.MICROS.between(monthStart, record.date());
+                writeVarLong(raw, micros - previousMicros);
+                previousMicros = micros;
+            }
+            for (MovementRecord record : block) {
+                raw.write(record.movementType().getCode().charAt(0));
+            }
+            for (MovementRecord record : block) {
+                writeVarLong(raw, zigZagEncode(record.value()));
+            }
+            long previousBalance = 0;
+            for (MovementRecord record : block) {
+                writeVarLong(raw, zigZagEncode(record.balance() - previousBalance - record.value()));
+                previousBalance = record.balance();
+            }
+
+            byte[] input = raw.toByteArray();
+            deflater.reset();
+            deflater.setInput(input);
+            deflater.finish();
+            byte[] chunk = new byte[8192];
+            long compressedLength = 0;
+            while (!deflater.finished()) {
+                int length = deflater.deflate(chunk);
+                out.write(chunk, 0, length);
+                compressedLength += length;
+            }
+
+            long minId = Long.MAX_VALUE;
+            long maxId = Long.MIN_VALUE;
+            for (MovementRecord record : block) {
+                minId = Math.min(minId, record.id());
+                maxId = Math.max(maxId, record.id());
+            }
+            ByteBuffer entry = ByteBuffer.allocate(INDEX_ENTRY_BYTES);
+            entry.putLong(block.get(0).accountId())
+                    .putLong(position)
+                    .putInt((int) compressedLength)
+                    .putInt(input.length)
+                    .putInt(block.size())
+                    .putLong(minId)
+                    .putLong(maxId);
+            index.write(entry.array());
+
+            position += compressedLength;
+            accountCount++;
+            block.clear();
+        }
+
+        @Override
+        public void close() throws IOException {
+            deflater.end();
+            channel.close();
+        }
+    }
+
+    private static void writeVarLong(ByteArrayOutputStream out, long value) {
+        while ((value & ~0x7FL) != 0) {
+            out.write((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.write((int) value);
+    }
+
+    private static long readVarLong(ByteBuffer in) {
+        long value = 0;
+        int shift = 0;
+        byte current;
+        do {
+            current = in.get();
+            value |= (long) (current & 0x7F) << shift;
+            shift += 7;
+        } while (current < 0);
+        return value;
+    }
+
+    private static long zigZagEncode(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    private static long zigZagDecode(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+}
@@ -1,13 +1,17 @@
 package com.testdevsu.demo.service;
 
+import com.testdevsu.demo.dto.MovementBatchResultDTO;
+import com.testdevsu.demo.dto.MovementPageDTO;
 import com.testdevsu.demo.dto.MovementRequestDTO;
 import com.testdevsu.demo.dto.MovementResponseDTO;
 import java.util.List;
 
 public interface MovementService {
-    List<MovementResponseDTO> getAllMovements();
+    MovementPageDTO getMovements(String after, int limit);
+    MovementPageDTO getAccountMovements(Long accountId, String after, int limit);
     MovementResponseDTO getMovementById(Long id);
     MovementResponseDTO createMovement(MovementRequestDTO requestDTO);
+    List<MovementBatchResultDTO> createMovements(List<MovementRequestDTO> requests);
     MovementResponseDTO updateMovement(Long id, MovementRequestDTO requestDTO);
     MovementResponseDTO partialUpdateMovement(Long id, MovementRequestDTO requestDTO);
     void deleteMovement(Long id);
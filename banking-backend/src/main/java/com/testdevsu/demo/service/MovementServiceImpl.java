@@ -1,21 +1,42 @@
 package com.testdevsu.demo.service;
 
+import com.testdevsu.demo.dto.MovementBatchResultDTO;
+import com.testdevsu.demo.dto.MovementPageDTO;
 import com.testdevsu.demo.dto.MovementRequestDTO;
 import com.testdevsu.demo.dto.MovementResponseDTO;
+import com.testdevsu.demo.exception.ArchivedPeriodException;
+import com.testdevsu.demo.exception.ConcurrentPostingException;
 import com.testdevsu.demo.exception.DailyLimitExceededException;
 import com.testdevsu.demo.exception.InsufficientBalanceException;
+import com.testdevsu.demo.exception.InvalidAmountException;
 import com.testdevsu.demo.exception.ResourceNotFoundException;
 import com.testdevsu.demo.model.Account;
+import com.testdevsu.demo.model.Money;
 import com.testdevsu.demo.model.Movement;
 import com.testdevsu.demo.repository.AccountRepository;
+import com.testdevsu.demo.repository.DailyWithdrawalTotalRepository;
 import com.testdevsu.demo.repository.MovementRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.LockModeType;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
-import java.time.LocalTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
@@ -24,101 +45,247 @@ public class MovementServiceImpl implements MovementService {
 
     private final MovementRepository movementRepository;
     private final AccountRepository accountRepository;
+    private final DailyWithdrawalTotalRepository dailyWithdrawalTotalRepository;
+    private final PostingConcurrencyStrategy postingStrategy;
+    private final BalanceChain balanceChain;
+    private final AccountBalanceCache balanceCache;
+    private final ReplicaConsistency replicaConsistency;
+    private final BalanceSnapshots balanceSnapshots;
+    private final MovementArchive movementArchive;
+    private final Validator validator;
+    private final EntityManager entityManager;
+
+    @Value("${banking.posting.batch-chunk-size:500}")
+    private int batchChunkSize;
     
-    private static final Double DAILY_WITHDRAWAL_LIMIT = 1000.0;
+    // 1000.00 expresado en centavos
+    private static final long DAILY_WITHDRAWAL_LIMIT = 100_000L;
+
+    private static final int MAX_PAGE_SIZE = 500;
 
     @Transactional(readOnly = true)
-    public List<MovementResponseDTO> getAllMovements() {
-        return movementRepository.findAll().stream()
-                .map(this::mapToResponseDTO)
-                .collect(Collectors.toList());
+    public MovementPageDTO getMovements(String after, int limit) {
+        int size = pageSize(limit);
+        List<Movement> movements = after == null
+                ? movementRepository.findLatest(PageRequest.of(0, size + 1))
+                : movementRepository.findLatestBefore(MovementCursor.decode(after).id(), PageRequest.of(0, size + 1));
+        return toPage(movements, size, MovementCursor::of, this::mapToResponseDTO);
     }
 
+    // Búsqueda por (account_id, date, id) desde el cursor: el costo no depende de cuántas páginas se hayan recorrido.
+    // Cuando movement se acaba, la página sigue con los meses del archivo frío
+    @Transactional(readOnly = true)
+    public MovementPageDTO getAccountMovements(Long accountId, String after, int limit) {
+        replicaConsistency.readingAccount(accountId);
+        Account account = accountRepository.findById(accountId)
+                .orElseThrow(() -> new ResourceNotFoundException("Cuenta no encontrada con id: " + accountId));
+
+        int size = pageSize(limit);
+        MovementCursor cursor = after != null ? MovementCursor.decode(after) : null;
+        List<Movement> movements = cursor == null
+                ? movementRepository.findByAccountIdOrderByDateDescIdDesc(accountId, PageRequest.of(0, size + 1))
+                : movementRepository.findPreceding(accountId, cursor.date(), cursor.id(), PageRequest.of(0, size + 1));
+
+        // Mismo corte que los estados de cuenta: las filas de un mes archivado que sigan en movement salen del archivo.
+        // Todo lo vivo es posterior a lo archivado, así que el archivo solo completa la página
+        LocalDateTime liveFrom = movementArchive.liveFrom(LocalDateTime.MIN);
+        List<MovementRecord> records = new ArrayList<>(size + 1);
+        for (Movement movement : movements) {
+            if (!movement.getDate().isBefore(liveFrom)) {
+                records.add(MovementRecord.of(movement));
+            }
+        }
+        if (records.size() <= size) {
+            Iterator<MovementRecord> archived = cursor != null && cursor.date().isBefore(liveFrom)
+                    ? movementArchive.preceding(accountId, cursor.date(), cursor.id())
+                    : movementArchive.preceding(accountId, liveFrom, 0L);
+            while (records.size() <= size && archived.hasNext()) {
+                records.add(archived.next());
+            }
+        }
+        return toPage(records, size, MovementCursor::of, record -> mapToResponseDTO(record, account));
+    }
+
+    // Un movimiento de un mes archivado ya no está en movement y se lee del archivo frío
     @Transactional(readOnly = true)
     public MovementResponseDTO getMovementById(Long id) {
-        Movement movement = movementRepository.findById(id)
+        Optional<Movement> movement = movementRepository.findById(id);
+        if (movement.isPresent()) {
+            return mapToResponseDTO(movement.get());
+        }
+        MovementRecord archived = movementArchive.find(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Movimiento no encontrado con id: " + id));
-        return mapToResponseDTO(movement);
+        Account account = accountRepository.findById(archived.accountId())
+                .orElseThrow(() -> new ResourceNotFoundException("Cuenta no encontrada con id: " + archived.accountId()));
+        return mapToResponseDTO(archived, account);
     }
 
-    @Transactional
     public MovementResponseDTO createMovement(MovementRequestDTO requestDTO) {
-        Account account = accountRepository.findById(requestDTO.getAccountId())
+        return postingStrategy.execute(requestDTO.getAccountId(), () -> postMovement(requestDTO));
+    }
+
+    private MovementResponseDTO postMovement(MovementRequestDTO requestDTO) {
+        Account account = postingStrategy.loadAccount(requestDTO.getAccountId())
                 .orElseThrow(() -> new ResourceNotFoundException("Cuenta no encontrada con id: " + requestDTO.getAccountId()));
 
-        Double currentBalance = getCurrentBalance(account);
+        Movement savedMovement = registerMovement(account, requestDTO);
+        return mapToResponseDTO(savedMovement);
+    }
+
+    public List<MovementBatchResultDTO> createMovements(List<MovementRequestDTO> requests) {
+        MovementBatchResultDTO[] results = new MovementBatchResultDTO[requests.size()];
+        Map<Long, List<Integer>> indexesByAccount = new LinkedHashMap<>();
+
+        for (int i = 0; i < requests.size(); i++) {
+            Set<ConstraintViolation<MovementRequestDTO>> violations = validator.validate(requests.get(i));
+            if (!violations.isEmpty()) {
+                results[i] = MovementBatchResultDTO.rejected(i, violations.stream()
+                        .map(ConstraintViolation::getMessage)
+                        .collect(Collectors.joining(", ")));
+                continue;
+            }
+            indexesByAccount.computeIfAbsent(requests.get(i).getAccountId(), k -> new ArrayList<>()).add(i);
+        }
 
-        Double movementValue = requestDTO.getValue();
-        
+        // Cada tramo de una misma cuenta va en su propia transacción, bajo el modo de concurrencia configurado
+        indexesByAccount.forEach((accountId, indexes) -> {
+            for (int from = 0; from < indexes.size(); from += batchChunkSize) {
+                List<Integer> chunk = indexes.subList(from, Math.min(from + batchChunkSize, indexes.size()));
+                try {
+                    postingStrategy.execute(accountId, () -> postChunk(accountId, chunk, requests))
+                            .forEach(result -> results[result.getIndex()] = result);
+                } catch (RuntimeException e) {
+                    // Los rechazos de negocio quedan en cada movimiento; aquí solo llegan fallos del tramo completo,
+                    // que se revierte entero
+                    String error = "No se pudo registrar el tramo de la cuenta " + accountId + ": " + e.getMessage();
+                    chunk.forEach(index -> results[index] = MovementBatchResultDTO.rejected(index, error));
+                }
+            }
+        });
 
-        if ("RETIRO".equalsIgnoreCase(requestDTO.getMovementType())) {
-            movementValue = Math.abs(movementValue) * -1;
-        } else if ("DEPOSITO".equalsIgnoreCase(requestDTO.getMovementType())) {
-            movementValue = Math.abs(movementValue);
+        return Arrays.asList(results);
+    }
+
+    private List<MovementBatchResultDTO> postChunk(Long accountId, List<Integer> indexes, List<MovementRequestDTO> requests) {
+        Optional<Account> found = postingStrategy.loadAccount(accountId);
+        if (found.isEmpty()) {
+            return indexes.stream()
+                    .map(index -> MovementBatchResultDTO.rejected(index, "Cuenta no encontrada con id: " + accountId))
+                    .collect(Collectors.toList());
+        }
+
+        Account account = found.get();
+        List<MovementBatchResultDTO> results = new ArrayList<>(indexes.size());
+
+        for (Integer index : indexes) {
+            try {
+                Movement movement = registerMovement(account, requests.get(index));
+                results.add(MovementBatchResultDTO.created(index, mapToResponseDTO(movement)));
+            } catch (InsufficientBalanceException | DailyLimitExceededException | ArchivedPeriodException
+                     | InvalidAmountException e) {
+                results.add(MovementBatchResultDTO.rejected(index, e.getMessage()));
+            }
         }
 
-        double newBalance = currentBalance + movementValue;
+        return results;
+    }
+
+    private Movement registerMovement(Account account, MovementRequestDTO requestDTO) {
+        long movementValue = requestDTO.getMovementType().signed(Money.toCents(requestDTO.getValue()));
+
+        LocalDateTime date = toStoredPrecision(requestDTO.getDate() != null ? requestDTO.getDate() : LocalDateTime.now());
+        // Todas las validaciones de negocio van antes de tocar la cuenta: en un lote, el movimiento rechazado
+        // no deja nada a medias y el resto del tramo sigue en la misma transacción
+        movementArchive.ensureOpen(date);
+
+        // Un movimiento con fecha pasada toma el saldo de su predecesor y desplaza a todos los posteriores;
+        // el nuevo id será el mayor, así que queda detrás de los movimientos de la misma fecha
+        boolean backdated = account.getLastMovementDate() != null && date.isBefore(account.getLastMovementDate());
+        long previousBalance = backdated
+                ? balanceChain.balanceBefore(account, date, Long.MAX_VALUE)
+                : account.getCurrentBalance();
+
+        long newBalance = previousBalance + movementValue;
 
         if (newBalance < 0) {
             throw new InsufficientBalanceException("Saldo no disponible");
         }
 
+        BalanceChain.Rechain laterBalances = backdated
+                ? balanceChain.planFrom(account, date, Long.MAX_VALUE, movementValue)
+                : null;
+
         if (movementValue < 0) {
-            validateDailyWithdrawalLimit(account, Math.abs(movementValue));
+            validateDailyWithdrawalLimit(account, date.toLocalDate(), Math.abs(movementValue));
         }
 
         Movement movement = new Movement();
-        movement.setDate(requestDTO.getDate() != null ? requestDTO.getDate() : LocalDateTime.now());
+        movement.setDate(date);
         movement.setMovementType(requestDTO.getMovementType());
         movement.setValue(movementValue);
         movement.setBalance(newBalance);
         movement.setAccount(account);
 
         Movement savedMovement = movementRepository.save(movement);
-        return mapToResponseDTO(savedMovement);
+        applyPosting(account, savedMovement);
+        if (laterBalances != null) {
+            laterBalances.apply();
+        }
+        balanceSnapshots.invalidateFrom(account, date.toLocalDate());
+        return savedMovement;
     }
 
-    @Transactional
     public MovementResponseDTO updateMovement(Long id, MovementRequestDTO requestDTO) {
+        Long accountId = findAccountId(id);
+        return postingStrategy.execute(accountIds(accountId, requestDTO.getAccountId()),
+                () -> applyUpdate(id, accountId, requestDTO));
+    }
+
+    private MovementResponseDTO applyUpdate(Long id, Long accountId, MovementRequestDTO requestDTO) {
+        Map<Long, Account> accounts = lockAccounts(accountId, requestDTO.getAccountId());
+
         Movement movement = movementRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Movimiento no encontrado con id: " + id));
+        ensureStillOn(movement, accountId);
 
-        Account account = accountRepository.findById(requestDTO.getAccountId())
+        Account account = Optional.ofNullable(accounts.get(requestDTO.getAccountId()))
                 .orElseThrow(() -> new ResourceNotFoundException("Cuenta no encontrada con id: " + requestDTO.getAccountId()));
 
-        Double balanceBeforeThisMovement = getBalanceBeforeMovement(movement);
-
-        Double movementValue = requestDTO.getValue();
-
-        if ("RETIRO".equalsIgnoreCase(requestDTO.getMovementType())) {
-            movementValue = Math.abs(movementValue) * -1;
-        } else if ("DEPOSITO".equalsIgnoreCase(requestDTO.getMovementType())) {
-            movementValue = Math.abs(movementValue);
-        }
+        Account previousAccount = movement.getAccount();
+        long previousValue = movement.getValue();
+        LocalDateTime previousDate = movement.getDate();
 
-        double newBalance = balanceBeforeThisMovement + movementValue;
+        long movementValue = requestDTO.getMovementType().signed(Money.toCents(requestDTO.getValue()));
 
-        if (newBalance < 0) {
-            throw new InsufficientBalanceException("Saldo no disponible");
-        }
-
-        movement.setDate(requestDTO.getDate());
+        movement.setDate(requestDTO.getDate() != null ? toStoredPrecision(requestDTO.getDate()) : previousDate);
         movement.setMovementType(requestDTO.getMovementType());
         movement.setValue(movementValue);
-        movement.setBalance(newBalance);
         movement.setAccount(account);
 
         Movement updatedMovement = movementRepository.save(movement);
+        reapplyPosting(previousAccount, previousValue, previousDate, updatedMovement);
         return mapToResponseDTO(updatedMovement);
     }
 
-    @Transactional
     public MovementResponseDTO partialUpdateMovement(Long id, MovementRequestDTO requestDTO) {
+        Long accountId = findAccountId(id);
+        return postingStrategy.execute(accountIds(accountId, requestDTO.getAccountId()),
+                () -> applyPartialUpdate(id, accountId, requestDTO));
+    }
+
+    private MovementResponseDTO applyPartialUpdate(Long id, Long accountId, MovementRequestDTO requestDTO) {
+        Map<Long, Account> accounts = lockAccounts(accountId, requestDTO.getAccountId());
+
         Movement movement = movementRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Movimiento no encontrado con id: " + id));
+        ensureStillOn(movement, accountId);
+
+        Account previousAccount = movement.getAccount();
+        long previousValue = movement.getValue();
+        LocalDateTime previousDate = movement.getDate();
 
         if (requestDTO.getDate() != null) {
-            movement.setDate(requestDTO.getDate());
+            movement.setDate(toStoredPrecision(requestDTO.getDate()));
         }
 
         boolean needsRecalculation = requestDTO.getMovementType() != null || requestDTO.getValue() != null;
@@ -128,97 +295,201 @@ public class MovementServiceImpl implements MovementService {
         }
         
         if (requestDTO.getValue() != null || needsRecalculation) {
-            Double balanceBeforeThisMovement = getBalanceBeforeMovement(movement);
-
-            Double movementValue = requestDTO.getValue() != null ? requestDTO.getValue() : movement.getValue();
-
-            if ("RETIRO".equalsIgnoreCase(movement.getMovementType())) {
-                movementValue = Math.abs(movementValue) * -1;
-            } else if ("DEPOSITO".equalsIgnoreCase(movement.getMovementType())) {
-                movementValue = Math.abs(movementValue);
-            }
-
-            double newBalance = balanceBeforeThisMovement + movementValue;
-
-            if (newBalance < 0) {
-                throw new InsufficientBalanceException("Saldo no disponible");
-            }
-            
-            movement.setValue(movementValue);
-            movement.setBalance(newBalance);
+            long movementValue = requestDTO.getValue() != null ? Money.toCents(requestDTO.getValue()) : movement.getValue();
+            movement.setValue(movement.getMovementType().signed(movementValue));
         }
         
         if (requestDTO.getAccountId() != null) {
-            Account account = accountRepository.findById(requestDTO.getAccountId())
+            Account account = Optional.ofNullable(accounts.get(requestDTO.getAccountId()))
                     .orElseThrow(() -> new ResourceNotFoundException("Cuenta no encontrada con id: " + requestDTO.getAccountId()));
             movement.setAccount(account);
         }
 
         Movement updatedMovement = movementRepository.save(movement);
+        reapplyPosting(previousAccount, previousValue, previousDate, updatedMovement);
         return mapToResponseDTO(updatedMovement);
     }
 
-    @Transactional
     public void deleteMovement(Long id) {
+        Long accountId = findAccountId(id);
+        postingStrategy.execute(accountId, () -> applyDelete(id, accountId));
+    }
+
+    private Void applyDelete(Long id, Long accountId) {
+        postingStrategy.loadAccount(accountId);
+
         Movement movement = movementRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Movimiento no encontrado con id: " + id));
+        ensureStillOn(movement, accountId);
         
+        Account account = movement.getAccount();
+
+        // Los posteriores pierden el valor del movimiento eliminado y quedan encadenados desde su predecesor
+        BalanceChain.Rechain laterBalances = balanceChain.planFrom(account, movement.getDate(), movement.getId() + 1,
+                -movement.getValue());
+
         movementRepository.delete(movement);
+        laterBalances.apply();
+
+        account.setCurrentBalance(account.getCurrentBalance() - movement.getValue());
+        releaseDailyWithdrawal(account, movement.getDate(), movement.getValue());
+        balanceSnapshots.invalidateFrom(account, movement.getDate().toLocalDate());
+        if (movement.getId().equals(account.getLastMovementId())) {
+            refreshLastMovement(account);
+        }
+        balanceCache.publishAfterCommit(account);
+        replicaConsistency.recordPosting(account);
+        return null;
     }
 
-    private Double getCurrentBalance(Account account) {
-        List<Movement> movements = movementRepository.findByAccountId(account.getId());
-        
-        return movements.stream()
-                .reduce((first, second) -> second)
-                .map(Movement::getBalance)
-                .orElse(account.getInitialBalance());
+    private int pageSize(int limit) {
+        return Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
     }
 
-    private Double getBalanceBeforeMovement(Movement currentMovement) {
-        List<Movement> movements = movementRepository.findByAccountId(currentMovement.getAccount().getId());
+    // Se pide una fila de más para saber si existe una página siguiente sin contar el total
+    private <T> MovementPageDTO toPage(List<T> rows, int size, Function<T, MovementCursor> cursor,
+                                       Function<T, MovementResponseDTO> mapper) {
+        boolean hasMore = rows.size() > size;
+        List<T> page = hasMore ? rows.subList(0, size) : rows;
+        String nextCursor = hasMore ? cursor.apply(page.get(size - 1)).encode() : null;
 
-        Movement previousMovement = null;
-        for (Movement mov : movements) {
-            if (mov.getId().equals(currentMovement.getId())) {
-                break;
-            }
-            previousMovement = mov;
+        return new MovementPageDTO(page.stream()
+                .map(mapper)
+                .collect(Collectors.toList()), nextCursor);
+    }
+
+    // Se resuelve antes de abrir la transacción para saber qué cuenta debe protegerse. Un movimiento archivado
+    // existe pero ya no admite cambios
+    private Long findAccountId(Long movementId) {
+        return movementRepository.findAccountIdById(movementId)
+                .orElseThrow(() -> movementArchive.find(movementId).isPresent()
+                        ? new ArchivedPeriodException("El movimiento " + movementId + " está archivado y no admite cambios")
+                        : new ResourceNotFoundException("Movimiento no encontrado con id: " + movementId));
+    }
+
+    // Cuenta de origen y, si cambia, la de destino; la estrategia las protege siempre en orden de id
+    private static List<Long> accountIds(Long sourceId, Long destinationId) {
+        return destinationId == null || destinationId.equals(sourceId)
+                ? List.of(sourceId)
+                : List.of(sourceId, destinationId);
+    }
+
+    private Map<Long, Account> lockAccounts(Long sourceId, Long destinationId) {
+        return postingStrategy.loadAccounts(accountIds(sourceId, destinationId)).stream()
+                .collect(Collectors.toMap(Account::getId, Function.identity()));
+    }
+
+    // Otra operación pudo mover el movimiento de cuenta entre leer su cuenta y bloquearla
+    private static void ensureStillOn(Movement movement, Long accountId) {
+        if (!movement.getAccount().getId().equals(accountId)) {
+            throw new ConcurrentPostingException("El movimiento " + movement.getId()
+                    + " fue modificado por otra operación, intente nuevamente");
         }
+    }
 
-        return previousMovement != null ? 
-                previousMovement.getBalance() : 
-                currentMovement.getAccount().getInitialBalance();
+    // La columna guarda microsegundos; comparar posiciones (fecha, id) con nanosegundos en memoria las desalinearía
+    private static LocalDateTime toStoredPrecision(LocalDateTime date) {
+        return date.truncatedTo(ChronoUnit.MICROS);
     }
 
-    private void validateDailyWithdrawalLimit(Account account, Double withdrawalAmount) {
-        LocalDateTime startOfDay = LocalDateTime.of(LocalDate.now(), LocalTime.MIN);
-        LocalDateTime endOfDay = LocalDateTime.of(LocalDate.now(), LocalTime.MAX);
+    // Suma el movimiento al saldo corriente y avanza el puntero al último movimiento si corresponde
+    private void applyPosting(Account account, Movement movement) {
+        account.setCurrentBalance(account.getCurrentBalance() + movement.getValue());
 
-        Double totalWithdrawalsToday = movementRepository
-                .findByAccountIdAndDateBetween(account.getId(), startOfDay, endOfDay)
-                .stream()
-                .filter(movement -> movement.getValue() < 0)
-                .map(Movement::getValue)
-                .map(Math::abs)
-                .reduce(0.0, Double::sum);
-        
-        double totalWithdrawal = totalWithdrawalsToday + withdrawalAmount;
-        
-        if (totalWithdrawal > DAILY_WITHDRAWAL_LIMIT) {
+        LocalDateTime lastDate = account.getLastMovementDate();
+        if (lastDate == null || !movement.getDate().isBefore(lastDate)) {
+            account.setLastMovementId(movement.getId());
+            account.setLastMovementDate(movement.getDate());
+        }
+        balanceCache.publishAfterCommit(account);
+        replicaConsistency.recordPosting(account);
+    }
+
+    // Revierte el valor anterior y aplica el nuevo, incluso si el movimiento cambió de cuenta,
+    // y desplaza los saldos de la cadena en la posición anterior y en la nueva
+    private void reapplyPosting(Account previousAccount, long previousValue, LocalDateTime previousDate, Movement movement) {
+        Account account = movement.getAccount();
+
+        balanceChain.reposition(previousAccount, previousDate, previousValue, movement);
+
+        previousAccount.setCurrentBalance(previousAccount.getCurrentBalance() - previousValue);
+        account.setCurrentBalance(account.getCurrentBalance() + movement.getValue());
+
+        releaseDailyWithdrawal(previousAccount, previousDate, previousValue);
+        recordDailyWithdrawal(account, movement.getDate(), movement.getValue());
+
+        balanceSnapshots.invalidateFrom(previousAccount, previousDate.toLocalDate());
+        balanceSnapshots.invalidateFrom(account, movement.getDate().toLocalDate());
+
+        refreshLastMovement(previousAccount);
+        if (!account.getId().equals(previousAccount.getId())) {
+            refreshLastMovement(account);
+        }
+
+        // Mover un movimiento de fecha sin cambiar su valor reencadena saldos sin tocar la cuenta;
+        // se fuerza el incremento de versión para que la marca de agua de los reportes lo detecte
+        entityManager.lock(previousAccount, LockModeType.PESSIMISTIC_FORCE_INCREMENT);
+        if (!account.getId().equals(previousAccount.getId())) {
+            entityManager.lock(account, LockModeType.PESSIMISTIC_FORCE_INCREMENT);
+        }
+        balanceCache.publishAfterCommit(previousAccount);
+        balanceCache.publishAfterCommit(account);
+        replicaConsistency.recordPosting(previousAccount);
+        replicaConsistency.recordPosting(account);
+    }
+
+    private void refreshLastMovement(Account account) {
+        Optional<Movement> lastMovement = movementRepository.findTopByAccountIdOrderByDateDescIdDesc(account.getId());
+        account.setLastMovementId(lastMovement.map(Movement::getId).orElse(null));
+        account.setLastMovementDate(lastMovement.map(Movement::getDate).orElse(null));
+    }
+
+    // Lectura e incremento en una sola sentencia: si el cupo no alcanza no se actualiza ninguna fila
+    private void validateDailyWithdrawalLimit(Account account, LocalDate day, long withdrawalAmount) {
+        dailyWithdrawalTotalRepository.ensureExists(account.getId(), day);
+        int updated = dailyWithdrawalTotalRepository
+                .incrementWithinLimit(account.getId(), day, withdrawalAmount, DAILY_WITHDRAWAL_LIMIT - withdrawalAmount);
+
+        if (updated == 0) {
             throw new DailyLimitExceededException("Cupo diario Excedido");
         }
     }
 
+    // Las correcciones mueven el acumulado del día sin volver a validar el cupo
+    private void recordDailyWithdrawal(Account account, LocalDateTime date, long movementValue) {
+        if (movementValue < 0) {
+            dailyWithdrawalTotalRepository.ensureExists(account.getId(), date.toLocalDate());
+            dailyWithdrawalTotalRepository.increment(account.getId(), date.toLocalDate(), -movementValue);
+        }
+    }
+
+    private void releaseDailyWithdrawal(Account account, LocalDateTime date, long movementValue) {
+        if (movementValue < 0) {
+            dailyWithdrawalTotalRepository.increment(account.getId(), date.toLocalDate(), movementValue);
+        }
+    }
+
     private MovementResponseDTO mapToResponseDTO(Movement movement) {
         return new MovementResponseDTO(
                 movement.getId(),
                 movement.getDate(),
                 movement.getMovementType(),
-                movement.getValue(),
-                movement.getBalance(),
+                Money.toAmount(movement.getValue()),
+                Money.toAmount(movement.getBalance()),
                 movement.getAccount().getId(),
                 movement.getAccount().getAccountNumber()
         );
     }
+
+    private MovementResponseDTO mapToResponseDTO(MovementRecord record, Account account) {
+        return new MovementResponseDTO(
+                record.id(),
+                record.date(),
+                record.movementType(),
+                Money.toAmount(record.value()),
+                Money.toAmount(record.balance()),
+                account.getId(),
+                account.getAccountNumber()
+        );
+    }
 }
@@ -0,0 +1,74 @@
+package com.testdevsu.demo.service;
+
+import com.testdevsu.demo.exception.ConcurrentPostingException;
+import com.testdevsu.demo.model.Account;
+import com.testdevsu.demo.repository.AccountRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.dao.PessimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+// Sin bloqueos: la versión de la cuenta se incrementa en cada operación y el perdedor reintenta
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "banking.posting.concurrency-mode", havingValue = "optimistic")
+public class OptimisticPostingStrategy implements PostingConcurrencyStrategy {
+
+    private final AccountRepository accountRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final int maxAttempts;
+
+    public OptimisticPostingStrategy(AccountRepository accountRepository,
+                                     TransactionTemplate transactionTemplate,
+                                     @Value("${banking.posting.optimistic-max-attempts:5}") int maxAttempts) {
+        this.accountRepository = accountRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.maxAttempts = maxAttempts;
+    }
+
+    @Override
+    public <T> T execute(Long accountId, Supplier<T> posting) {
+        return execute(List.of(accountId), posting);
+    }
+
+    @Override
+    public <T> T execute(Collection<Long> accountIds, Supplier<T> posting) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return transactionTemplate.execute(status -> posting.get());
+            // Al confirmar, dos operaciones cruzadas pueden chocar en la base; la víctima del interbloqueo reintenta igual
+            } catch (OptimisticLockingFailureException | PessimisticLockingFailureException e) {
+                if (attempt >= maxAttempts) {
+                    throw new ConcurrentPostingException("La cuenta " + describe(accountIds)
+                            + " está siendo modificada por otra operación, intente nuevamente");
+                }
+                log.debug("Conflicto de versión en la cuenta {}, reintento {}", describe(accountIds), attempt);
+            }
+        }
+    }
+
+    @Override
+    public Optional<Account> loadAccount(Long accountId) {
+        return accountRepository.findByIdForVersionIncrement(accountId);
+    }
+
+    @Override
+    public List<Account> loadAccounts(Collection<Long> accountIds) {
+        return accountIds.stream().distinct().sorted()
+                .map(accountRepository::findByIdForVersionIncrement)
+                .flatMap(Optional::stream)
+                .toList();
+    }
+
+    private static String describe(Collection<Long> accountIds) {
+        return accountIds.stream().distinct().sorted().map(String::valueOf).collect(Collectors.joining(", "));
+    }
+}
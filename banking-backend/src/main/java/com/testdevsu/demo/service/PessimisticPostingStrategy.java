@@ -0,0 +1,46 @@
+package com.testdevsu.demo.service;
+
+import com.testdevsu.demo.model.Account;
+import com.testdevsu.demo.repository.AccountRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+// SELECT ... FOR UPDATE sobre la cuenta: las operaciones sobre una misma cuenta se serializan en la base
+@Component
+@ConditionalOnProperty(name = "banking.posting.concurrency-mode", havingValue = "pessimistic", matchIfMissing = true)
+@RequiredArgsConstructor
+public class PessimisticPostingStrategy implements PostingConcurrencyStrategy {
+
+    private final AccountRepository accountRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    @Override
+    public <T> T execute(Long accountId, Supplier<T> posting) {
+        return transactionTemplate.execute(status -> posting.get());
+    }
+
+    @Override
+    public <T> T execute(Collection<Long> accountIds, Supplier<T> posting) {
+        return transactionTemplate.execute(status -> posting.get());
+    }
+
+    @Override
+    public Optional<Account> loadAccount(Long accountId) {
+        return accountRepository.findByIdForUpdate(accountId);
+    }
+
+    // Un FOR UPDATE por cuenta en orden ascendente de id
+    @Override
+    public List<Account> loadAccounts(Collection<Long> accountIds) {
+        return accountIds.stream().distinct().sorted()
+                .map(accountRepository::findByIdForUpdate)
+                .flatMap(Optional::stream)
+                .toList();
+    }
+}
@@ -0,0 +1,16 @@
+package com.testdevsu.demo.service;
+
+import com.testdevsu.demo.model.Account;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+public interface PostingConcurrencyStrategy {
+    <T> T execute(Long accountId, Supplier<T> posting);
+    // Operaciones que tocan varias cuentas (mover un movimiento de cuenta): todas quedan protegidas,
+    // siempre en orden de id para que dos movimientos cruzados no se esperen mutuamente
+    <T> T execute(Collection<Long> accountIds, Supplier<T> posting);
+    Optional<Account> loadAccount(Long accountId);
+    List<Account> loadAccounts(Collection<Long> accountIds);
+}
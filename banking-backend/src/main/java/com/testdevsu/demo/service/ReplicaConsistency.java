@@ -0,0 +1,112 @@
+package com.testdevsu.demo.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.testdevsu.demo.model.Account;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+
+// Decide si una transacción de solo lectura puede leer de la réplica: la réplica tiene que estar a menos de max-lag
+// de la base principal y, si la lectura es de un cliente o una cuenta con un movimiento reciente, haber aplicado ya
+// ese movimiento. El retraso lo mide ReplicaLagMonitor; sin réplica configurada nada de esto se consulta
+@Component
+public class ReplicaConsistency {
+
+    private final Duration maxLag;
+    // Pasado max-lag cualquier réplica utilizable ya tiene aplicado el movimiento, por eso las marcas expiran entonces.
+    // Las marcas viven en la memoria de esta instancia: una lectura atendida por otra instancia no ve el movimiento
+    // recién registrado aquí y puede leer de la réplica hasta max-lag por detrás
+    private final Cache<Long, Instant> clientPostings;
+    private final Cache<Long, Instant> accountPostings;
+    private final ThreadLocal<ReadScope> scope = new ThreadLocal<>();
+    private volatile Instant replicaAppliedThrough;
+
+    public ReplicaConsistency(@Value("${banking.datasource.replica.max-lag:5s}") Duration maxLag) {
+        this.maxLag = maxLag;
+        this.clientPostings = Caffeine.newBuilder().expireAfterWrite(maxLag).build();
+        this.accountPostings = Caffeine.newBuilder().expireAfterWrite(maxLag).build();
+    }
+
+    // La marca se toma en afterCommit, después de que el movimiento es visible en la principal;
+    // si la transacción se revierte no queda nada
+    public void recordPosting(Account account) {
+        Long accountId = account.getId();
+        Long clientId = account.getClient().getId();
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            mark(accountId, clientId);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                mark(accountId, clientId);
+            }
+        });
+    }
+
+    // Se llaman al empezar una lectura y antes de su primera consulta: la conexión se elige con la primera sentencia
+    public void readingClient(Long clientId) {
+        bind(new ReadScope(clientId, null));
+    }
+
+    public void readingAccount(Long accountId) {
+        bind(new ReadScope(null, accountId));
+    }
+
+    public boolean replicaUsable() {
+        Instant appliedThrough = replicaAppliedThrough;
+        if (appliedThrough == null || Duration.between(appliedThrough, Instant.now()).compareTo(maxLag) > 0) {
+            return false;
+        }
+        ReadScope current = scope.get();
+        if (current == null) {
+            return true;
+        }
+        return applied(appliedThrough, current.clientId() != null ? clientPostings.getIfPresent(current.clientId()) : null)
+                && applied(appliedThrough, current.accountId() != null ? accountPostings.getIfPresent(current.accountId()) : null);
+    }
+
+    // Instante del último latido de esta instancia que ya llegó a la réplica; todo lo confirmado antes está aplicado
+    public void replicaAppliedThrough(Instant beat) {
+        Instant current = replicaAppliedThrough;
+        if (current == null || beat.isAfter(current)) {
+            replicaAppliedThrough = beat;
+        }
+    }
+
+    // Réplica caída o sin responder: todas las lecturas vuelven a la principal hasta el próximo latido que llegue
+    public void replicaUnavailable() {
+        replicaAppliedThrough = null;
+    }
+
+    private void mark(Long accountId, Long clientId) {
+        Instant now = Instant.now().truncatedTo(ChronoUnit.MICROS);
+        accountPostings.put(accountId, now);
+        clientPostings.put(clientId, now);
+    }
+
+    private void bind(ReadScope readScope) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        scope.set(readScope);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                scope.remove();
+            }
+        });
+    }
+
+    private static boolean applied(Instant appliedThrough, Instant posting) {
+        return posting == null || !appliedThrough.isBefore(posting);
+    }
+
+    private record ReadScope(Long clientId, Long accountId) {
+    }
+}
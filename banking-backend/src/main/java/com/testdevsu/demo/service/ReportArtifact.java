@@ -0,0 +1,9 @@
+package com.testdevsu.demo.service;
+
+import org.springframework.http.MediaType;
+
+import java.nio.file.Path;
+
+// Archivo terminado de un trabajo de reporte, listo para enviarse tal cual está en disco
+public record ReportArtifact(Path path, long size, MediaType contentType, String fileName) {
+}
@@ -0,0 +1,132 @@
+package com.testdevsu.demo.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.testdevsu.demo.dto.ReportCacheStatsDTO;
+import com.testdevsu.demo.repository.AccountRepository;
+import com.testdevsu.demo.repository.ReportWatermark;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.atomic.LongAdder;
+
+// Reportes ya renderizados por (cliente, periodo, formato, compacto). Cada entrada guarda la marca de agua del
+// cliente con la que se generó y solo se sirve si la marca actual es idéntica; así vale también con varias instancias
+@Component
+public class ReportCache {
+
+    private final AccountRepository accountRepository;
+    private final Cache<ReportCacheKey, CachedReport> reports;
+    private final int maximumEntryBytes;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder invalidations = new LongAdder();
+
+    public ReportCache(AccountRepository accountRepository,
+                       @Value("${banking.report-cache.maximum-weight-bytes:67108864}") long maximumWeightBytes,
+                       @Value("${banking.report-cache.maximum-entry-bytes:5242880}") int maximumEntryBytes,
+                       @Value("${banking.report-cache.time-to-live:30m}") Duration timeToLive) {
+        this.accountRepository = accountRepository;
+        this.maximumEntryBytes = maximumEntryBytes;
+        this.reports = Caffeine.newBuilder()
+                .maximumWeight(maximumWeightBytes)
+                .weigher((ReportCacheKey key, CachedReport report) -> report.content().length)
+                .expireAfterAccess(timeToLive)
+                .recordStats()
+                .build();
+    }
+
+    public Optional<ReportWatermark> watermark(Long clientId) {
+        return accountRepository.findReportWatermark(clientId);
+    }
+
+    public Optional<StatementReport> get(ReportCacheKey key, ReportWatermark watermark) {
+        CachedReport cached = reports.getIfPresent(key);
+        if (cached == null) {
+            misses.increment();
+            return Optional.empty();
+        }
+        if (!cached.watermark().equals(watermark)) {
+            reports.asMap().remove(key, cached);
+            invalidations.increment();
+            misses.increment();
+            return Optional.empty();
+        }
+
+        hits.increment();
+        byte[] content = cached.content();
+        return Optional.of(new StatementReport(cached.fileName(), cached.contentType(), out -> out.write(content)));
+    }
+
+    // Lo que se escribe en la respuesta se copia a la caché al terminar sin errores;
+    // si pasa del tamaño máximo por entrada (exportaciones grandes) solo se transmite
+    public StatementReport caching(ReportCacheKey key, ReportWatermark watermark, StatementReport report) {
+        return new StatementReport(report.fileName(), report.contentType(), out -> {
+            CapturingOutputStream capture = new CapturingOutputStream(out, maximumEntryBytes);
+            report.writeTo(capture);
+            if (!capture.overflowed) {
+                reports.put(key, new CachedReport(watermark, report.fileName(), report.contentType(),
+                        capture.buffer.toByteArray()));
+            }
+        });
+    }
+
+    public ReportCacheStatsDTO getStats() {
+        long weight = reports.policy().eviction()
+                .map(eviction -> eviction.weightedSize().orElse(0L))
+                .orElse(0L);
+        return new ReportCacheStatsDTO(
+                hits.sum(),
+                misses.sum(),
+                invalidations.sum(),
+                reports.stats().evictionCount(),
+                reports.estimatedSize(),
+                weight
+        );
+    }
+
+    private record CachedReport(ReportWatermark watermark, String fileName, MediaType contentType, byte[] content) {
+    }
+
+    private static final class CapturingOutputStream extends FilterOutputStream {
+        private final ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        private final int limit;
+        private boolean overflowed;
+
+        private CapturingOutputStream(OutputStream out, int limit) {
+            super(out);
+            this.limit = limit;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            capture(new byte[]{(byte) b}, 0, 1);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+            capture(b, off, len);
+        }
+
+        private void capture(byte[] b, int off, int len) {
+            if (overflowed) {
+                return;
+            }
+            if (buffer.size() + len > limit) {
+                overflowed = true;
+                buffer.reset();
+                return;
+            }
+            buffer.write(b, off, len);
+        }
+    }
+}
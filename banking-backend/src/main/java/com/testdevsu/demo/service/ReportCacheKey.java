@@ -0,0 +1,7 @@
+package com.testdevsu.demo.service;
+
+import java.time.LocalDateTime;
+
+public record ReportCacheKey(Long clientId, LocalDateTime startDate, LocalDateTime endDate, String format,
+                             boolean compact) {
+}
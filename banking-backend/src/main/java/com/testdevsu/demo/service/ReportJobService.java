@@ -0,0 +1,10 @@
+package com.testdevsu.demo.service;
+
+import com.testdevsu.demo.dto.ReportJobDTO;
+import com.testdevsu.demo.dto.ReportJobRequestDTO;
+
+public interface ReportJobService {
+    ReportJobDTO submit(ReportJobRequestDTO request);
+    ReportJobDTO getJob(String id);
+    ReportArtifact getArtifact(String id);
+}
@@ -0,0 +1,236 @@
+package com.testdevsu.demo.service;
+
+import com.testdevsu.demo.dto.ReportJobDTO;
+import com.testdevsu.demo.dto.ReportJobRequestDTO;
+import com.testdevsu.demo.dto.ReportJobStatus;
+import com.testdevsu.demo.exception.ReportJobNotReadyException;
+import com.testdevsu.demo.exception.ReportJobRejectedException;
+import com.testdevsu.demo.exception.ResourceNotFoundException;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPOutputStream;
+
+// Genera reportes fuera de los hilos de Tomcat. El pool es fijo y la cola acotada, así los reportes
+// nunca ocupan más de `threads` conexiones y el resto del pool queda para los movimientos
+@Slf4j
+@Service
+public class ReportJobServiceImpl implements ReportJobService {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final ReportService reportService;
+    private final ThreadPoolExecutor executor;
+    private final Duration timeToLive;
+    private final Path directory;
+    private final Map<String, ReportJob> jobs = new ConcurrentHashMap<>();
+
+    public ReportJobServiceImpl(ReportService reportService,
+                                @Value("${banking.report-jobs.threads:2}") int threads,
+                                @Value("${banking.report-jobs.queue-capacity:20}") int queueCapacity,
+                                @Value("${banking.report-jobs.time-to-live:1h}") Duration timeToLive,
+                                @Value("${banking.report-jobs.directory:${java.io.tmpdir}/banking-report-jobs}") Path directory) {
+        this.reportService = reportService;
+        this.timeToLive = timeToLive;
+        this.directory = directory;
+
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                task -> {
+                    Thread thread = new Thread(task, "report-job-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+
+        try {
+            Files.createDirectories(directory);
+        } catch (IOException e) {
+            throw new UncheckedIOException("No se pudo crear el directorio de reportes " + directory, e);
+        }
+    }
+
+    @Override
+    public ReportJobDTO submit(ReportJobRequestDTO request) {
+        // Un formato inválido se rechaza al encolar; en el worker solo quedaría como trabajo fallido
+        reportService.resolveFormatter(request.getFormat(), request.isCompact());
+
+        ReportJob job = new ReportJob(UUID.randomUUID().toString(), request);
+        jobs.put(job.id, job);
+
+        try {
+            executor.execute(() -> run(job));
+        } catch (RejectedExecutionException e) {
+            jobs.remove(job.id);
+            throw new ReportJobRejectedException("Hay demasiados reportes en cola, intente nuevamente más tarde");
+        }
+        return job.toDTO();
+    }
+
+    @Override
+    public ReportJobDTO getJob(String id) {
+        return findJob(id).toDTO();
+    }
+
+    @Override
+    public ReportArtifact getArtifact(String id) {
+        ReportJob job = findJob(id);
+        if (job.status != ReportJobStatus.COMPLETADO) {
+            throw new ReportJobNotReadyException("El reporte " + id + " no está listo: " + job.status);
+        }
+        return job.artifact;
+    }
+
+    private ReportJob findJob(String id) {
+        ReportJob job = jobs.get(id);
+        if (job == null || job.isExpired(LocalDateTime.now())) {
+            throw new ResourceNotFoundException("Trabajo de reporte no encontrado con id: " + id);
+        }
+        return job;
+    }
+
+    private void run(ReportJob job) {
+        ReportJobRequestDTO request = job.request;
+        Path file = directory.resolve(job.id + (request.isGzip() ? ".gz" : ""));
+        job.start();
+
+        try {
+            StatementReport report = reportService.generateAccountStatement(request.getClientId(),
+                    request.getStartDate(), request.getEndDate(), request.getFormat(), request.isCompact());
+
+            try (OutputStream out = open(file, request.isGzip())) {
+                report.writeTo(out);
+            }
+
+            String fileName = report.fileName() + (request.isGzip() ? ".gz" : "");
+            MediaType contentType = request.isGzip() ? new MediaType("application", "gzip") : report.contentType();
+            job.complete(new ReportArtifact(file, Files.size(file), contentType, fileName), timeToLive);
+        } catch (Exception e) {
+            log.warn("Falló el trabajo de reporte {}", job.id, e);
+            delete(file);
+            job.fail(e.getMessage(), timeToLive);
+        }
+    }
+
+    private OutputStream open(Path file, boolean gzip) throws IOException {
+        OutputStream out = new BufferedOutputStream(Files.newOutputStream(file), BUFFER_SIZE);
+        return gzip ? new GZIPOutputStream(out, BUFFER_SIZE) : out;
+    }
+
+    // Los trabajos terminados se conservan hasta su vencimiento; los pendientes nunca vencen
+    @Scheduled(fixedDelayString = "${banking.report-jobs.cleanup-interval-ms:60000}")
+    public void purgeExpired() {
+        LocalDateTime now = LocalDateTime.now();
+        jobs.values().removeIf(job -> {
+            if (!job.isExpired(now)) {
+                return false;
+            }
+            if (job.artifact != null) {
+                delete(job.artifact.path());
+            }
+            return true;
+        });
+    }
+
+    // Los trabajos viven en memoria: al detenerse la aplicación sus archivos ya no pueden pedirse
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+        jobs.values().forEach(job -> {
+            if (job.artifact != null) {
+                delete(job.artifact.path());
+            }
+        });
+        jobs.clear();
+    }
+
+    private void delete(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.warn("No se pudo eliminar el archivo de reporte {}", file, e);
+        }
+    }
+
+    private static final class ReportJob {
+        private final String id;
+        private final ReportJobRequestDTO request;
+        private final LocalDateTime createdAt = LocalDateTime.now();
+        private volatile ReportJobStatus status = ReportJobStatus.PENDIENTE;
+        private volatile LocalDateTime startedAt;
+        private volatile LocalDateTime completedAt;
+        private volatile LocalDateTime expiresAt;
+        private volatile ReportArtifact artifact;
+        private volatile String error;
+
+        private ReportJob(String id, ReportJobRequestDTO request) {
+            this.id = id;
+            this.request = request;
+        }
+
+        private void start() {
+            startedAt = LocalDateTime.now();
+            status = ReportJobStatus.EN_PROCESO;
+        }
+
+        // El estado se publica al final: quien lo vea COMPLETADO ya ve el archivo
+        private void complete(ReportArtifact artifact, Duration timeToLive) {
+            this.artifact = artifact;
+            finish(ReportJobStatus.COMPLETADO, timeToLive);
+        }
+
+        private void fail(String error, Duration timeToLive) {
+            this.error = error;
+            finish(ReportJobStatus.FALLIDO, timeToLive);
+        }
+
+        private void finish(ReportJobStatus finalStatus, Duration timeToLive) {
+            completedAt = LocalDateTime.now();
+            expiresAt = completedAt.plus(timeToLive);
+            status = finalStatus;
+        }
+
+        private boolean isExpired(LocalDateTime now) {
+            LocalDateTime expiry = expiresAt;
+            return expiry != null && !now.isBefore(expiry);
+        }
+
+        private ReportJobDTO toDTO() {
+            ReportArtifact done = artifact;
+            return new ReportJobDTO(
+                    id,
+                    status,
+                    request.getClientId(),
+                    request.getFormat(),
+                    request.isGzip(),
+                    createdAt,
+                    startedAt,
+                    completedAt,
+                    expiresAt,
+                    done != null ? done.fileName() : null,
+                    done != null ? done.size() : null,
+                    error
+            );
+        }
+    }
+}
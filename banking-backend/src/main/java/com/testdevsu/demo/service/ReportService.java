@@ -1,8 +1,12 @@
 package com.testdevsu.demo.service;
 
+import com.testdevsu.demo.config.ReportFormatter;
+import com.testdevsu.demo.dto.ClientReportDTO;
 import java.time.LocalDateTime;
 
 public interface ReportService {
-    String generateAccountStatement(Long clientId, LocalDateTime startDate, 
-                                   LocalDateTime endDate, String format);
+    StatementReport generateAccountStatement(Long clientId, LocalDateTime startDate,
+                                             LocalDateTime endDate, String format, boolean compact);
+    ClientReportDTO generateAccountSummary(Long clientId, LocalDateTime startDate, LocalDateTime endDate);
+    ReportFormatter resolveFormatter(String format, boolean compact);
 }
@@ -1,115 +1,351 @@
 package com.testdevsu.demo.service;
 
 import com.testdevsu.demo.config.ReportFormatter;
+import com.testdevsu.demo.config.StreamingReportFormatter;
 import com.testdevsu.demo.dto.AccountReportDTO;
 import com.testdevsu.demo.dto.ClientReportDTO;
 import com.testdevsu.demo.dto.MovementReportDTO;
 import com.testdevsu.demo.exception.ResourceNotFoundException;
+import com.testdevsu.demo.exception.UnsupportedReportFormatException;
 import com.testdevsu.demo.model.Account;
 import com.testdevsu.demo.model.Client;
-import com.testdevsu.demo.model.Movement;
+import com.testdevsu.demo.model.Money;
 import com.testdevsu.demo.repository.AccountRepository;
 import com.testdevsu.demo.repository.ClientRepository;
 import com.testdevsu.demo.repository.MovementRepository;
-import lombok.RequiredArgsConstructor;
+import com.testdevsu.demo.repository.ReportWatermark;
+import com.testdevsu.demo.service.BalanceSnapshots.PeriodTotals;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 @Service
-@RequiredArgsConstructor
 public class ReportServiceImpl implements ReportService {
 
     private final ClientRepository clientRepository;
     private final AccountRepository accountRepository;
     private final MovementRepository movementRepository;
+    private final BalanceChain balanceChain;
+    private final BalanceSnapshots balanceSnapshots;
+    private final MovementArchive movementArchive;
+    private final StatementRowReader statementRowReader;
+    private final ReportCache reportCache;
+    private final ReplicaConsistency replicaConsistency;
     private final Map<String, ReportFormatter> formatters;
+    private final TransactionTemplate readOnlyTransaction;
+    private final boolean parallelAccounts;
+    private final int parallelMinAccounts;
+    // Compartido por todos los reportes: es el total de conexiones que las cuentas en paralelo toman del pool
+    private final Semaphore parallelConnections;
 
-    @Transactional(readOnly = true)
-    public String generateAccountStatement(Long clientId, LocalDateTime startDate, 
-                                          LocalDateTime endDate, String format) {
+    public ReportServiceImpl(ClientRepository clientRepository,
+                             AccountRepository accountRepository,
+                             MovementRepository movementRepository,
+                             BalanceChain balanceChain,
+                             BalanceSnapshots balanceSnapshots,
+                             MovementArchive movementArchive,
+                             StatementRowReader statementRowReader,
+                             ReportCache reportCache,
+                             ReplicaConsistency replicaConsistency,
+                             Map<String, ReportFormatter> formatters,
+                             PlatformTransactionManager transactionManager,
+                             @Value("${banking.reports.parallel-accounts:false}") boolean parallelAccounts,
+                             @Value("${banking.reports.parallel-min-accounts:8}") int parallelMinAccounts,
+                             @Value("${banking.reports.max-parallel-connections:4}") int maxParallelConnections) {
+        this.clientRepository = clientRepository;
+        this.accountRepository = accountRepository;
+        this.movementRepository = movementRepository;
+        this.balanceChain = balanceChain;
+        this.balanceSnapshots = balanceSnapshots;
+        this.movementArchive = movementArchive;
+        this.statementRowReader = statementRowReader;
+        this.reportCache = reportCache;
+        this.replicaConsistency = replicaConsistency;
+        this.formatters = formatters;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.parallelAccounts = parallelAccounts;
+        this.parallelMinAccounts = Math.max(parallelMinAccounts, 2);
+        this.parallelConnections = new Semaphore(maxParallelConnections);
+    }
+
+    // Sin transacción propia: cada lectura abre la suya y suelta la conexión al terminar, así ningún reporte
+    // retiene una conexión mientras espera a las de sus cuentas en paralelo
+    public StatementReport generateAccountStatement(Long clientId, LocalDateTime startDate,
+                                                    LocalDateTime endDate, String format, boolean compact) {
+        // El formato se valida antes de cargar datos, mientras aún puede responderse con un error
+        ReportFormatter formatter = resolveFormatter(format, compact);
 
-        Client client = clientRepository.findById(clientId)
+        // La marca de agua se lee antes que los datos: si entra un movimiento en medio, lo guardado es
+        // más nuevo que su marca y la siguiente consulta simplemente lo regenera
+        ReportWatermark watermark = readOnly(clientId, () -> reportCache.watermark(clientId))
                 .orElseThrow(() -> new ResourceNotFoundException("Cliente no encontrado con id: " + clientId));
+        ReportCacheKey key = new ReportCacheKey(clientId, startDate, endDate, format.toLowerCase(), compact);
+        Optional<StatementReport> cached = reportCache.get(key, watermark);
+        if (cached.isPresent()) {
+            return cached.get();
+        }
 
-        List<Account> accounts = accountRepository.findByClientId(clientId);
+        StatementReport report = formatter instanceof StreamingReportFormatter streaming
+                ? streamingStatement(clientId, startDate, endDate, streaming)
+                : new StatementReport(buildReport(clientId, startDate, endDate, true), formatter);
+        return reportCache.caching(key, watermark, report);
+    }
 
-        if (accounts.isEmpty()) {
-            throw new ResourceNotFoundException("No se encontraron cuentas para el cliente: " + client.getName());
+    // Solo se validan cliente y cuentas; los movimientos se leen del cursor al escribir la respuesta.
+    // Las cabeceras van en orden de id, el mismo en que el cursor entrega las filas
+    private StatementReport streamingStatement(Long clientId, LocalDateTime startDate, LocalDateTime endDate,
+                                               StreamingReportFormatter formatter) {
+        ClientAccounts loaded = loadClientAccounts(clientId);
+        Client client = loaded.client();
+        List<Account> accounts = loaded.accounts().stream()
+                .sorted(Comparator.comparing(Account::getId))
+                .toList();
+
+        List<AccountReportDTO> summaries = formatter.needsAccountTotals()
+                ? buildAccountReports(clientId, accounts, startDate, endDate, false)
+                : null;
+        Map<Long, AccountReportDTO> headers = new LinkedHashMap<>();
+        for (int i = 0; i < accounts.size(); i++) {
+            Account account = accounts.get(i);
+            headers.put(account.getId(), summaries != null ? summaries.get(i) : new AccountReportDTO(
+                    account.getAccountNumber(),
+                    account.getAccountType(),
+                    Money.toAmount(account.getInitialBalance()),
+                    null,
+                    account.getStatus(),
+                    null,
+                    null,
+                    null,
+                    null
+            ));
         }
 
-        List<AccountReportDTO> accountReports = accounts.stream()
-                .map(account -> buildAccountReport(account, startDate, endDate))
-                .collect(Collectors.toList());
+        ClientReportDTO header = new ClientReportDTO(
+                client.getName(),
+                client.getClientId(),
+                startDate.format(DateTimeFormatter.ISO_LOCAL_DATE),
+                endDate.format(DateTimeFormatter.ISO_LOCAL_DATE),
+                new ArrayList<>(headers.values())
+        );
+        return new StatementReport(header, formatter, statementRowReader.rows(clientId, headers, startDate, endDate));
+    }
 
-        ClientReportDTO reportData = new ClientReportDTO(
+    // Solo totales y saldos: responde sin materializar ningún movimiento
+    public ClientReportDTO generateAccountSummary(Long clientId, LocalDateTime startDate, LocalDateTime endDate) {
+        return buildReport(clientId, startDate, endDate, false);
+    }
+
+    private ClientReportDTO buildReport(Long clientId, LocalDateTime startDate, LocalDateTime endDate,
+                                        boolean includeMovements) {
+        ClientAccounts loaded = loadClientAccounts(clientId);
+        Client client = loaded.client();
+
+        List<AccountReportDTO> accountReports = buildAccountReports(clientId, loaded.accounts(), startDate, endDate,
+                includeMovements);
+
+        return new ClientReportDTO(
                 client.getName(),
                 client.getClientId(),
                 startDate.format(DateTimeFormatter.ISO_LOCAL_DATE),
                 endDate.format(DateTimeFormatter.ISO_LOCAL_DATE),
                 accountReports
         );
+    }
+
+    // Por defecto todas las cuentas se leen juntas en una transacción. Con muchas cuentas el modo paralelo hace que
+    // la latencia sea la de la cuenta más lenta y no la suma, a cambio de una conexión y una transacción por cuenta
+    // y de que cada cuenta se lea en su propia instantánea
+    private List<AccountReportDTO> buildAccountReports(Long clientId, List<Account> accounts, LocalDateTime startDate,
+                                                       LocalDateTime endDate, boolean includeMovements) {
+        return parallelAccounts && accounts.size() >= parallelMinAccounts
+                ? buildAccountReportsInParallel(clientId, accounts, startDate, endDate, includeMovements)
+                : readOnly(clientId, () -> buildAccountReports(accounts, startDate, endDate, includeMovements));
+    }
+
+    // Todas las cuentas en una sola transacción: una consulta de totales y una de movimientos para todas
+    private List<AccountReportDTO> buildAccountReports(List<Account> accounts, LocalDateTime startDate,
+                                                       LocalDateTime endDate, boolean includeMovements) {
+        List<Long> accountIds = accounts.stream().map(Account::getId).collect(Collectors.toList());
+
+        // Créditos y débitos de los días completos salen de los resúmenes diarios y solo los días parciales de movement
+        Map<Long, PeriodTotals> totals = balanceSnapshots.periodTotals(accountIds, startDate, endDate);
+
+        Map<Long, List<MovementReportDTO>> movementsByAccount = includeMovements
+                ? loadMovements(accountIds, startDate, endDate)
+                : Map.of();
+
+        List<AccountReportDTO> accountReports = new ArrayList<>(accounts.size());
+        for (Account account : accounts) {
+            // Búsqueda por índice del último movimiento anterior al periodo
+            long openingBalance = balanceChain.balanceBefore(account, startDate, 0L);
+            accountReports.add(toAccountReport(account, totals.get(account.getId()), openingBalance,
+                    includeMovements ? movementsByAccount.getOrDefault(account.getId(), new ArrayList<>()) : null));
+        }
+        return accountReports;
+    }
+
+    // Una tarea por cuenta en hilos virtuales, cada una con su propia transacción de solo lectura y su conexión.
+    // El llamador no tiene conexión mientras espera y cada tarea toma a lo sumo una, así que con el semáforo
+    // compartido por debajo del pool los reportes no pueden quedarse esperando conexiones entre ellos
+    private List<AccountReportDTO> buildAccountReportsInParallel(Long clientId, List<Account> accounts,
+                                                                 LocalDateTime startDate, LocalDateTime endDate,
+                                                                 boolean includeMovements) {
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<AccountReportDTO>> futures = new ArrayList<>(accounts.size());
+            for (Account account : accounts) {
+                futures.add(executor.submit(() -> {
+                    parallelConnections.acquire();
+                    try {
+                        return readOnly(clientId, () -> buildAccountReport(account, startDate, endDate, includeMovements));
+                    } finally {
+                        parallelConnections.release();
+                    }
+                }));
+            }
 
-        ReportFormatter formatter = getFormatter(format);
-        return formatter.format(reportData);
-    }
-
-    private AccountReportDTO buildAccountReport(Account account, LocalDateTime startDate, LocalDateTime endDate) {
-        List<Movement> movements = movementRepository
-                .findByAccountIdAndDateBetween(account.getId(), startDate, endDate);
-
-        List<MovementReportDTO> movementReports = movements.stream()
-                .map(m -> new MovementReportDTO(
-                        m.getDate(),
-                        m.getMovementType(),
-                        m.getValue(),
-                        m.getBalance()
-                ))
-                .collect(Collectors.toList());
-
-        // Calcular totales
-        Double totalCredits = movements.stream()
-                .filter(m -> m.getValue() > 0)
-                .map(Movement::getValue)
-                .reduce(0.0, Double::sum);
-
-        Double totalDebits = movements.stream()
-                .filter(m -> m.getValue() < 0)
-                .map(Movement::getValue)
-                .map(Math::abs)
-                .reduce(0.0, Double::sum);
-
-        // Obtener saldo disponible
-        Double availableBalance = movements.stream()
-                .reduce((first, second) -> second)
-                .map(Movement::getBalance)
-                .orElse(account.getInitialBalance());
+            List<AccountReportDTO> accountReports = new ArrayList<>(accounts.size());
+            try {
+                for (Future<AccountReportDTO> future : futures) {
+                    accountReports.add(future.get());
+                }
+            } catch (ExecutionException e) {
+                // La primera cuenta que falla cancela las demás y su error es el del reporte
+                executor.shutdownNow();
+                if (e.getCause() instanceof RuntimeException cause) {
+                    throw cause;
+                }
+                throw new IllegalStateException("Error al generar el reporte de la cuenta", e.getCause());
+            } catch (InterruptedException e) {
+                executor.shutdownNow();
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Generación del reporte interrumpida", e);
+            }
+            return accountReports;
+        }
+    }
+
+    // La cuenta llega desligada de otra transacción; solo se leen sus columnas ya cargadas
+    private AccountReportDTO buildAccountReport(Account account, LocalDateTime startDate, LocalDateTime endDate,
+                                                boolean includeMovements) {
+        List<Long> accountIds = List.of(account.getId());
+        PeriodTotals totals = balanceSnapshots.periodTotals(accountIds, startDate, endDate).get(account.getId());
+        List<MovementReportDTO> movements = includeMovements
+                ? loadMovements(accountIds, startDate, endDate).getOrDefault(account.getId(), new ArrayList<>())
+                : null;
+        long openingBalance = balanceChain.balanceBefore(account, startDate, 0L);
+        return toAccountReport(account, totals, openingBalance, movements);
+    }
+
+    // El cierre se deriva de la apertura y de los totales del periodo
+    private AccountReportDTO toAccountReport(Account account, PeriodTotals totals, long openingBalance,
+                                             List<MovementReportDTO> movements) {
+        long credits = totals != null ? totals.credits() : 0;
+        long debits = totals != null ? totals.debits() : 0;
+        long closingBalance = openingBalance + credits - debits;
 
         return new AccountReportDTO(
                 account.getAccountNumber(),
                 account.getAccountType(),
-                account.getInitialBalance(),
+                Money.toAmount(account.getInitialBalance()),
+                Money.toAmount(openingBalance),
                 account.getStatus(),
-                totalCredits,
-                totalDebits,
-                availableBalance,
-                movementReports
+                Money.toAmount(credits),
+                Money.toAmount(debits),
+                Money.toAmount(closingBalance),
+                movements
         );
     }
 
-    private ReportFormatter getFormatter(String format) {
-        String formatterKey = format.toLowerCase() + "ReportFormatter";
-        ReportFormatter formatter = formatters.get(formatterKey);
-        
+    // Una sola consulta para todas las cuentas; las filas llegan agrupadas por cuenta y se reparten en una pasada
+    // Las filas vivas y las del archivo frío llegan en el mismo orden (cuenta, fecha, id) y se intercalan;
+    // si el periodo no llega a los meses archivados el archivo no se toca
+    private Map<Long, List<MovementReportDTO>> loadMovements(List<Long> accountIds, LocalDateTime startDate,
+                                                             LocalDateTime endDate) {
+        Map<Long, List<MovementReportDTO>> movementsByAccount = new HashMap<>();
+
+        // Un mismo corte para movement y el archivo: ningún mes se lee de los dos
+        LocalDateTime liveFrom = movementArchive.liveFrom(startDate);
+        Iterator<MovementRecord> live = movementRepository.findStatementMovements(accountIds, liveFrom, endDate)
+                .stream()
+                .map(MovementRecord::of)
+                .iterator();
+        Iterator<MovementRecord> movements = MovementRecord.merge(
+                movementArchive.movements(accountIds, startDate, MovementArchive.archivedUntil(endDate, liveFrom)), live);
+
+        Long currentAccountId = null;
+        List<MovementReportDTO> current = null;
+        while (movements.hasNext()) {
+            MovementRecord m = movements.next();
+            if (!Long.valueOf(m.accountId()).equals(currentAccountId)) {
+                currentAccountId = m.accountId();
+                current = new ArrayList<>();
+                movementsByAccount.put(currentAccountId, current);
+            }
+            current.add(m.toReportDTO());
+        }
+        return movementsByAccount;
+    }
+
+    // Si el cliente acaba de registrar un movimiento, la lectura sale de la principal hasta que la réplica lo tenga
+    private <T> T readOnly(Long clientId, Supplier<T> read) {
+        return readOnlyTransaction.execute(status -> {
+            replicaConsistency.readingClient(clientId);
+            return read.get();
+        });
+    }
+
+    // Transacción corta: las entidades salen desligadas y solo se leen sus columnas ya cargadas
+    private ClientAccounts loadClientAccounts(Long clientId) {
+        return readOnly(clientId, () -> {
+            Client client = findClient(clientId);
+            return new ClientAccounts(client, findAccounts(client));
+        });
+    }
+
+    private Client findClient(Long clientId) {
+        return clientRepository.findById(clientId)
+                .orElseThrow(() -> new ResourceNotFoundException("Cliente no encontrado con id: " + clientId));
+    }
+
+    private List<Account> findAccounts(Client client) {
+        List<Account> accounts = accountRepository.findByClientId(client.getId());
+
+        if (accounts.isEmpty()) {
+            throw new ResourceNotFoundException("No se encontraron cuentas para el cliente: " + client.getName());
+        }
+        return accounts;
+    }
+
+    public ReportFormatter resolveFormatter(String format, boolean compact) {
+        ReportFormatter formatter = format != null ? formatters.get(format.toLowerCase() + "ReportFormatter") : null;
+
         if (formatter == null) {
-            throw new IllegalArgumentException("Formato de reporte no soportado: " + format);
+            throw new UnsupportedReportFormatException("Formato de reporte no soportado: " + format);
         }
-        
-        return formatter;
+
+        return compact ? formatter.compact() : formatter;
+    }
+
+    private record ClientAccounts(Client client, List<Account> accounts) {
     }
 }
@@ -0,0 +1,40 @@
+package com.testdevsu.demo.service;
+
+import com.testdevsu.demo.config.ReportFormatter;
+import com.testdevsu.demo.config.StreamingReportFormatter;
+import com.testdevsu.demo.dto.ClientReportDTO;
+import org.springframework.http.MediaType;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+// Cliente validado y formato ya resuelto: escribir no requiere la transacción ni puede fallar por formato.
+// El cuerpo puede venir de datos ya cargados, de un cursor por filas o de la caché de reportes
+public record StatementReport(String fileName, MediaType contentType, Body body) {
+
+    public StatementReport(ClientReportDTO data, ReportFormatter formatter) {
+        this(data, formatter, null);
+    }
+
+    // En los formatos por filas data solo trae las cabeceras y rows abre su propio cursor de solo lectura al escribir
+    public StatementReport(ClientReportDTO data, ReportFormatter formatter, StatementRows rows) {
+        this("estado-cuenta-" + data.getClientId() + "." + formatter.getFileExtension(),
+                formatter.getContentType(),
+                out -> {
+                    if (rows != null && formatter instanceof StreamingReportFormatter streaming) {
+                        rows.read(stream -> streaming.write(data, stream, out));
+                    } else {
+                        formatter.write(data, out);
+                    }
+                });
+    }
+
+    public void writeTo(OutputStream out) throws IOException {
+        body.writeTo(out);
+    }
+
+    @FunctionalInterface
+    public interface Body {
+        void writeTo(OutputStream out) throws IOException;
+    }
+}
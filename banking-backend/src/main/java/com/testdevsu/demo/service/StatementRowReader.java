@@ -0,0 +1,78 @@
+package com.testdevsu.demo.service;
+
+import com.testdevsu.demo.dto.AccountReportDTO;
+import com.testdevsu.demo.dto.StatementRowDTO;
+import com.testdevsu.demo.model.Movement;
+import com.testdevsu.demo.repository.MovementRepository;
+import jakarta.persistence.EntityManager;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+// Recorre los movimientos del periodo con un cursor de solo lectura mientras se escribe la respuesta, intercalando
+// los del archivo frío si el periodo llega a ellos. Cada movimiento se desliga del contexto de persistencia
+// al convertirlo, así la memoria no crece con las filas
+@Component
+public class StatementRowReader {
+
+    private final MovementRepository movementRepository;
+    private final EntityManager entityManager;
+    private final MovementArchive movementArchive;
+    private final ReplicaConsistency replicaConsistency;
+    private final TransactionTemplate readOnlyTransaction;
+
+    public StatementRowReader(MovementRepository movementRepository, EntityManager entityManager,
+                              MovementArchive movementArchive, ReplicaConsistency replicaConsistency,
+                              PlatformTransactionManager transactionManager) {
+        this.movementRepository = movementRepository;
+        this.entityManager = entityManager;
+        this.movementArchive = movementArchive;
+        this.replicaConsistency = replicaConsistency;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    // accounts: cabeceras por id de cuenta, ya cargadas en la transacción que validó el reporte
+    public StatementRows rows(Long clientId, Map<Long, AccountReportDTO> accounts, LocalDateTime startDate,
+                              LocalDateTime endDate) {
+        return reader -> {
+            try {
+                readOnlyTransaction.executeWithoutResult(status -> {
+                    replicaConsistency.readingClient(clientId);
+                    // Un mismo corte para movement y el archivo: ningún mes se lee de los dos
+                    LocalDateTime liveFrom = movementArchive.liveFrom(startDate);
+                    try (Stream<Movement> movements = movementRepository.streamStatementMovements(
+                            accounts.keySet(), liveFrom, endDate)) {
+                        Iterator<MovementRecord> live = movements.map(this::toRecord).iterator();
+                        Iterator<MovementRecord> merged = MovementRecord.merge(movementArchive.movements(
+                                accounts.keySet(), startDate, MovementArchive.archivedUntil(endDate, liveFrom)), live);
+                        reader.read(StreamSupport.stream(
+                                Spliterators.spliteratorUnknownSize(merged, Spliterator.ORDERED), false)
+                                .map(record -> new StatementRowDTO(accounts.get(record.accountId()),
+                                        record.toReportDTO())));
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+        };
+    }
+
+    private MovementRecord toRecord(Movement movement) {
+        MovementRecord record = MovementRecord.of(movement);
+        entityManager.detach(movement);
+        return record;
+    }
+}
@@ -0,0 +1,18 @@
+package com.testdevsu.demo.service;
+
+import com.testdevsu.demo.dto.StatementRowDTO;
+
+import java.io.IOException;
+import java.util.stream.Stream;
+
+// Filas de un estado de cuenta que se leen bajo demanda; el cursor solo está abierto mientras dura la lectura
+@FunctionalInterface
+public interface StatementRows {
+
+    void read(Reader reader) throws IOException;
+
+    @FunctionalInterface
+    interface Reader {
+        void read(Stream<StatementRowDTO> rows) throws IOException;
+    }
+}
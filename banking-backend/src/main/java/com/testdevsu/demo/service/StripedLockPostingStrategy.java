@@ -0,0 +1,97 @@
+package com.testdevsu.demo.service;
+
+import com.testdevsu.demo.exception.ConcurrentPostingException;
+import com.testdevsu.demo.model.Account;
+import com.testdevsu.demo.repository.AccountRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+// Candados en memoria repartidos por id de cuenta; solo protege dentro de una misma instancia
+@Component
+@ConditionalOnProperty(name = "banking.posting.concurrency-mode", havingValue = "striped")
+public class StripedLockPostingStrategy implements PostingConcurrencyStrategy {
+
+    private final AccountRepository accountRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ReentrantLock[] stripes;
+    private final long lockTimeoutMs;
+
+    public StripedLockPostingStrategy(AccountRepository accountRepository,
+                                      TransactionTemplate transactionTemplate,
+                                      @Value("${banking.posting.lock-stripes:64}") int stripeCount,
+                                      @Value("${banking.posting.lock-timeout-ms:5000}") long lockTimeoutMs) {
+        this.accountRepository = accountRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.lockTimeoutMs = lockTimeoutMs;
+        this.stripes = new ReentrantLock[stripeCount];
+        for (int i = 0; i < stripeCount; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+    }
+
+    @Override
+    public <T> T execute(Long accountId, Supplier<T> posting) {
+        return execute(List.of(accountId), posting);
+    }
+
+    // Dos cuentas pueden caer en el mismo candado; se toma una sola vez y siempre en orden de índice
+    @Override
+    public <T> T execute(Collection<Long> accountIds, Supplier<T> posting) {
+        List<Integer> indexes = accountIds.stream()
+                .map(accountId -> Math.floorMod(Long.hashCode(accountId), stripes.length))
+                .distinct()
+                .sorted()
+                .toList();
+
+        List<ReentrantLock> held = new ArrayList<>(indexes.size());
+        try {
+            for (int index : indexes) {
+                ReentrantLock lock = stripes[index];
+                try {
+                    if (!lock.tryLock(lockTimeoutMs, TimeUnit.MILLISECONDS)) {
+                        throw new ConcurrentPostingException("La cuenta " + describe(accountIds)
+                                + " está siendo modificada por otra operación, intente nuevamente");
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new ConcurrentPostingException("Operación interrumpida sobre la cuenta " + describe(accountIds));
+                }
+                held.add(lock);
+            }
+
+            // Los candados se liberan después del commit para que la siguiente operación lea el saldo confirmado
+            return transactionTemplate.execute(status -> posting.get());
+        } finally {
+            for (int i = held.size() - 1; i >= 0; i--) {
+                held.get(i).unlock();
+            }
+        }
+    }
+
+    @Override
+    public Optional<Account> loadAccount(Long accountId) {
+        return accountRepository.findById(accountId);
+    }
+
+    @Override
+    public List<Account> loadAccounts(Collection<Long> accountIds) {
+        return accountIds.stream().distinct().sorted()
+                .map(accountRepository::findById)
+                .flatMap(Optional::stream)
+                .toList();
+    }
+
+    private static String describe(Collection<Long> accountIds) {
+        return accountIds.stream().distinct().sorted().map(String::valueOf).collect(Collectors.joining(", "));
+    }
+}
@@ -0,0 +1,94 @@
+package com.testdevsu.demo.config;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.testdevsu.demo.dto.AccountReportDTO;
+import com.testdevsu.demo.dto.ClientReportDTO;
+import com.testdevsu.demo.dto.MovementReportDTO;
+import com.testdevsu.demo.dto.StatementRowDTO;
+import com.testdevsu.demo.model.MovementType;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+class JsonReportFormatterTest {
+
+    private static final LocalDateTime DATE = LocalDateTime.of(2025, 3, 1, 10, 0);
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final JsonReportFormatter formatter = new JsonReportFormatter(objectMapper);
+
+    @Test
+    void write_WithRowStream_ShouldWriteOneObjectPerRow() throws IOException {
+        AccountReportDTO account = header();
+        ClientReportDTO report = new ClientReportDTO("Jose Lema", "jose-lema", "2025-03-01", "2025-03-31", List.of(account));
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        formatter.write(report, Stream.of(
+                new StatementRowDTO(account, movement(0, MovementType.DEPOSITO, "25.00", "1025.00")),
+                new StatementRowDTO(account, movement(1, MovementType.RETIRO, "-5.50", "1019.50"))), out);
+
+        JsonNode rows = objectMapper.readTree(out.toByteArray());
+        assertEquals(2, rows.size());
+        assertEquals("2025-03-01T10:00", rows.get(0).get("date").asText());
+        assertEquals("Jose Lema", rows.get(0).get("client").asText());
+        assertEquals("478758", rows.get(0).get("accountNumber").asText());
+        assertEquals("-5.50", rows.get(1).get("movement").asText());
+        assertEquals(0, new BigDecimal("1019.50").compareTo(rows.get(1).get("availableBalance").decimalValue()));
+    }
+
+    @Test
+    void write_WithLoadedReport_ShouldMatchStreamedRows() throws IOException {
+        MovementReportDTO movement = movement(0, MovementType.DEPOSITO, "25.00", "1025.00");
+        AccountReportDTO loaded = new AccountReportDTO("478758", "Ahorros", new BigDecimal("1000.00"),
+                new BigDecimal("1000.00"), true, new BigDecimal("25.00"), BigDecimal.ZERO, new BigDecimal("1025.00"),
+                List.of(movement));
+        ClientReportDTO report = new ClientReportDTO("Jose Lema", "jose-lema", "2025-03-01", "2025-03-31", List.of(loaded));
+
+        ByteArrayOutputStream fromReport = new ByteArrayOutputStream();
+        formatter.write(report, fromReport);
+        ByteArrayOutputStream fromRows = new ByteArrayOutputStream();
+        formatter.write(report, Stream.of(new StatementRowDTO(header(), movement)), fromRows);
+
+        assertEquals(objectMapper.readTree(fromRows.toByteArray()), objectMapper.readTree(fromReport.toByteArray()));
+    }
+
+    @Test
+    void write_Compact_ShouldWriteSingleLine() throws IOException {
+        AccountReportDTO account = header();
+        ClientReportDTO report = new ClientReportDTO("Jose Lema", "jose-lema", "2025-03-01", "2025-03-31", List.of(account));
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ((StreamingReportFormatter) formatter.compact()).write(report, Stream.of(
+                new StatementRowDTO(account, movement(0, MovementType.DEPOSITO, "25.00", "1025.00"))), out);
+
+        assertFalse(out.toString().contains("\n"));
+        assertEquals(1, objectMapper.readTree(out.toByteArray()).size());
+    }
+
+    @Test
+    void write_WithoutRows_ShouldWriteEmptyArray() throws IOException {
+        ClientReportDTO report = new ClientReportDTO("Jose Lema", "jose-lema", "2025-03-01", "2025-03-31", List.of(header()));
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ((StreamingReportFormatter) formatter.compact()).write(report, Stream.empty(), out);
+
+        assertEquals("[]", out.toString());
+    }
+
+    private static AccountReportDTO header() {
+        return new AccountReportDTO("478758", "Ahorros", new BigDecimal("1000.00"), null, true, null, null, null, null);
+    }
+
+    private static MovementReportDTO movement(int minutes, MovementType type, String value, String balance) {
+        return new MovementReportDTO(DATE.plusMinutes(minutes), type, new BigDecimal(value), new BigDecimal(balance));
+    }
+}
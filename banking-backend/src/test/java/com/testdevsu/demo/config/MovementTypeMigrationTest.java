@@ -0,0 +1,44 @@
+package com.testdevsu.demo.config;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.Mockito.*;
+
+// La migración solo toca movement mientras la columna del tipo siga siendo la ancha de antes
+class MovementTypeMigrationTest {
+
+    private JdbcTemplate jdbcTemplate;
+    private MovementTypeMigration migration;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = mock(JdbcTemplate.class);
+        migration = new MovementTypeMigration(jdbcTemplate);
+    }
+
+    @Test
+    void run_WithColumnAlreadyNarrowed_ShouldNotTouchMovement() {
+        when(jdbcTemplate.execute(any(ConnectionCallback.class))).thenReturn(1);
+
+        migration.run(null);
+
+        verify(jdbcTemplate, never()).update(anyString());
+        verify(jdbcTemplate, never()).execute(anyString());
+    }
+
+    @Test
+    void run_WithLegacyColumn_ShouldNormalizeAndNarrow() {
+        when(jdbcTemplate.execute(any(ConnectionCallback.class))).thenReturn(255);
+
+        migration.run(null);
+
+        verify(jdbcTemplate).update(contains("UPDATE movement SET movement_type"));
+        verify(jdbcTemplate).execute(contains("MODIFY COLUMN movement_type VARCHAR(1)"));
+    }
+}
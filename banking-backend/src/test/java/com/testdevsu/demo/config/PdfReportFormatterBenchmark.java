@@ -0,0 +1,102 @@
+package com.testdevsu.demo.config;
+
+import com.testdevsu.demo.dto.AccountReportDTO;
+import com.testdevsu.demo.dto.ClientReportDTO;
+import com.testdevsu.demo.dto.MovementReportDTO;
+import com.testdevsu.demo.dto.StatementRowDTO;
+import com.testdevsu.demo.model.MovementType;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Test;
+
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Se ejecuta con: mvn test -Pbenchmark (heap limitado a 128 MB).
+// Los movimientos se generan al vuelo, como los entrega el cursor, para que solo se mida la memoria retenida
+// por el renderizado.
+@Slf4j
+class PdfReportFormatterBenchmark {
+
+    // Muestras de memoria por renderizado, repartidas a lo largo de las filas
+    private static final int SAMPLES = 10;
+
+    private final PdfReportFormatter formatter = new PdfReportFormatter();
+    private final MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+
+    @Test
+    void rendersLargeStatementInConstantMemory() throws Exception {
+        // Calentamiento para que la carga de clases y fuentes no cuente en la medición
+        render(1_000, false);
+
+        Result small = render(10_000, true);
+        Result large = render(100_000, true);
+        Result timed = render(100_000, false);
+
+        log.info("PDF 10k movimientos: {} bytes, heap máx. tras GC {} KB", small.bytes, small.maxRetained / 1024);
+        log.info("PDF 100k movimientos: {} bytes, heap máx. tras GC {} KB", large.bytes, large.maxRetained / 1024);
+        log.info("PDF 100k movimientos: {} ms ({} filas/s)", timed.millis, 100_000L * 1000 / Math.max(1, timed.millis));
+
+        assertTrue(large.bytes > small.bytes * 5, "El PDF grande debe contener todas las filas");
+        // Diez veces más filas no debe ocupar más heap que un margen fijo sobre el caso pequeño
+        assertTrue(large.maxRetained < small.maxRetained + 8L * 1024 * 1024,
+                "La memoria retenida crece con el número de movimientos");
+    }
+
+    private Result render(int movements, boolean sampleMemory) throws Exception {
+        // Pico de heap ocupado tras GC durante el renderizado; si el documento retuviera filas crecería con ellas
+        long[] maxRetained = {0};
+        int sampleEvery = Math.max(1, movements / SAMPLES);
+
+        // Cabecera con totales y sin lista de movimientos, como la arma el servicio para el cursor
+        AccountReportDTO account = new AccountReportDTO("478758", "Ahorros", new BigDecimal("1000.00"),
+                new BigDecimal("1000.00"), true, BigDecimal.ZERO, BigDecimal.ZERO, new BigDecimal("1000.00"), null);
+        ClientReportDTO report = new ClientReportDTO("Jose Lema", "jose-lema", "2025-01-01", "2025-12-31",
+                List.of(account));
+
+        LocalDateTime start = LocalDateTime.of(2025, 1, 1, 8, 0);
+        Stream<StatementRowDTO> rows = IntStream.range(0, movements).mapToObj(index -> {
+            if (sampleMemory && index > 0 && index % sampleEvery == 0) {
+                System.gc();
+                maxRetained[0] = Math.max(maxRetained[0], memory.getHeapMemoryUsage().getUsed());
+            }
+            boolean deposit = index % 3 != 0;
+            return new StatementRowDTO(account, new MovementReportDTO(
+                    start.plusMinutes(index),
+                    deposit ? MovementType.DEPOSITO : MovementType.RETIRO,
+                    BigDecimal.valueOf(deposit ? 2500 : -1000, 2),
+                    BigDecimal.valueOf(100_000 + index * 5L, 2)));
+        });
+
+        CountingOutputStream out = new CountingOutputStream();
+        long started = System.nanoTime();
+        formatter.write(report, rows, out);
+        long millis = (System.nanoTime() - started) / 1_000_000;
+
+        return new Result(out.count, millis, maxRetained[0]);
+    }
+
+    private record Result(long bytes, long millis, long maxRetained) {
+    }
+
+    private static final class CountingOutputStream extends OutputStream {
+        private long count;
+
+        @Override
+        public void write(int b) {
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            count += len;
+        }
+    }
+}
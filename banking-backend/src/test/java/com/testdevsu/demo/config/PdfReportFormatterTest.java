@@ -0,0 +1,98 @@
+package com.testdevsu.demo.config;
+
+import com.itextpdf.kernel.pdf.PdfDocument;
+import com.itextpdf.kernel.pdf.PdfReader;
+import com.itextpdf.kernel.pdf.canvas.parser.PdfTextExtractor;
+import com.testdevsu.demo.dto.AccountReportDTO;
+import com.testdevsu.demo.dto.ClientReportDTO;
+import com.testdevsu.demo.dto.MovementReportDTO;
+import com.testdevsu.demo.dto.StatementRowDTO;
+import com.testdevsu.demo.model.MovementType;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PdfReportFormatterTest {
+
+    private static final LocalDateTime DATE = LocalDateTime.of(2025, 3, 1, 10, 0);
+
+    private final PdfReportFormatter formatter = new PdfReportFormatter();
+
+    @Test
+    void write_WithRowStream_ShouldFillEachAccountSectionInOrder() throws IOException {
+        // Cabeceras sin lista de movimientos: las filas solo llegan por el flujo
+        AccountReportDTO savings = header("478758", "1025.00");
+        AccountReportDTO empty = header("225487", "1000.00");
+        AccountReportDTO checking = header("495878", "990.00");
+        ClientReportDTO report = new ClientReportDTO("Jose Lema", "jose-lema", "2025-03-01", "2025-03-31",
+                List.of(savings, empty, checking));
+
+        Stream<StatementRowDTO> rows = Stream.of(
+                new StatementRowDTO(savings, movement(0, MovementType.DEPOSITO, "25.00", "1025.00")),
+                new StatementRowDTO(checking, movement(1, MovementType.RETIRO, "-4.00", "996.00")),
+                new StatementRowDTO(checking, movement(2, MovementType.RETIRO, "-6.00", "990.00")));
+
+        String text = render(report, rows);
+
+        int savingsSection = text.indexOf("Cuenta: 478758");
+        int emptySection = text.indexOf("Cuenta: 225487");
+        int checkingSection = text.indexOf("Cuenta: 495878");
+        assertTrue(savingsSection >= 0 && savingsSection < emptySection && emptySection < checkingSection);
+
+        assertTrue(text.indexOf("$1025.00") > savingsSection && text.indexOf("$1025.00") < emptySection);
+        assertTrue(text.indexOf("$996.00") > checkingSection);
+        assertTrue(text.indexOf("$990.00", checkingSection) > text.indexOf("$996.00"));
+        assertEquals(-1, text.substring(emptySection, checkingSection).indexOf("Retiro"));
+    }
+
+    @Test
+    void write_WithLoadedReport_ShouldRenderSameRows() throws IOException {
+        AccountReportDTO account = new AccountReportDTO("478758", "Ahorros", new BigDecimal("1000.00"),
+                new BigDecimal("1000.00"), true, new BigDecimal("25.00"), BigDecimal.ZERO, new BigDecimal("1025.00"),
+                List.of(movement(0, MovementType.DEPOSITO, "25.00", "1025.00")));
+        ClientReportDTO report = new ClientReportDTO("Jose Lema", "jose-lema", "2025-03-01", "2025-03-31",
+                List.of(account));
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        formatter.write(report, out);
+        String text = extract(out.toByteArray());
+
+        assertTrue(text.contains("Cuenta: 478758"));
+        assertTrue(text.contains("$1025.00"));
+        assertTrue(text.contains("Créditos: $25.00"));
+    }
+
+    private String render(ClientReportDTO report, Stream<StatementRowDTO> rows) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        formatter.write(report, rows, out);
+        return extract(out.toByteArray());
+    }
+
+    private static String extract(byte[] pdf) throws IOException {
+        StringBuilder text = new StringBuilder();
+        try (PdfDocument document = new PdfDocument(new PdfReader(new ByteArrayInputStream(pdf)))) {
+            for (int page = 1; page <= document.getNumberOfPages(); page++) {
+                text.append(PdfTextExtractor.getTextFromPage(document.getPage(page))).append('\n');
+            }
+        }
+        return text.toString();
+    }
+
+    private static AccountReportDTO header(String accountNumber, String closingBalance) {
+        return new AccountReportDTO(accountNumber, "Ahorros", new BigDecimal("1000.00"), new BigDecimal("1000.00"),
+                true, BigDecimal.ZERO, BigDecimal.ZERO, new BigDecimal(closingBalance), null);
+    }
+
+    private static MovementReportDTO movement(int minutes, MovementType type, String value, String balance) {
+        return new MovementReportDTO(DATE.plusMinutes(minutes), type, new BigDecimal(value), new BigDecimal(balance));
+    }
+}
@@ -0,0 +1,173 @@
+package com.testdevsu.demo.config;
+
+import com.testdevsu.demo.model.Account;
+import com.testdevsu.demo.model.Client;
+import com.testdevsu.demo.service.ReplicaConsistency;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import javax.sql.DataSource;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// Principal y réplica son dos bases H2 distintas con la misma tabla de prueba y un valor diferente en cada una; la
+// replicación se simula copiando el latido de la principal a la réplica
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:${random.uuid};MODE=MySQL;DB_CLOSE_DELAY=-1;NON_KEYWORDS=VALUE,DAY",
+        "banking.datasource.replica.enabled=true",
+        "banking.datasource.replica.username=sa",
+        "banking.datasource.replica.password=",
+        "banking.datasource.replica.max-lag=5s",
+        "banking.datasource.replica.heartbeat-interval-ms=3600000"
+})
+class ReplicaRoutingTest {
+
+    private static final Duration MAX_LAG = Duration.ofSeconds(5);
+    private static final String REPLICA_URL = "jdbc:h2:mem:replica-" + UUID.randomUUID()
+            + ";MODE=MySQL;DB_CLOSE_DELAY=-1;NON_KEYWORDS=VALUE,DAY";
+
+    @DynamicPropertySource
+    static void replicaUrl(DynamicPropertyRegistry registry) {
+        registry.add("banking.datasource.replica.url", () -> REPLICA_URL);
+    }
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    @Qualifier("primaryDataSource")
+    private DataSource primaryDataSource;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ReplicaConsistency consistency;
+
+    @Autowired
+    private ReplicaLagMonitor monitor;
+
+    private JdbcTemplate primary;
+    // Conexión propia a la base de la réplica, fuera del pool de solo lectura, para preparar los datos
+    private JdbcTemplate replica;
+
+    @BeforeEach
+    void setUp() {
+        primary = new JdbcTemplate(primaryDataSource);
+        replica = new JdbcTemplate(new DriverManagerDataSource(REPLICA_URL, "sa", ""));
+        probe(primary, "primary");
+        probe(replica, "replica");
+        createReplicaHeartbeat();
+        replicate();
+        monitor.heartbeat();
+    }
+
+    @Test
+    void readOnlyTransaction_WithReplicaWithinMaxLag_ShouldReadReplica() {
+        assertEquals("replica", read(true, () -> { }));
+    }
+
+    @Test
+    void readWriteTransaction_WithReplicaWithinMaxLag_ShouldReadPrimary() {
+        assertEquals("primary", read(false, () -> { }));
+    }
+
+    @Test
+    void readOnlyTransaction_WhenLagExceedsMaxLag_ShouldFallBackToPrimary() {
+        // La replicación se detuvo hace más de max-lag: el último latido aplicado en la réplica es viejo
+        replica.update("UPDATE replica_heartbeat SET beat = ?",
+                Timestamp.from(Instant.now().minus(MAX_LAG).minusSeconds(5)));
+        consistency.replicaUnavailable();
+        monitor.heartbeat();
+
+        assertEquals("primary", read(true, () -> { }));
+
+        replicate();
+        monitor.heartbeat();
+        assertEquals("replica", read(true, () -> { }));
+    }
+
+    @Test
+    void readOnlyTransaction_WhenReplicaDoesNotRespond_ShouldFallBackToPrimary() {
+        replica.execute("DROP TABLE replica_heartbeat");
+        monitor.heartbeat();
+
+        assertEquals("primary", read(true, () -> { }));
+
+        createReplicaHeartbeat();
+        replicate();
+        monitor.heartbeat();
+        assertEquals("replica", read(true, () -> { }));
+    }
+
+    @Test
+    void readOnlyTransaction_ForClientWithPostingNotYetReplicated_ShouldReadPrimary() {
+        consistency.recordPosting(account(10L, 1L));
+
+        assertEquals("primary", read(true, () -> consistency.readingClient(1L)));
+        assertEquals("primary", read(true, () -> consistency.readingAccount(10L)));
+        assertEquals("replica", read(true, () -> consistency.readingClient(2L)));
+
+        // El siguiente latido que llega a la réplica es posterior al movimiento
+        monitor.heartbeat();
+        replicate();
+        monitor.heartbeat();
+        assertEquals("replica", read(true, () -> consistency.readingClient(1L)));
+    }
+
+    // scope: lo que la lectura declara antes de su primera consulta, como hacen los servicios
+    private String read(boolean readOnly, Runnable scope) {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.setReadOnly(readOnly);
+        return transaction.execute(status -> {
+            scope.run();
+            return new JdbcTemplate(dataSource).queryForObject("SELECT source FROM routing_probe", String.class);
+        });
+    }
+
+    private static void probe(JdbcTemplate jdbc, String source) {
+        jdbc.execute("CREATE TABLE IF NOT EXISTS routing_probe (source VARCHAR(10) NOT NULL)");
+        jdbc.update("DELETE FROM routing_probe");
+        jdbc.update("INSERT INTO routing_probe (source) VALUES (?)", source);
+    }
+
+    private void createReplicaHeartbeat() {
+        replica.execute("""
+                CREATE TABLE IF NOT EXISTS replica_heartbeat (
+                    instance_id VARCHAR(36) NOT NULL PRIMARY KEY,
+                    beat DATETIME(6) NOT NULL
+                )
+                """);
+    }
+
+    // Lo que haría la replicación: la réplica alcanza a la principal en la tabla de latidos
+    private void replicate() {
+        replica.update("DELETE FROM replica_heartbeat");
+        for (Map<String, Object> row : primary.queryForList("SELECT instance_id, beat FROM replica_heartbeat")) {
+            replica.update("INSERT INTO replica_heartbeat (instance_id, beat) VALUES (?, ?)",
+                    row.get("instance_id"), row.get("beat"));
+        }
+    }
+
+    private static Account account(Long accountId, Long clientId) {
+        Client client = new Client();
+        client.setId(clientId);
+        Account account = new Account();
+        account.setId(accountId);
+        account.setClient(client);
+        return account;
+    }
+}
@@ -1,10 +1,16 @@
 package com.testdevsu.demo.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.testdevsu.demo.dto.AccountBalanceDTO;
 import com.testdevsu.demo.dto.AccountRequestDTO;
 import com.testdevsu.demo.dto.AccountResponseDTO;
+import com.testdevsu.demo.dto.MovementPageDTO;
+import com.testdevsu.demo.dto.MovementResponseDTO;
+import com.testdevsu.demo.exception.InvalidCursorException;
 import com.testdevsu.demo.exception.ResourceNotFoundException;
+import com.testdevsu.demo.model.MovementType;
 import com.testdevsu.demo.service.AccountService;
+import com.testdevsu.demo.service.MovementService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -13,6 +19,8 @@ import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.List;
 
@@ -38,6 +46,9 @@ class AccountControllerTest {
     @MockitoBean
     private AccountService accountService;
 
+    @MockitoBean
+    private MovementService movementService;
+
     @Autowired
     private ObjectMapper objectMapper;
 
@@ -50,8 +61,8 @@ class AccountControllerTest {
                 1L,
                 "478758",
                 "Ahorros",
-                2000.0,
-                2000.0,
+                new BigDecimal("2000.00"),
+                new BigDecimal("2000.00"),
                 true,
                 1L,
                 "Jose Lema"
@@ -60,7 +71,7 @@ class AccountControllerTest {
         accountRequest = new AccountRequestDTO(
                 "478758",
                 "Ahorros",
-                2000.0,
+                new BigDecimal("2000.00"),
                 true,
                 1L
         );
@@ -72,14 +83,14 @@ class AccountControllerTest {
                 2L,
                 "225487",
                 "Corriente",
-                100.0,
-                100.0,
+                new BigDecimal("100.00"),
+                new BigDecimal("100.00"),
                 true,
                 2L,
                 "Marianela Montalvo"
         );
         List<AccountResponseDTO> accounts = Arrays.asList(accountResponse, account2);
-        when(accountService.getAllAccounts()).thenReturn(accounts);
+        when(accountService.getAllAccounts(null, null)).thenReturn(accounts);
 
         mockMvc.perform(get("/accounts")
                         .contentType(MediaType.APPLICATION_JSON))
@@ -92,7 +103,22 @@ class AccountControllerTest {
                 .andExpect(jsonPath("$[1].id", is(2)))
                 .andExpect(jsonPath("$[1].accountNumber", is("225487")));
 
-        verify(accountService, times(1)).getAllAccounts();
+        verify(accountService, times(1)).getAllAccounts(null, null);
+    }
+
+    @Test
+    void getAllAccounts_WithPageParams_ShouldPassThemToService() throws Exception {
+        when(accountService.getAllAccounts(1, 20)).thenReturn(Arrays.asList(accountResponse));
+
+        mockMvc.perform(get("/accounts")
+                        .param("page", "1")
+                        .param("size", "20")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].clientName", is(accountResponse.getClientName())));
+
+        verify(accountService, times(1)).getAllAccounts(1, 20);
     }
 
     @Test
@@ -114,6 +140,42 @@ class AccountControllerTest {
         verify(accountService, times(1)).getAccountById(1L);
     }
 
+    @Test
+    void getAccountMovements_ShouldReturnPageWithNextCursor() throws Exception {
+        MovementResponseDTO movement = new MovementResponseDTO(
+                10L,
+                LocalDateTime.of(2024, 2, 10, 10, 30, 0),
+                MovementType.RETIRO,
+                new BigDecimal("-575.00"),
+                new BigDecimal("1425.00"),
+                1L,
+                "478758"
+        );
+        when(movementService.getAccountMovements(1L, "abc", 1))
+                .thenReturn(new MovementPageDTO(List.of(movement), "def"));
+
+        mockMvc.perform(get("/accounts/1/movements")
+                        .param("after", "abc")
+                        .param("limit", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items", hasSize(1)))
+                .andExpect(jsonPath("$.items[0].id", is(10)))
+                .andExpect(jsonPath("$.items[0].movementType", is("Retiro")))
+                .andExpect(jsonPath("$.nextCursor", is("def")));
+
+        verify(movementService, times(1)).getAccountMovements(1L, "abc", 1);
+    }
+
+    @Test
+    void getAccountMovements_WithInvalidCursor_ShouldReturnBadRequest() throws Exception {
+        when(movementService.getAccountMovements(1L, "???", 50))
+                .thenThrow(new InvalidCursorException("Cursor de paginación no válido: ???"));
+
+        mockMvc.perform(get("/accounts/1/movements")
+                        .param("after", "???"))
+                .andExpect(status().isBadRequest());
+    }
+
     @Test
     void getAccountById_WhenAccountNotFound_ShouldReturnNotFound() throws Exception {
         when(accountService.getAccountById(999L)).thenThrow(new ResourceNotFoundException("Cuenta no encontrada"));
@@ -125,6 +187,31 @@ class AccountControllerTest {
         verify(accountService, times(1)).getAccountById(999L);
     }
 
+    @Test
+    void getAccountBalance_ShouldReturnCurrentBalance() throws Exception {
+        AccountBalanceDTO balance = new AccountBalanceDTO(1L, new BigDecimal("1425.00"), 7L,
+                LocalDateTime.of(2026, 2, 10, 9, 30));
+        when(accountService.getAccountBalance(1L)).thenReturn(balance);
+
+        mockMvc.perform(get("/accounts/1/balance")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.accountId", is(1)))
+                .andExpect(jsonPath("$.currentBalance", is(1425.0)))
+                .andExpect(jsonPath("$.lastMovementId", is(7)));
+
+        verify(accountService, times(1)).getAccountBalance(1L);
+    }
+
+    @Test
+    void getAccountBalance_WhenAccountNotFound_ShouldReturnNotFound() throws Exception {
+        when(accountService.getAccountBalance(999L)).thenThrow(new ResourceNotFoundException("Cuenta no encontrada"));
+
+        mockMvc.perform(get("/accounts/999/balance")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isNotFound());
+    }
+
     @Test
     void createAccount_WithValidData_ShouldReturnCreatedAccount() throws Exception {
         when(accountService.createAccount(any(AccountRequestDTO.class))).thenReturn(accountResponse);
@@ -161,8 +248,8 @@ class AccountControllerTest {
                 1L,
                 "478758",
                 "Corriente",
-                3000.0,
-                3000.0,
+                new BigDecimal("3000.00"),
+                new BigDecimal("3000.00"),
                 true,
                 1L,
                 "Jose Lema"
@@ -172,7 +259,7 @@ class AccountControllerTest {
         AccountRequestDTO updateRequest = new AccountRequestDTO(
                 "478758",
                 "Corriente",
-                3000.0,
+                new BigDecimal("3000.00"),
                 true,
                 1L
         );
@@ -194,8 +281,8 @@ class AccountControllerTest {
                 1L,
                 "478758",
                 "Ahorros",
-                2000.0,
-                2000.0,
+                new BigDecimal("2000.00"),
+                new BigDecimal("2000.00"),
                 false, // Estado actualizado
                 1L,
                 "Jose Lema"
@@ -0,0 +1,49 @@
+package com.testdevsu.demo.controller;
+
+import com.testdevsu.demo.dto.CacheRegionStatsDTO;
+import com.testdevsu.demo.dto.CacheStatsDTO;
+import com.testdevsu.demo.dto.ReportCacheStatsDTO;
+import com.testdevsu.demo.service.CacheStatsService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(CacheStatsController.class)
+class CacheStatsControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockitoBean
+    private CacheStatsService cacheStatsService;
+
+    @Test
+    void getCacheStats_ShouldReturnRegionCounters() throws Exception {
+        CacheStatsDTO stats = new CacheStatsDTO(true, 10, 2, 3, 4, 1, 1,
+                List.of(new CacheRegionStatsDTO("account", 7, 1, 2, 2)),
+                new ReportCacheStatsDTO(5, 2, 1, 0, 1, 2048));
+        when(cacheStatsService.getCacheStats()).thenReturn(stats);
+
+        mockMvc.perform(get("/cache/stats")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.statisticsEnabled", is(true)))
+                .andExpect(jsonPath("$.secondLevelCacheHits", is(10)))
+                .andExpect(jsonPath("$.regions", hasSize(1)))
+                .andExpect(jsonPath("$.regions[0].region", is("account")))
+                .andExpect(jsonPath("$.regions[0].misses", is(1)))
+                .andExpect(jsonPath("$.reportCache.hits", is(5)))
+                .andExpect(jsonPath("$.reportCache.invalidations", is(1)));
+    }
+}
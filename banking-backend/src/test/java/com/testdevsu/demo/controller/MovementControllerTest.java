@@ -1,10 +1,15 @@
 package com.testdevsu.demo.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.testdevsu.demo.dto.MovementBatchResultDTO;
+import com.testdevsu.demo.dto.MovementPageDTO;
 import com.testdevsu.demo.dto.MovementRequestDTO;
 import com.testdevsu.demo.dto.MovementResponseDTO;
+import com.testdevsu.demo.exception.ArchivedPeriodException;
 import com.testdevsu.demo.exception.InsufficientBalanceException;
+import com.testdevsu.demo.exception.InvalidAmountException;
 import com.testdevsu.demo.exception.ResourceNotFoundException;
+import com.testdevsu.demo.model.MovementType;
 import com.testdevsu.demo.service.MovementService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -14,6 +19,7 @@ import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 
+import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.List;
@@ -21,6 +27,7 @@ import java.util.List;
 import static org.hamcrest.Matchers.hasSize;
 import static org.hamcrest.Matchers.is;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
@@ -49,47 +56,48 @@ class MovementControllerTest {
         movementResponse = new MovementResponseDTO(
                 1L,
                 testDate,
-                "Retiro",
-                -575.0,
-                1425.0,
+                MovementType.RETIRO,
+                new BigDecimal("-575.00"),
+                new BigDecimal("1425.00"),
                 1L,
                 "478758"
         );
 
         movementRequest = new MovementRequestDTO(
                 testDate,
-                "Retiro",
-                -575.0,
+                MovementType.RETIRO,
+                new BigDecimal("-575.00"),
                 1L
         );
     }
 
     @Test
-    void getAllMovements_ShouldReturnListOfMovements() throws Exception {
+    void getMovements_ShouldReturnFirstPage() throws Exception {
         MovementResponseDTO movement2 = new MovementResponseDTO(
                 2L,
                 testDate,
-                "Depósito",
-                600.0,
-                700.0,
+                MovementType.DEPOSITO,
+                new BigDecimal("600.00"),
+                new BigDecimal("700.00"),
                 2L,
                 "225487"
         );
         List<MovementResponseDTO> movements = Arrays.asList(movementResponse, movement2);
-        when(movementService.getAllMovements()).thenReturn(movements);
+        when(movementService.getMovements(null, 50)).thenReturn(new MovementPageDTO(movements, null));
 
         mockMvc.perform(get("/movements")
                         .contentType(MediaType.APPLICATION_JSON))
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$", hasSize(2)))
-                .andExpect(jsonPath("$[0].id", is(1)))
-                .andExpect(jsonPath("$[0].movementType", is("Retiro")))
-                .andExpect(jsonPath("$[0].value", is(-575.0)))
-                .andExpect(jsonPath("$[0].balance", is(1425.0)))
-                .andExpect(jsonPath("$[1].id", is(2)))
-                .andExpect(jsonPath("$[1].movementType", is("Depósito")));
-
-        verify(movementService, times(1)).getAllMovements();
+                .andExpect(jsonPath("$.items", hasSize(2)))
+                .andExpect(jsonPath("$.items[0].id", is(1)))
+                .andExpect(jsonPath("$.items[0].movementType", is("Retiro")))
+                .andExpect(jsonPath("$.items[0].value", is(-575.0)))
+                .andExpect(jsonPath("$.items[0].balance", is(1425.0)))
+                .andExpect(jsonPath("$.items[1].id", is(2)))
+                .andExpect(jsonPath("$.items[1].movementType", is("Depósito")))
+                .andExpect(jsonPath("$.nextCursor").doesNotExist());
+
+        verify(movementService, times(1)).getMovements(null, 50);
     }
 
     @Test
@@ -139,7 +147,7 @@ class MovementControllerTest {
     @Test
     void createMovement_WithInvalidData_ShouldReturnBadRequest() throws Exception {
         MovementRequestDTO invalidRequest = new MovementRequestDTO();
-        invalidRequest.setMovementType(""); // Tipo de movimiento vacío
+        invalidRequest.setMovementType(null); // Tipo de movimiento nulo
         invalidRequest.setValue(null); // Valor nulo
         invalidRequest.setAccountId(null); // Account ID nulo
 
@@ -151,6 +159,31 @@ class MovementControllerTest {
         verify(movementService, never()).createMovement(any(MovementRequestDTO.class));
     }
 
+    @Test
+    void createMovement_WithMoreThanTwoDecimals_ShouldReturnBadRequest() throws Exception {
+        movementRequest.setValue(new BigDecimal("10.005"));
+
+        mockMvc.perform(post("/movements")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(movementRequest)))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.errors.value", is("El valor admite como máximo 2 decimales")));
+
+        verify(movementService, never()).createMovement(any(MovementRequestDTO.class));
+    }
+
+    @Test
+    void partialUpdateMovement_WithMoreThanTwoDecimals_ShouldReturnBadRequest() throws Exception {
+        when(movementService.partialUpdateMovement(eq(1L), any(MovementRequestDTO.class)))
+                .thenThrow(new InvalidAmountException("El monto 10.005 admite como máximo 2 decimales"));
+
+        mockMvc.perform(patch("/movements/1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"value\": 10.005}"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message", is("El monto 10.005 admite como máximo 2 decimales")));
+    }
+
     @Test
     void createMovement_WithInsufficientBalance_ShouldReturnBadRequest() throws Exception {
         when(movementService.createMovement(any(MovementRequestDTO.class)))
@@ -164,14 +197,50 @@ class MovementControllerTest {
         verify(movementService, times(1)).createMovement(any(MovementRequestDTO.class));
     }
 
+    @Test
+    void createMovement_InArchivedPeriod_ShouldReturnConflict() throws Exception {
+        when(movementService.createMovement(any(MovementRequestDTO.class)))
+                .thenThrow(new ArchivedPeriodException("El periodo anterior a 2025-01-01 está archivado y no admite cambios"));
+
+        mockMvc.perform(post("/movements")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(movementRequest)))
+                .andExpect(status().isConflict());
+
+        verify(movementService, times(1)).createMovement(any(MovementRequestDTO.class));
+    }
+
+    @Test
+    void createMovements_ShouldReturnPerItemResults() throws Exception {
+        List<MovementBatchResultDTO> results = Arrays.asList(
+                MovementBatchResultDTO.created(0, movementResponse),
+                MovementBatchResultDTO.rejected(1, "Saldo no disponible")
+        );
+        when(movementService.createMovements(anyList())).thenReturn(results);
+
+        mockMvc.perform(post("/movements/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(Arrays.asList(movementRequest, movementRequest))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[0].index", is(0)))
+                .andExpect(jsonPath("$[0].status", is("CREATED")))
+                .andExpect(jsonPath("$[0].movement.id", is(1)))
+                .andExpect(jsonPath("$[1].index", is(1)))
+                .andExpect(jsonPath("$[1].status", is("REJECTED")))
+                .andExpect(jsonPath("$[1].error", is("Saldo no disponible")));
+
+        verify(movementService, times(1)).createMovements(anyList());
+    }
+
     @Test
     void updateMovement_WhenMovementExists_ShouldReturnUpdatedMovement() throws Exception {
         MovementResponseDTO updatedResponse = new MovementResponseDTO(
                 1L,
                 testDate,
-                "Depósito",
-                600.0,
-                2600.0,
+                MovementType.DEPOSITO,
+                new BigDecimal("600.00"),
+                new BigDecimal("2600.00"),
                 1L,
                 "478758"
         );
@@ -179,8 +248,8 @@ class MovementControllerTest {
 
         MovementRequestDTO updateRequest = new MovementRequestDTO(
                 testDate,
-                "Depósito",
-                600.0,
+                MovementType.DEPOSITO,
+                new BigDecimal("600.00"),
                 1L
         );
 
@@ -201,25 +270,34 @@ class MovementControllerTest {
         MovementResponseDTO updatedResponse = new MovementResponseDTO(
                 1L,
                 testDate,
-                "Retiro de cajero",
-                -575.0,
-                1425.0,
+                MovementType.RETIRO,
+                new BigDecimal("-575.00"),
+                new BigDecimal("1425.00"),
                 1L,
                 "478758"
         );
         when(movementService.partialUpdateMovement(eq(1L), any(MovementRequestDTO.class))).thenReturn(updatedResponse);
 
-        MovementRequestDTO partialRequest = new MovementRequestDTO();
-        partialRequest.setMovementType("Retiro de cajero");
-
         mockMvc.perform(patch("/movements/1")
                         .contentType(MediaType.APPLICATION_JSON)
-                        .content(objectMapper.writeValueAsString(partialRequest)))
+                        .content("{\"movementType\": \"retiro\"}"))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.id", is(1)))
-                .andExpect(jsonPath("$.movementType", is("Retiro de cajero")));
+                .andExpect(jsonPath("$.movementType", is("Retiro")));
+
+        verify(movementService, times(1)).partialUpdateMovement(eq(1L), argThat(request ->
+                request.getMovementType() == MovementType.RETIRO));
+    }
 
-        verify(movementService, times(1)).partialUpdateMovement(eq(1L), any(MovementRequestDTO.class));
+    @Test
+    void createMovement_WithUnknownMovementType_ShouldReturnBadRequest() throws Exception {
+        mockMvc.perform(post("/movements")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"movementType\": \"Transferencia\", \"value\": 10, \"accountId\": 1}"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message", is("Tipo de movimiento no válido: Transferencia")));
+
+        verify(movementService, never()).createMovement(any(MovementRequestDTO.class));
     }
 
     @Test
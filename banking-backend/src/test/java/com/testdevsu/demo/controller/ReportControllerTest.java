@@ -1,20 +1,37 @@
 package com.testdevsu.demo.controller;
 
+import com.testdevsu.demo.config.ReportFormatter;
+import com.testdevsu.demo.dto.AccountReportDTO;
+import com.testdevsu.demo.dto.ClientReportDTO;
 import com.testdevsu.demo.exception.ResourceNotFoundException;
 import com.testdevsu.demo.service.ReportService;
+import com.testdevsu.demo.service.StatementReport;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
-
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.Base64;
+import java.util.List;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
@@ -55,10 +72,10 @@ class ReportControllerTest {
 
     @Test
     void getAccountStatement_WithJsonFormat_ShouldReturnJsonReport() throws Exception {
-        when(reportService.generateAccountStatement(eq(1L), any(LocalDateTime.class), any(LocalDateTime.class), eq("json")))
-                .thenReturn(jsonReport);
+        when(reportService.generateAccountStatement(eq(1L), any(LocalDateTime.class), any(LocalDateTime.class), eq("json"), eq(false)))
+                .thenReturn(report(jsonReport, MediaType.APPLICATION_JSON, "json"));
 
-        mockMvc.perform(get("/reportes")
+        performStreaming(get("/reportes")
                         .param("clientId", "1")
                         .param("startDate", startDate.format(DateTimeFormatter.ISO_DATE_TIME))
                         .param("endDate", endDate.format(DateTimeFormatter.ISO_DATE_TIME))
@@ -67,33 +84,86 @@ class ReportControllerTest {
                 .andExpect(header().string("Content-Type", "application/json"))
                 .andExpect(content().string(jsonReport));
 
-        verify(reportService, times(1)).generateAccountStatement(eq(1L), any(LocalDateTime.class), any(LocalDateTime.class), eq("json"));
+        verify(reportService, times(1)).generateAccountStatement(eq(1L), any(LocalDateTime.class), any(LocalDateTime.class), eq("json"), eq(false));
     }
 
     @Test
     void getAccountStatement_WithPdfFormat_ShouldReturnPdfReport() throws Exception {
-        when(reportService.generateAccountStatement(eq(1L), any(LocalDateTime.class), any(LocalDateTime.class), eq("pdf")))
-                .thenReturn(pdfReport);
+        when(reportService.generateAccountStatement(eq(1L), any(LocalDateTime.class), any(LocalDateTime.class), eq("pdf"), eq(false)))
+                .thenReturn(report(pdfReport, MediaType.APPLICATION_PDF, "pdf"));
 
-        mockMvc.perform(get("/reportes")
+        performStreaming(get("/reportes")
                         .param("clientId", "1")
                         .param("startDate", startDate.format(DateTimeFormatter.ISO_DATE_TIME))
                         .param("endDate", endDate.format(DateTimeFormatter.ISO_DATE_TIME))
                         .param("format", "pdf"))
                 .andExpect(status().isOk())
-                .andExpect(header().string("Content-Type", "text/plain"))
+                .andExpect(header().string("Content-Type", "application/pdf"))
+                .andExpect(header().string("Content-Disposition", "inline; filename=\"estado-cuenta-jose-lema.pdf\""))
                 .andExpect(content().string(pdfReport));
 
-        verify(reportService, times(1)).generateAccountStatement(eq(1L), any(LocalDateTime.class), any(LocalDateTime.class), eq("pdf"));
+        verify(reportService, times(1)).generateAccountStatement(eq(1L), any(LocalDateTime.class), any(LocalDateTime.class), eq("pdf"), eq(false));
+    }
+
+    @Test
+    void getAccountStatement_WithCsvFormat_ShouldReturnCsvAttachmentName() throws Exception {
+        String csvReport = "date,client,accountNumber,type,initialBalance,status,movement,availableBalance\n"
+                + "2024-02-10T00:00,Jose Lema,478758,Ahorros,2000.00,true,-575.00,1425.00\n";
+        when(reportService.generateAccountStatement(eq(1L), any(LocalDateTime.class), any(LocalDateTime.class), eq("csv"), eq(false)))
+                .thenReturn(report(csvReport, new MediaType("text", "csv", StandardCharsets.UTF_8), "csv"));
+
+        performStreaming(get("/reportes")
+                        .param("clientId", "1")
+                        .param("startDate", startDate.format(DateTimeFormatter.ISO_DATE_TIME))
+                        .param("endDate", endDate.format(DateTimeFormatter.ISO_DATE_TIME))
+                        .param("format", "csv"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Type", "text/csv;charset=UTF-8"))
+                .andExpect(header().string("Content-Disposition", "inline; filename=\"estado-cuenta-jose-lema.csv\""))
+                .andExpect(content().string(csvReport));
+    }
+
+    @Test
+    void getAccountStatement_WithBase64_ShouldReturnEncodedText() throws Exception {
+        when(reportService.generateAccountStatement(eq(1L), any(LocalDateTime.class), any(LocalDateTime.class), eq("pdf"), eq(false)))
+                .thenReturn(report(pdfReport, MediaType.APPLICATION_PDF, "pdf"));
+
+        performStreaming(get("/reportes")
+                        .param("clientId", "1")
+                        .param("startDate", startDate.format(DateTimeFormatter.ISO_DATE_TIME))
+                        .param("endDate", endDate.format(DateTimeFormatter.ISO_DATE_TIME))
+                        .param("format", "pdf")
+                        .param("base64", "true"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Type", "text/plain"))
+                .andExpect(content().string(Base64.getEncoder().encodeToString(pdfReport.getBytes(StandardCharsets.UTF_8))));
+    }
+
+    @Test
+    void getAccountStatement_WithCompact_ShouldRequestCompactReport() throws Exception {
+        String compactReport = "[{\"date\":\"2024-02-10T00:00\",\"movement\":\"-575.00\"}]";
+        when(reportService.generateAccountStatement(eq(1L), any(LocalDateTime.class), any(LocalDateTime.class), eq("json"), eq(true)))
+                .thenReturn(report(compactReport, MediaType.APPLICATION_JSON, "json"));
+
+        performStreaming(get("/reportes")
+                        .param("clientId", "1")
+                        .param("startDate", startDate.format(DateTimeFormatter.ISO_DATE_TIME))
+                        .param("endDate", endDate.format(DateTimeFormatter.ISO_DATE_TIME))
+                        .param("compact", "true"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Type", "application/json"))
+                .andExpect(content().string(compactReport));
+
+        verify(reportService, times(1)).generateAccountStatement(eq(1L), any(LocalDateTime.class), any(LocalDateTime.class), eq("json"), eq(true));
     }
 
     @Test
     void getAccountStatement_WithDefaultFormat_ShouldReturnJsonReport() throws Exception {
-        when(reportService.generateAccountStatement(eq(1L), any(LocalDateTime.class), any(LocalDateTime.class), eq("json")))
-                .thenReturn(jsonReport);
+        when(reportService.generateAccountStatement(eq(1L), any(LocalDateTime.class), any(LocalDateTime.class), eq("json"), eq(false)))
+                .thenReturn(report(jsonReport, MediaType.APPLICATION_JSON, "json"));
 
         // No se proporciona el parámetro format, debe usar 'json' por defecto
-        mockMvc.perform(get("/reportes")
+        performStreaming(get("/reportes")
                         .param("clientId", "1")
                         .param("startDate", startDate.format(DateTimeFormatter.ISO_DATE_TIME))
                         .param("endDate", endDate.format(DateTimeFormatter.ISO_DATE_TIME)))
@@ -101,12 +171,12 @@ class ReportControllerTest {
                 .andExpect(header().string("Content-Type", "application/json"))
                 .andExpect(content().string(jsonReport));
 
-        verify(reportService, times(1)).generateAccountStatement(eq(1L), any(LocalDateTime.class), any(LocalDateTime.class), eq("json"));
+        verify(reportService, times(1)).generateAccountStatement(eq(1L), any(LocalDateTime.class), any(LocalDateTime.class), eq("json"), eq(false));
     }
 
     @Test
     void getAccountStatement_WhenClientNotFound_ShouldReturnNotFound() throws Exception {
-        when(reportService.generateAccountStatement(eq(999L), any(LocalDateTime.class), any(LocalDateTime.class), eq("json")))
+        when(reportService.generateAccountStatement(eq(999L), any(LocalDateTime.class), any(LocalDateTime.class), eq("json"), eq(false)))
                 .thenThrow(new ResourceNotFoundException("Cliente no encontrado"));
 
         mockMvc.perform(get("/reportes")
@@ -116,17 +186,17 @@ class ReportControllerTest {
                         .param("format", "json"))
                 .andExpect(status().isNotFound());
 
-        verify(reportService, times(1)).generateAccountStatement(eq(999L), any(LocalDateTime.class), any(LocalDateTime.class), eq("json"));
+        verify(reportService, times(1)).generateAccountStatement(eq(999L), any(LocalDateTime.class), any(LocalDateTime.class), eq("json"), eq(false));
     }
 
     @Test
     void getAccountStatement_WithSameDateRange_ShouldReturnReport() throws Exception {
         // Consulta para un solo día
         LocalDateTime sameDate = LocalDateTime.of(2024, 2, 10, 0, 0, 0);
-        when(reportService.generateAccountStatement(eq(1L), any(LocalDateTime.class), any(LocalDateTime.class), eq("json")))
-                .thenReturn(jsonReport);
+        when(reportService.generateAccountStatement(eq(1L), any(LocalDateTime.class), any(LocalDateTime.class), eq("json"), eq(false)))
+                .thenReturn(report(jsonReport, MediaType.APPLICATION_JSON, "json"));
 
-        mockMvc.perform(get("/reportes")
+        performStreaming(get("/reportes")
                         .param("clientId", "1")
                         .param("startDate", sameDate.format(DateTimeFormatter.ISO_DATE_TIME))
                         .param("endDate", sameDate.format(DateTimeFormatter.ISO_DATE_TIME))
@@ -134,17 +204,17 @@ class ReportControllerTest {
                 .andExpect(status().isOk())
                 .andExpect(header().string("Content-Type", "application/json"));
 
-        verify(reportService, times(1)).generateAccountStatement(eq(1L), any(LocalDateTime.class), any(LocalDateTime.class), eq("json"));
+        verify(reportService, times(1)).generateAccountStatement(eq(1L), any(LocalDateTime.class), any(LocalDateTime.class), eq("json"), eq(false));
     }
 
     @Test
     void getAccountStatement_WithEmptyReport_ShouldReturnOk() throws Exception {
         // Cliente sin movimientos en el período
         String emptyReport = "{\"client\": \"Jose Lema\", \"accounts\": []}";
-        when(reportService.generateAccountStatement(eq(3L), any(LocalDateTime.class), any(LocalDateTime.class), eq("json")))
-                .thenReturn(emptyReport);
+        when(reportService.generateAccountStatement(eq(3L), any(LocalDateTime.class), any(LocalDateTime.class), eq("json"), eq(false)))
+                .thenReturn(report(emptyReport, MediaType.APPLICATION_JSON, "json"));
 
-        mockMvc.perform(get("/reportes")
+        performStreaming(get("/reportes")
                         .param("clientId", "3")
                         .param("startDate", startDate.format(DateTimeFormatter.ISO_DATE_TIME))
                         .param("endDate", endDate.format(DateTimeFormatter.ISO_DATE_TIME))
@@ -152,7 +222,7 @@ class ReportControllerTest {
                 .andExpect(status().isOk())
                 .andExpect(content().string(emptyReport));
 
-        verify(reportService, times(1)).generateAccountStatement(eq(3L), any(LocalDateTime.class), any(LocalDateTime.class), eq("json"));
+        verify(reportService, times(1)).generateAccountStatement(eq(3L), any(LocalDateTime.class), any(LocalDateTime.class), eq("json"), eq(false));
     }
 
     @Test
@@ -160,10 +230,10 @@ class ReportControllerTest {
         LocalDateTime customStart = LocalDateTime.of(2024, 2, 10, 0, 0, 0);
         LocalDateTime customEnd = LocalDateTime.of(2024, 2, 15, 23, 59, 59);
         
-        when(reportService.generateAccountStatement(eq(2L), any(LocalDateTime.class), any(LocalDateTime.class), eq("json")))
-                .thenReturn(jsonReport);
+        when(reportService.generateAccountStatement(eq(2L), any(LocalDateTime.class), any(LocalDateTime.class), eq("json"), eq(false)))
+                .thenReturn(report(jsonReport, MediaType.APPLICATION_JSON, "json"));
 
-        mockMvc.perform(get("/reportes")
+        performStreaming(get("/reportes")
                         .param("clientId", "2")
                         .param("startDate", customStart.format(DateTimeFormatter.ISO_DATE_TIME))
                         .param("endDate", customEnd.format(DateTimeFormatter.ISO_DATE_TIME))
@@ -171,7 +241,7 @@ class ReportControllerTest {
                 .andExpect(status().isOk())
                 .andExpect(header().string("Content-Type", "application/json"));
 
-        verify(reportService, times(1)).generateAccountStatement(eq(2L), any(LocalDateTime.class), any(LocalDateTime.class), eq("json"));
+        verify(reportService, times(1)).generateAccountStatement(eq(2L), any(LocalDateTime.class), any(LocalDateTime.class), eq("json"), eq(false));
     }
 
     @Test
@@ -179,12 +249,12 @@ class ReportControllerTest {
         String client1Report = "{\"client\": \"Jose Lema\"}";
         String client2Report = "{\"client\": \"Marianela Montalvo\"}";
         
-        when(reportService.generateAccountStatement(eq(1L), any(LocalDateTime.class), any(LocalDateTime.class), eq("json")))
-                .thenReturn(client1Report);
-        when(reportService.generateAccountStatement(eq(2L), any(LocalDateTime.class), any(LocalDateTime.class), eq("json")))
-                .thenReturn(client2Report);
+        when(reportService.generateAccountStatement(eq(1L), any(LocalDateTime.class), any(LocalDateTime.class), eq("json"), eq(false)))
+                .thenReturn(report(client1Report, MediaType.APPLICATION_JSON, "json"));
+        when(reportService.generateAccountStatement(eq(2L), any(LocalDateTime.class), any(LocalDateTime.class), eq("json"), eq(false)))
+                .thenReturn(report(client2Report, MediaType.APPLICATION_JSON, "json"));
 
-        mockMvc.perform(get("/reportes")
+        performStreaming(get("/reportes")
                         .param("clientId", "1")
                         .param("startDate", startDate.format(DateTimeFormatter.ISO_DATE_TIME))
                         .param("endDate", endDate.format(DateTimeFormatter.ISO_DATE_TIME))
@@ -192,7 +262,7 @@ class ReportControllerTest {
                 .andExpect(status().isOk())
                 .andExpect(content().string(client1Report));
 
-        mockMvc.perform(get("/reportes")
+        performStreaming(get("/reportes")
                         .param("clientId", "2")
                         .param("startDate", startDate.format(DateTimeFormatter.ISO_DATE_TIME))
                         .param("endDate", endDate.format(DateTimeFormatter.ISO_DATE_TIME))
@@ -200,7 +270,58 @@ class ReportControllerTest {
                 .andExpect(status().isOk())
                 .andExpect(content().string(client2Report));
 
-        verify(reportService, times(1)).generateAccountStatement(eq(1L), any(LocalDateTime.class), any(LocalDateTime.class), eq("json"));
-        verify(reportService, times(1)).generateAccountStatement(eq(2L), any(LocalDateTime.class), any(LocalDateTime.class), eq("json"));
+        verify(reportService, times(1)).generateAccountStatement(eq(1L), any(LocalDateTime.class), any(LocalDateTime.class), eq("json"), eq(false));
+        verify(reportService, times(1)).generateAccountStatement(eq(2L), any(LocalDateTime.class), any(LocalDateTime.class), eq("json"), eq(false));
+    }
+
+    @Test
+    void getAccountSummary_ShouldReturnTotalsWithoutMovements() throws Exception {
+        AccountReportDTO account = new AccountReportDTO("478758", "Ahorros", new BigDecimal("2000.00"),
+                new BigDecimal("1425.00"), true, new BigDecimal("600.00"), new BigDecimal("575.00"),
+                new BigDecimal("1450.00"), null);
+        ClientReportDTO summary = new ClientReportDTO("Jose Lema", "jose-lema", "2024-02-01", "2024-02-29",
+                List.of(account));
+        when(reportService.generateAccountSummary(eq(1L), any(LocalDateTime.class), any(LocalDateTime.class)))
+                .thenReturn(summary);
+
+        mockMvc.perform(get("/reportes/resumen")
+                        .param("clientId", "1")
+                        .param("startDate", startDate.format(DateTimeFormatter.ISO_DATE_TIME))
+                        .param("endDate", endDate.format(DateTimeFormatter.ISO_DATE_TIME)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.accounts", hasSize(1)))
+                .andExpect(jsonPath("$.accounts[0].openingBalance", is(1425.0)))
+                .andExpect(jsonPath("$.accounts[0].availableBalance", is(1450.0)))
+                .andExpect(jsonPath("$.accounts[0].movements").doesNotExist());
+
+        verify(reportService, times(1)).generateAccountSummary(eq(1L), any(LocalDateTime.class), any(LocalDateTime.class));
+    }
+
+    // El cuerpo se escribe de forma asíncrona: se espera el inicio y luego se despacha el resultado
+    private ResultActions performStreaming(MockHttpServletRequestBuilder builder) throws Exception {
+        MvcResult result = mockMvc.perform(builder)
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        return mockMvc.perform(asyncDispatch(result));
+    }
+
+    private StatementReport report(String content, MediaType contentType, String extension) {
+        ClientReportDTO data = new ClientReportDTO("Jose Lema", "jose-lema", "2024-02-01", "2024-02-29", List.of());
+        return new StatementReport(data, new ReportFormatter() {
+            @Override
+            public void write(ClientReportDTO reportData, OutputStream out) throws IOException {
+                out.write(content.getBytes(StandardCharsets.UTF_8));
+            }
+
+            @Override
+            public MediaType getContentType() {
+                return contentType;
+            }
+
+            @Override
+            public String getFileExtension() {
+                return extension;
+            }
+        });
     }
 }
@@ -0,0 +1,149 @@
+package com.testdevsu.demo.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.testdevsu.demo.dto.ReportJobDTO;
+import com.testdevsu.demo.dto.ReportJobRequestDTO;
+import com.testdevsu.demo.dto.ReportJobStatus;
+import com.testdevsu.demo.exception.ReportJobNotReadyException;
+import com.testdevsu.demo.exception.ReportJobRejectedException;
+import com.testdevsu.demo.exception.ResourceNotFoundException;
+import com.testdevsu.demo.exception.UnsupportedReportFormatException;
+import com.testdevsu.demo.service.ReportArtifact;
+import com.testdevsu.demo.service.ReportJobService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+
+import static org.hamcrest.Matchers.is;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(ReportJobController.class)
+class ReportJobControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @MockitoBean
+    private ReportJobService reportJobService;
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void submitJob_ShouldReturnAcceptedWithLocation() throws Exception {
+        ReportJobRequestDTO request = new ReportJobRequestDTO(1L,
+                LocalDateTime.of(2024, 2, 1, 0, 0), LocalDateTime.of(2024, 2, 29, 23, 59), "pdf", false, true);
+        when(reportJobService.submit(any(ReportJobRequestDTO.class))).thenReturn(job("abc", ReportJobStatus.PENDIENTE));
+
+        mockMvc.perform(post("/reportes/jobs")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isAccepted())
+                .andExpect(header().string("Location", "http://localhost/reportes/jobs/abc"))
+                .andExpect(jsonPath("$.id", is("abc")))
+                .andExpect(jsonPath("$.status", is("PENDIENTE")));
+
+        verify(reportJobService, times(1)).submit(any(ReportJobRequestDTO.class));
+    }
+
+    @Test
+    void submitJob_WithoutClientId_ShouldReturnBadRequest() throws Exception {
+        mockMvc.perform(post("/reportes/jobs")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"startDate\":\"2024-02-01T00:00:00\",\"endDate\":\"2024-02-29T23:59:59\"}"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.errors.clientId", is("El ID del cliente es requerido")));
+
+        verify(reportJobService, never()).submit(any(ReportJobRequestDTO.class));
+    }
+
+    @Test
+    void submitJob_WhenQueueIsFull_ShouldReturnServiceUnavailable() throws Exception {
+        when(reportJobService.submit(any(ReportJobRequestDTO.class)))
+                .thenThrow(new ReportJobRejectedException("Hay demasiados reportes en cola, intente nuevamente más tarde"));
+
+        mockMvc.perform(post("/reportes/jobs")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"clientId\":1,\"startDate\":\"2024-02-01T00:00:00\",\"endDate\":\"2024-02-29T23:59:59\"}"))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string("Retry-After", "30"));
+    }
+
+    @Test
+    void submitJob_WithUnsupportedFormat_ShouldReturnBadRequest() throws Exception {
+        when(reportJobService.submit(any(ReportJobRequestDTO.class)))
+                .thenThrow(new UnsupportedReportFormatException("Formato de reporte no soportado: xml"));
+
+        mockMvc.perform(post("/reportes/jobs")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"clientId\":1,\"startDate\":\"2024-02-01T00:00:00\",\"endDate\":\"2024-02-29T23:59:59\",\"format\":\"xml\"}"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message", is("Formato de reporte no soportado: xml")));
+    }
+
+    @Test
+    void getJob_ShouldReturnStatus() throws Exception {
+        when(reportJobService.getJob("abc")).thenReturn(job("abc", ReportJobStatus.COMPLETADO));
+
+        mockMvc.perform(get("/reportes/jobs/abc"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status", is("COMPLETADO")))
+                .andExpect(jsonPath("$.fileName", is("estado-cuenta-jose-lema.pdf.gz")));
+    }
+
+    @Test
+    void getJob_WhenNotFound_ShouldReturnNotFound() throws Exception {
+        when(reportJobService.getJob("zzz"))
+                .thenThrow(new ResourceNotFoundException("Trabajo de reporte no encontrado con id: zzz"));
+
+        mockMvc.perform(get("/reportes/jobs/zzz"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void downloadJob_ShouldServeFileAsAttachment() throws Exception {
+        Path file = Files.writeString(tempDir.resolve("abc"), "date,client\n", StandardCharsets.UTF_8);
+        when(reportJobService.getArtifact("abc")).thenReturn(new ReportArtifact(file, Files.size(file),
+                new MediaType("text", "csv", StandardCharsets.UTF_8), "estado-cuenta-jose-lema.csv"));
+
+        mockMvc.perform(get("/reportes/jobs/abc/download"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Type", "text/csv;charset=UTF-8"))
+                .andExpect(header().string("Content-Length", "12"))
+                .andExpect(header().string("Content-Disposition", "attachment; filename=\"estado-cuenta-jose-lema.csv\""))
+                .andExpect(content().string("date,client\n"));
+    }
+
+    @Test
+    void downloadJob_WhenNotReady_ShouldReturnConflict() throws Exception {
+        when(reportJobService.getArtifact("abc"))
+                .thenThrow(new ReportJobNotReadyException("El reporte abc no está listo: EN_PROCESO"));
+
+        mockMvc.perform(get("/reportes/jobs/abc/download"))
+                .andExpect(status().isConflict());
+    }
+
+    private ReportJobDTO job(String id, ReportJobStatus status) {
+        LocalDateTime now = LocalDateTime.of(2024, 3, 1, 10, 0);
+        boolean done = status == ReportJobStatus.COMPLETADO;
+        return new ReportJobDTO(id, status, 1L, "pdf", true, now,
+                done ? now : null, done ? now : null, done ? now.plusHours(1) : null,
+                done ? "estado-cuenta-jose-lema.pdf.gz" : null, done ? 2048L : null, null);
+    }
+}
@@ -0,0 +1,36 @@
+package com.testdevsu.demo.model;
+
+import com.testdevsu.demo.exception.InvalidAmountException;
+import org.junit.jupiter.api.Test;
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class MoneyTest {
+
+    @Test
+    void toCents_WithUpToTwoDecimals_ShouldBeExact() {
+        assertEquals(1000L, Money.toCents(new BigDecimal("10")));
+        assertEquals(1050L, Money.toCents(new BigDecimal("10.5")));
+        assertEquals(-1001L, Money.toCents(new BigDecimal("-10.01")));
+        assertEquals(1050L, Money.toCents(new BigDecimal("10.500")));
+    }
+
+    @Test
+    void toCents_WithMoreThanTwoDecimals_ShouldBeRejected() {
+        assertThrows(InvalidAmountException.class, () -> Money.toCents(new BigDecimal("10.005")));
+        assertThrows(InvalidAmountException.class, () -> Money.toCents(new BigDecimal("0.001")));
+    }
+
+    @Test
+    void toCents_OutOfLongRange_ShouldBeRejected() {
+        assertThrows(InvalidAmountException.class, () -> Money.toCents(new BigDecimal("1E+18")));
+    }
+
+    @Test
+    void toAmount_ShouldKeepTwoDecimals() {
+        assertEquals(new BigDecimal("10.05"), Money.toAmount(1005L));
+        assertEquals(new BigDecimal("-0.50"), Money.toAmount(-50L));
+    }
+}
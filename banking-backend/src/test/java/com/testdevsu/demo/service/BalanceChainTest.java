@@ -0,0 +1,169 @@
+package com.testdevsu.demo.service;
+
+import com.testdevsu.demo.dto.AccountRequestDTO;
+import com.testdevsu.demo.dto.MovementRequestDTO;
+import com.testdevsu.demo.exception.InsufficientBalanceException;
+import com.testdevsu.demo.model.MovementType;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:${random.uuid};MODE=MySQL;DB_CLOSE_DELAY=-1;NON_KEYWORDS=VALUE,DAY")
+class BalanceChainTest {
+
+    private static final LocalDate DAY = LocalDate.now().minusDays(5);
+
+    @Autowired
+    private ClientService clientService;
+
+    @Autowired
+    private AccountService accountService;
+
+    @Autowired
+    private MovementService movementService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void sameDayReordering_ShouldRechainInDateAndIdOrder() {
+        Long accountId = TestAccounts.createAccount(clientService, accountService, "100.00");
+        Long first = post(accountId, DAY.atTime(10, 0), MovementType.DEPOSITO, "50.00");
+        Long second = post(accountId, DAY.atTime(11, 0), MovementType.RETIRO, "30.00");
+        Long third = post(accountId, DAY.atTime(12, 0), MovementType.DEPOSITO, "20.00");
+
+        // El último pasa a ser el primero del día
+        movementService.partialUpdateMovement(third, new MovementRequestDTO(DAY.atTime(9, 0), null, null, null));
+        assertEquals(List.of(third, first, second), order(accountId));
+        assertEquals(List.of("120.00", "170.00", "140.00"), balances(accountId));
+
+        // Misma hora que otro: el empate lo decide el id
+        movementService.partialUpdateMovement(second, new MovementRequestDTO(DAY.atTime(9, 0), null, null, null));
+        assertEquals(List.of(second, third, first), order(accountId));
+        assertEquals(List.of("70.00", "90.00", "140.00"), balances(accountId));
+
+        // Un retroactivo del mismo día queda detrás de los de su misma hora
+        Long backdated = post(accountId, DAY.atTime(9, 0), MovementType.RETIRO, "5.00");
+        assertEquals(List.of(second, third, backdated, first), order(accountId));
+        assertChained(accountId, "135.00");
+    }
+
+    @Test
+    void changesLeavingLaterBalanceNegative_ShouldBeRejectedWithoutChanges() {
+        Long accountId = TestAccounts.createAccount(clientService, accountService, "100.00");
+        Long deposit = post(accountId, DAY.atTime(10, 0), MovementType.DEPOSITO, "500.00");
+        post(accountId, DAY.plusDays(1).atTime(10, 0), MovementType.RETIRO, "550.00");
+        List<String> before = balances(accountId);
+
+        assertThrows(InsufficientBalanceException.class, () -> movementService.partialUpdateMovement(deposit,
+                new MovementRequestDTO(null, null, new BigDecimal("100.00"), null)));
+        assertThrows(InsufficientBalanceException.class, () -> movementService.partialUpdateMovement(deposit,
+                new MovementRequestDTO(DAY.plusDays(2).atTime(10, 0), null, null, null)));
+        assertThrows(InsufficientBalanceException.class, () -> movementService.deleteMovement(deposit));
+        assertThrows(InsufficientBalanceException.class, () -> post(accountId, DAY.minusDays(1).atTime(10, 0), MovementType.RETIRO, "60.00"));
+
+        assertEquals(before, balances(accountId));
+        assertChained(accountId, "50.00");
+    }
+
+    @Test
+    void delete_ShouldRechainLaterMovementsFromPredecessor() {
+        Long accountId = TestAccounts.createAccount(clientService, accountService, "100.00");
+        Long first = post(accountId, DAY.atTime(8, 0), MovementType.DEPOSITO, "10.00");
+        Long second = post(accountId, DAY.atTime(9, 0), MovementType.RETIRO, "40.00");
+        post(accountId, DAY.atTime(9, 0), MovementType.DEPOSITO, "25.00");
+        post(accountId, DAY.plusDays(1).atTime(9, 0), MovementType.DEPOSITO, "5.00");
+
+        movementService.deleteMovement(second);
+        assertEquals(List.of("110.00", "135.00", "140.00"), balances(accountId));
+
+        // Sin predecesor, la cadena parte del saldo inicial
+        movementService.deleteMovement(first);
+        assertEquals(List.of("125.00", "130.00"), balances(accountId));
+        assertChained(accountId, "130.00");
+    }
+
+    @Test
+    void moveToAnotherAccount_ShouldRechainBothAccounts() {
+        Long clientId = TestAccounts.createClient(clientService);
+        Long source = TestAccounts.createAccount(accountService, clientId, "100.00");
+        Long target = TestAccounts.createAccount(accountService, clientId, "10.00");
+        post(source, DAY.atTime(8, 0), MovementType.DEPOSITO, "10.00");
+        Long moved = post(source, DAY.atTime(9, 0), MovementType.DEPOSITO, "30.00");
+        post(source, DAY.atTime(10, 0), MovementType.RETIRO, "20.00");
+        post(target, DAY.atTime(8, 30), MovementType.RETIRO, "5.00");
+        post(target, DAY.atTime(9, 30), MovementType.DEPOSITO, "1.00");
+
+        movementService.updateMovement(moved, new MovementRequestDTO(DAY.atTime(9, 0), MovementType.DEPOSITO, new BigDecimal("35.00"), target));
+
+        assertEquals(List.of("110.00", "90.00"), balances(source));
+        assertEquals(List.of("5.00", "40.00", "41.00"), balances(target));
+        assertChained(source, "90.00");
+        assertChained(target, "41.00");
+    }
+
+    @Test
+    void changeInitialBalance_ShouldShiftWholeChain() {
+        Long accountId = TestAccounts.createAccount(clientService, accountService, "100.00");
+        post(accountId, DAY.atTime(10, 0), MovementType.RETIRO, "80.00");
+        post(accountId, DAY.plusDays(1).atTime(10, 0), MovementType.DEPOSITO, "30.00");
+
+        accountService.partialUpdateAccount(accountId, initialBalance("150.00"));
+        assertEquals(List.of("70.00", "100.00"), balances(accountId));
+        assertChained(accountId, "100.00");
+
+        // Un retroactivo posterior parte del nuevo saldo inicial
+        post(accountId, DAY.minusDays(1).atTime(10, 0), MovementType.RETIRO, "60.00");
+        assertEquals(List.of("90.00", "10.00", "40.00"), balances(accountId));
+        assertChained(accountId, "40.00");
+    }
+
+    @Test
+    void changeInitialBalance_LeavingLaterBalanceNegative_ShouldBeRejectedWithoutChanges() {
+        Long accountId = TestAccounts.createAccount(clientService, accountService, "100.00");
+        post(accountId, DAY.atTime(10, 0), MovementType.RETIRO, "80.00");
+        post(accountId, DAY.plusDays(1).atTime(10, 0), MovementType.DEPOSITO, "30.00");
+
+        assertThrows(InsufficientBalanceException.class,
+                () -> accountService.partialUpdateAccount(accountId, initialBalance("70.00")));
+
+        assertEquals(List.of("20.00", "50.00"), balances(accountId));
+        assertChained(accountId, "50.00");
+    }
+
+    private static AccountRequestDTO initialBalance(String amount) {
+        return new AccountRequestDTO(null, null, new BigDecimal(amount), null, null);
+    }
+
+    private Long post(Long accountId, LocalDateTime date, MovementType type, String value) {
+        return movementService.createMovement(new MovementRequestDTO(date, type, new BigDecimal(value), accountId)).getId();
+    }
+
+    private List<Long> order(Long accountId) {
+        return jdbcTemplate.queryForList("SELECT id FROM movement WHERE account_id = ? ORDER BY date, id", Long.class, accountId);
+    }
+
+    private List<String> balances(Long accountId) {
+        return jdbcTemplate.queryForList("SELECT balance FROM movement WHERE account_id = ? ORDER BY date, id",
+                BigDecimal.class, accountId).stream().map(balance -> balance.setScale(2).toPlainString()).toList();
+    }
+
+    // Cada saldo es el anterior más su valor, y el último es el saldo corriente de la cuenta
+    private void assertChained(Long accountId, String currentBalance) {
+        BigDecimal balance = jdbcTemplate.queryForObject("SELECT initial_balance FROM account WHERE id = ?", BigDecimal.class, accountId);
+        for (var row : jdbcTemplate.queryForList("SELECT value, balance FROM movement WHERE account_id = ? ORDER BY date, id", accountId)) {
+            balance = balance.add((BigDecimal) row.get("VALUE"));
+            assertEquals(0, balance.compareTo((BigDecimal) row.get("BALANCE")));
+        }
+        assertEquals(0, balance.compareTo(new BigDecimal(currentBalance)));
+        assertEquals(0, accountService.getAccountById(accountId).getCurrentBalance().compareTo(new BigDecimal(currentBalance)));
+    }
+}
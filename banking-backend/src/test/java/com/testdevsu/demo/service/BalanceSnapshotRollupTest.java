@@ -0,0 +1,136 @@
+package com.testdevsu.demo.service;
+
+import com.testdevsu.demo.dto.AccountReportDTO;
+import com.testdevsu.demo.dto.AccountRequestDTO;
+import com.testdevsu.demo.dto.MovementRequestDTO;
+import com.testdevsu.demo.model.DailyBalanceSnapshot;
+import com.testdevsu.demo.model.Money;
+import com.testdevsu.demo.model.MovementType;
+import com.testdevsu.demo.repository.BalanceSnapshotWatermarkRepository;
+import com.testdevsu.demo.repository.DailyBalanceSnapshotRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// Un movimiento retroactivo baja la marca, borra los resúmenes desde su día y el cierre siguiente los reconstruye
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:${random.uuid};MODE=MySQL;DB_CLOSE_DELAY=-1;NON_KEYWORDS=VALUE,DAY",
+        "banking.report-cache.maximum-entry-bytes=1"
+})
+class BalanceSnapshotRollupTest {
+
+    private static final LocalDate TODAY = LocalDate.now();
+    private static final LocalDate YESTERDAY = TODAY.minusDays(1);
+
+    @Autowired
+    private ClientService clientService;
+
+    @Autowired
+    private AccountService accountService;
+
+    @Autowired
+    private MovementService movementService;
+
+    @Autowired
+    private ReportService reportService;
+
+    @Autowired
+    private BalanceSnapshotRollup rollup;
+
+    @Autowired
+    private DailyBalanceSnapshotRepository snapshotRepository;
+
+    @Autowired
+    private BalanceSnapshotWatermarkRepository watermarkRepository;
+
+    @Test
+    void createMovement_OnSummarizedDay_ShouldInvalidateAndRollUpAgain() {
+        Long clientId = TestAccounts.createClient(clientService);
+        Long accountId = TestAccounts.createAccount(accountService, clientId, "1000.00");
+        for (int daysAgo = 6; daysAgo >= 3; daysAgo--) {
+            post(accountId, TODAY.minusDays(daysAgo).atTime(10, 0), MovementType.DEPOSITO, "100.00");
+            post(accountId, TODAY.minusDays(daysAgo).atTime(15, 0), MovementType.RETIRO, "30.00");
+        }
+
+        rollup.rollUpThrough(YESTERDAY);
+        assertEquals(Optional.of(YESTERDAY), watermarkRepository.findThroughDay(accountId));
+        assertEquals(4, snapshots(accountId).size());
+
+        LocalDate backdated = TODAY.minusDays(5);
+        post(accountId, backdated.atTime(9, 0), MovementType.DEPOSITO, "50.00");
+
+        assertEquals(Optional.of(backdated.minusDays(1)), watermarkRepository.findThroughDay(accountId));
+        assertEquals(List.of(TODAY.minusDays(6)), snapshots(accountId).stream().map(DailyBalanceSnapshot::getDay).toList());
+        // Mientras tanto los días sin resumen se suman desde movement
+        assertSummary(clientId, "450.00", "120.00", "1330.00");
+
+        rollup.rollUpThrough(YESTERDAY);
+
+        assertEquals(Optional.of(YESTERDAY), watermarkRepository.findThroughDay(accountId));
+        List<DailyBalanceSnapshot> snapshots = snapshots(accountId);
+        assertEquals(4, snapshots.size());
+        DailyBalanceSnapshot rebuilt = snapshots.get(1);
+        assertEquals(backdated, rebuilt.getDay());
+        assertEquals(Money.toCents(new BigDecimal("1070.00")), rebuilt.getOpening());
+        assertEquals(Money.toCents(new BigDecimal("150.00")), rebuilt.getCredits());
+        assertEquals(Money.toCents(new BigDecimal("30.00")), rebuilt.getDebits());
+        assertEquals(Money.toCents(new BigDecimal("1190.00")), rebuilt.getClosing());
+        for (int i = 1; i < snapshots.size(); i++) {
+            assertEquals(snapshots.get(i - 1).getClosing(), snapshots.get(i).getOpening());
+        }
+        assertEquals(Money.toCents(new BigDecimal("1330.00")), snapshots.get(snapshots.size() - 1).getClosing());
+        assertSummary(clientId, "450.00", "120.00", "1330.00");
+    }
+
+    @Test
+    void changeInitialBalance_OnSummarizedAccount_ShouldInvalidateAndRollUpAgain() {
+        Long clientId = TestAccounts.createClient(clientService);
+        Long accountId = TestAccounts.createAccount(accountService, clientId, "1000.00");
+        post(accountId, TODAY.minusDays(4).atTime(10, 0), MovementType.DEPOSITO, "100.00");
+        post(accountId, TODAY.minusDays(3).atTime(10, 0), MovementType.RETIRO, "30.00");
+        rollup.rollUpThrough(YESTERDAY);
+        assertEquals(2, snapshots(accountId).size());
+
+        accountService.partialUpdateAccount(accountId,
+                new AccountRequestDTO(null, null, new BigDecimal("400.00"), null, null));
+
+        assertEquals(Optional.of(TODAY.minusDays(5)), watermarkRepository.findThroughDay(accountId));
+        assertEquals(List.of(), snapshots(accountId));
+        assertSummary(clientId, "100.00", "30.00", "470.00");
+
+        rollup.rollUpThrough(YESTERDAY);
+
+        List<DailyBalanceSnapshot> snapshots = snapshots(accountId);
+        assertEquals(Money.toCents(new BigDecimal("400.00")), snapshots.get(0).getOpening());
+        assertEquals(Money.toCents(new BigDecimal("470.00")), snapshots.get(1).getClosing());
+        assertSummary(clientId, "100.00", "30.00", "470.00");
+    }
+
+    private void post(Long accountId, LocalDateTime date, MovementType type, String value) {
+        movementService.createMovement(new MovementRequestDTO(date, type, new BigDecimal(value), accountId));
+    }
+
+    private List<DailyBalanceSnapshot> snapshots(Long accountId) {
+        return snapshotRepository.findAll().stream()
+                .filter(snapshot -> snapshot.getAccountId().equals(accountId))
+                .sorted(Comparator.comparing(DailyBalanceSnapshot::getDay))
+                .toList();
+    }
+
+    private void assertSummary(Long clientId, String credits, String debits, String closing) {
+        AccountReportDTO account = reportService.generateAccountSummary(clientId,
+                TODAY.minusDays(10).atStartOfDay(), YESTERDAY.atTime(LocalTime.MAX)).getAccounts().get(0);
+        assertEquals(new BigDecimal(credits), account.getTotalCredits().setScale(2));
+        assertEquals(new BigDecimal(debits), account.getTotalDebits().setScale(2));
+        assertEquals(new BigDecimal(closing), account.getAvailableBalance().setScale(2));
+    }
+}
@@ -0,0 +1,178 @@
+package com.testdevsu.demo.service;
+
+import com.testdevsu.demo.config.DailyWithdrawalTotalBackfill;
+import com.testdevsu.demo.dto.MovementRequestDTO;
+import com.testdevsu.demo.exception.DailyLimitExceededException;
+import com.testdevsu.demo.model.MovementType;
+import com.testdevsu.demo.repository.DailyWithdrawalTotalRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+// El acumulado diario de retiros tiene que coincidir siempre con la suma de los retiros de cada día
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:${random.uuid};MODE=MySQL;DB_CLOSE_DELAY=-1;NON_KEYWORDS=VALUE,DAY")
+class DailyWithdrawalTotalTest {
+
+    private static final LocalDate FIRST_DAY = LocalDate.now().minusDays(3);
+    private static final LocalDate SECOND_DAY = FIRST_DAY.plusDays(1);
+
+    @Autowired
+    private ClientService clientService;
+
+    @Autowired
+    private AccountService accountService;
+
+    @Autowired
+    private MovementService movementService;
+
+    @Autowired
+    private DailyWithdrawalTotalRepository dailyWithdrawalTotalRepository;
+
+    @Autowired
+    private DailyWithdrawalTotalBackfill backfill;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    void backfill_FromExistingMovements_ShouldMatchWithdrawalSums() {
+        Long accountId = TestAccounts.createAccount(clientService, accountService, "3000.00");
+        withdraw(accountId, FIRST_DAY.atTime(9, 0), "120.50");
+        withdraw(accountId, FIRST_DAY.atTime(17, 0), "80.00");
+        movementService.createMovement(new MovementRequestDTO(FIRST_DAY.atTime(12, 0), MovementType.DEPOSITO, new BigDecimal("500.00"), accountId));
+        withdraw(accountId, SECOND_DAY.atTime(8, 30), "999.99");
+
+        jdbcTemplate.update("DELETE FROM daily_withdrawal_total");
+        backfill.run(null);
+
+        assertEquals(withdrawalSums(accountId), runningTotals(accountId));
+        assertEquals(Map.of(FIRST_DAY, new BigDecimal("200.50"), SECOND_DAY, new BigDecimal("999.99")), runningTotals(accountId));
+    }
+
+    // El upsert nativo (ON DUPLICATE KEY UPDATE) crea la fila en cero una sola vez y no pisa un acumulado existente
+    @Test
+    void ensureExists_CalledTwice_ShouldKeepRunningTotal() {
+        Long accountId = TestAccounts.createAccount(clientService, accountService, "1000.00");
+        LocalDate emptyDay = FIRST_DAY.minusDays(1);
+        withdraw(accountId, FIRST_DAY.atTime(10, 0), "300.00");
+
+        transactionTemplate.executeWithoutResult(status -> {
+            dailyWithdrawalTotalRepository.ensureExists(accountId, FIRST_DAY);
+            dailyWithdrawalTotalRepository.ensureExists(accountId, emptyDay);
+            dailyWithdrawalTotalRepository.ensureExists(accountId, emptyDay);
+        });
+
+        assertEquals(new BigDecimal("300.00"), total(accountId, FIRST_DAY));
+        assertEquals(new BigDecimal("0.00"), total(accountId, emptyDay));
+        assertEquals(2, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM daily_withdrawal_total WHERE account_id = ?", Integer.class, accountId));
+    }
+
+    @Test
+    void concurrentWithdrawals_SameDay_ShouldStopAtDailyLimit() throws Exception {
+        Long accountId = TestAccounts.createAccount(clientService, accountService, "5000.00");
+        LocalDateTime date = SECOND_DAY.atTime(11, 0);
+        AtomicInteger accepted = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+
+        List<Callable<Void>> tasks = new ArrayList<>();
+        for (int i = 0; i < 16; i++) {
+            tasks.add(() -> {
+                try {
+                    withdraw(accountId, date, "100.00");
+                    accepted.incrementAndGet();
+                } catch (DailyLimitExceededException e) {
+                    rejected.incrementAndGet();
+                }
+                return null;
+            });
+        }
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            for (Future<Void> future : executor.invokeAll(tasks, 60, TimeUnit.SECONDS)) {
+                future.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(10, accepted.get());
+        assertEquals(6, rejected.get());
+        assertEquals(Map.of(SECOND_DAY, new BigDecimal("1000.00")), runningTotals(accountId));
+        assertEquals(withdrawalSums(accountId), runningTotals(accountId));
+    }
+
+    @Test
+    void backdatedEditAndDelete_ShouldMoveWithdrawalBetweenDays() {
+        Long accountId = TestAccounts.createAccount(clientService, accountService, "3000.00");
+        Long early = withdraw(accountId, FIRST_DAY.atTime(9, 0), "400.00");
+        Long late = withdraw(accountId, SECOND_DAY.atTime(9, 0), "700.00");
+        withdraw(accountId, SECOND_DAY.atTime(15, 0), "250.00");
+
+        // Pasa al primer día con otro monto: libera el cupo del segundo y consume el del primero
+        movementService.updateMovement(late, new MovementRequestDTO(FIRST_DAY.atTime(12, 0), MovementType.RETIRO, new BigDecimal("500.00"), accountId));
+        assertEquals(Map.of(FIRST_DAY, new BigDecimal("900.00"), SECOND_DAY, new BigDecimal("250.00")), runningTotals(accountId));
+        assertEquals(withdrawalSums(accountId), runningTotals(accountId));
+
+        // Con 900 consumidos el primer día no admite 200 más
+        assertThrows(DailyLimitExceededException.class, () -> withdraw(accountId, FIRST_DAY.atTime(18, 0), "200.00"));
+
+        movementService.partialUpdateMovement(early, new MovementRequestDTO(SECOND_DAY.atTime(10, 0), null, null, null));
+        movementService.deleteMovement(late);
+        assertEquals(Map.of(SECOND_DAY, new BigDecimal("650.00")), runningTotals(accountId));
+        assertEquals(withdrawalSums(accountId), runningTotals(accountId));
+
+        withdraw(accountId, FIRST_DAY.atTime(18, 0), "200.00");
+        assertEquals(withdrawalSums(accountId), runningTotals(accountId));
+    }
+
+    private Long withdraw(Long accountId, LocalDateTime date, String value) {
+        return movementService.createMovement(new MovementRequestDTO(date, MovementType.RETIRO, new BigDecimal(value), accountId)).getId();
+    }
+
+    private BigDecimal total(Long accountId, LocalDate day) {
+        return jdbcTemplate.queryForObject("SELECT total FROM daily_withdrawal_total WHERE account_id = ? AND day = ?",
+                BigDecimal.class, accountId, day).setScale(2);
+    }
+
+    // Días con retiros; las filas en cero son días que llegaron a reservarse y luego se liberaron
+    private Map<LocalDate, BigDecimal> runningTotals(Long accountId) {
+        return byDay("SELECT day, total FROM daily_withdrawal_total WHERE account_id = ? AND total <> 0", accountId);
+    }
+
+    private Map<LocalDate, BigDecimal> withdrawalSums(Long accountId) {
+        return byDay("""
+                SELECT CAST(date AS DATE) AS day, SUM(-value) AS total FROM movement
+                WHERE account_id = ? AND value < 0 GROUP BY CAST(date AS DATE)
+                """, accountId);
+    }
+
+    private Map<LocalDate, BigDecimal> byDay(String sql, Long accountId) {
+        Map<LocalDate, BigDecimal> totals = new TreeMap<>();
+        jdbcTemplate.query(sql, rs -> {
+            totals.put(rs.getObject("day", LocalDate.class), rs.getBigDecimal("total").setScale(2));
+        }, accountId);
+        return totals;
+    }
+}
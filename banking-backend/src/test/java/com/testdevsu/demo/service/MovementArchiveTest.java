@@ -0,0 +1,125 @@
+package com.testdevsu.demo.service;
+
+import com.testdevsu.demo.exception.ArchivedPeriodException;
+import com.testdevsu.demo.model.MovementType;
+import com.testdevsu.demo.service.BalanceSnapshots.PeriodTotals;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Meses publicados en el directorio y leídos de vuelta por el archivo, también tras reabrirlo como en un reinicio
+class MovementArchiveTest {
+
+    private static final YearMonth MARCH = YearMonth.of(2025, 3);
+    private static final YearMonth APRIL = MARCH.plusMonths(1);
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void movementsAndTotals_AfterPublishing_ShouldReadBackAcrossMonths() throws IOException {
+        MovementArchive archive = new MovementArchive(directory);
+        publish(archive, MARCH, List.of(
+                record(1, 10, MARCH.atDay(3).atTime(9, 0), 50_000, 150_000),
+                record(2, 10, MARCH.atDay(3).atTime(15, 0), -20_000, 130_000),
+                record(3, 10, MARCH.atDay(20).atTime(10, 0), -130_000, 0),
+                record(4, 20, MARCH.atDay(5).atTime(12, 0), -1_500, 8_500)));
+        publish(archive, APRIL, List.of(record(5, 10, APRIL.atDay(1).atStartOfDay(), 7_000, 7_000)));
+
+        List<MovementRecord> rows = new ArrayList<>();
+        archive.movements(List.of(20L, 10L, 30L), MARCH.atDay(3).atTime(12, 0), APRIL.atEndOfMonth().atStartOfDay())
+                .forEachRemaining(rows::add);
+        assertEquals(List.of(2L, 3L, 5L, 4L), rows.stream().map(MovementRecord::id).toList());
+
+        Map<Long, PeriodTotals> totals = archive.totals(List.of(10L, 20L, 30L),
+                MARCH.atDay(1).atStartOfDay(), APRIL.atEndOfMonth().atTime(23, 59));
+        assertEquals(new PeriodTotals(57_000, 150_000), totals.get(10L));
+        assertEquals(new PeriodTotals(0, 1_500), totals.get(20L));
+        // Una cuenta sin movimientos archivados no aparece en los totales
+        assertFalse(totals.containsKey(30L));
+
+        assertEquals(Optional.of(150_000L), archive.balanceBefore(10, MARCH.atDay(3).atTime(15, 0), 2));
+        assertEquals(Optional.empty(), archive.balanceBefore(10, MARCH.atDay(3).atTime(9, 0), 1));
+        assertEquals(Optional.empty(), archive.balanceBefore(30, MARCH.atDay(3).atTime(15, 0), 0));
+    }
+
+    @Test
+    void constructor_AfterRestart_ShouldMapPublishedMonthsAndDropUnpublished() throws IOException {
+        MovementArchive archive = new MovementArchive(directory);
+        publish(archive, MARCH, List.of(record(1, 10, MARCH.atDay(3).atTime(9, 0), -2_500, 97_500)));
+        // Un segmento que no llegó a publicarse
+        MovementArchive.Writer abandoned = archive.writer(APRIL);
+        abandoned.add(record(2, 10, APRIL.atDay(2).atTime(9, 0), 1_000, 98_500));
+        Files.copy(directory.resolve("movements-202504.seg.tmp"), directory.resolve("movements-202505.seg.tmp"));
+        abandoned.close();
+
+        MovementArchive reopened = new MovementArchive(directory);
+
+        assertEquals(Set.of(MARCH), reopened.months());
+        assertEquals(Optional.of(MARCH), reopened.lastArchivedMonth());
+        assertFalse(Files.exists(directory.resolve("movements-202505.seg.tmp")));
+        List<MovementRecord> rows = new ArrayList<>();
+        reopened.movements(List.of(10L), MARCH.atDay(1).atStartOfDay(), APRIL.atEndOfMonth().atStartOfDay())
+                .forEachRemaining(rows::add);
+        assertEquals(List.of(record(1, 10, MARCH.atDay(3).atTime(9, 0), -2_500, 97_500)), rows);
+        assertThrows(ArchivedPeriodException.class, () -> reopened.ensureOpen(MARCH.atEndOfMonth().atTime(23, 0)));
+        assertDoesNotThrow(() -> reopened.ensureOpen(APRIL.atDay(1).atStartOfDay()));
+    }
+
+    @Test
+    void liveFrom_ShouldSplitPeriodAtFirstUnarchivedMonth() throws IOException {
+        MovementArchive archive = new MovementArchive(directory);
+        LocalDateTime inMarch = MARCH.atDay(10).atStartOfDay();
+        assertEquals(inMarch, archive.liveFrom(inMarch));
+
+        publish(archive, MARCH, List.of(record(1, 10, MARCH.atDay(3).atTime(9, 0), 1_000, 1_000)));
+
+        LocalDateTime firstLive = APRIL.atDay(1).atStartOfDay();
+        assertEquals(firstLive, archive.liveFrom(inMarch));
+        assertEquals(firstLive.plusDays(2), archive.liveFrom(firstLive.plusDays(2)));
+        assertEquals(firstLive.minusNanos(1_000), MovementArchive.archivedUntil(firstLive.plusDays(5), firstLive));
+        assertEquals(inMarch, MovementArchive.archivedUntil(inMarch, firstLive));
+    }
+
+    @Test
+    void closeAndReopen_ShouldRejectWritesOnlyWhileArchiving() throws IOException {
+        MovementArchive archive = new MovementArchive(directory);
+        LocalDateTime inApril = APRIL.atDay(15).atTime(10, 0);
+        publish(archive, MARCH, List.of());
+
+        archive.close(APRIL);
+        assertThrows(ArchivedPeriodException.class, () -> archive.ensureOpen(inApril));
+        archive.reopen();
+        assertDoesNotThrow(() -> archive.ensureOpen(inApril));
+        assertTrue(archive.contains(MARCH));
+    }
+
+    private static void publish(MovementArchive archive, YearMonth month, List<MovementRecord> rows) throws IOException {
+        try (MovementArchive.Writer writer = archive.writer(month)) {
+            for (MovementRecord row : rows) {
+                writer.add(row);
+            }
+            assertEquals(rows.size(), writer.publish());
+        }
+    }
+
+    private static MovementRecord record(long id, long accountId, LocalDateTime date, long value, long balance) {
+        return new MovementRecord(id, accountId, date, value < 0 ? MovementType.RETIRO : MovementType.DEPOSITO,
+                value, balance);
+    }
+}
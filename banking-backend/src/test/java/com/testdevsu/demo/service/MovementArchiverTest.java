@@ -0,0 +1,215 @@
+package com.testdevsu.demo.service;
+
+import com.testdevsu.demo.dto.AccountReportDTO;
+import com.testdevsu.demo.dto.AccountRequestDTO;
+import com.testdevsu.demo.dto.MovementPageDTO;
+import com.testdevsu.demo.dto.MovementRequestDTO;
+import com.testdevsu.demo.dto.MovementResponseDTO;
+import com.testdevsu.demo.exception.ArchivedPeriodException;
+import com.testdevsu.demo.exception.ResourceNotFoundException;
+import com.testdevsu.demo.model.Money;
+import com.testdevsu.demo.model.MovementType;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+// Meses archivados de punta a punta: los reportes no cambian, tampoco con las filas del mes todavía en movement,
+// y con otra instancia activa no se archiva
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:${random.uuid};MODE=MySQL;DB_CLOSE_DELAY=-1;NON_KEYWORDS=VALUE,DAY",
+        "banking.report-cache.maximum-entry-bytes=1"
+})
+class MovementArchiverTest {
+
+    private static final YearMonth FIRST_RETAINED = YearMonth.now().minusMonths(1);
+
+    @TempDir
+    Path emptyDirectory;
+
+    @Autowired
+    private ClientService clientService;
+
+    @Autowired
+    private AccountService accountService;
+
+    @Autowired
+    private MovementService movementService;
+
+    @Autowired
+    private ReportService reportService;
+
+    @Autowired
+    private BalanceSnapshotRollup rollup;
+
+    @Autowired
+    private MovementArchiver archiver;
+
+    @Autowired
+    private MovementArchive archive;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void archiveBefore_ShouldMoveOldMonthsWithoutChangingReports() throws IOException {
+        Long clientId = TestAccounts.createClient(clientService);
+        List<Long> accountIds = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            accountIds.add(TestAccounts.createAccount(accountService, clientId, "1000.00"));
+        }
+        // La tercera cuenta queda sin movimientos
+        LocalDateTime date = FIRST_RETAINED.minusMonths(2).atDay(1).atTime(9, 0);
+        for (int i = 0; date.isBefore(LocalDateTime.now().minusHours(1)); i++, date = date.plusHours(29)) {
+            boolean deposit = i % 3 != 2;
+            movementService.createMovement(new MovementRequestDTO(date,
+                    deposit ? MovementType.DEPOSITO : MovementType.RETIRO,
+                    new BigDecimal(deposit ? "12.34" : "5.01"), accountIds.get(i % 2)));
+        }
+        rollup.rollUpThrough(LocalDate.now().minusDays(1));
+        String before = reports(clientId);
+        String historyBefore = history(accountIds);
+        long liveBefore = countLive();
+
+        assertEquals(2, archiver.archiveBefore(FIRST_RETAINED));
+
+        assertEquals(0, countLiveBefore(FIRST_RETAINED));
+        long archived = archivedRows(FIRST_RETAINED.minusMonths(2)) + archivedRows(FIRST_RETAINED.minusMonths(1));
+        assertEquals(liveBefore, countLive() + archived);
+        assertEquals(before, reports(clientId));
+        assertEquals(historyBefore, history(accountIds));
+
+        // Como tras una caída entre publicar el segmento y borrar sus filas: nada se cuenta dos veces
+        YearMonth last = FIRST_RETAINED.minusMonths(1);
+        archive.segment(last).orElseThrow().forEach(record -> jdbcTemplate.update(
+                "INSERT INTO movement (id, account_id, date, movement_type, value, balance) VALUES (?, ?, ?, ?, ?, ?)",
+                record.id(), record.accountId(), Timestamp.valueOf(record.date()), record.movementType().getCode(),
+                Money.toAmount(record.value()), Money.toAmount(record.balance())));
+        assertEquals(archivedRows(last), countLiveBefore(FIRST_RETAINED));
+        assertEquals(before, reports(clientId));
+        assertEquals(historyBefore, history(accountIds));
+
+        // La pasada siguiente borra lo que quedó
+        assertEquals(0, archiver.archiveBefore(FIRST_RETAINED));
+        assertEquals(0, countLiveBefore(FIRST_RETAINED));
+        assertEquals(before, reports(clientId));
+
+        // Un movimiento archivado se sigue leyendo por id, pero ya no admite cambios
+        MovementRecord oldest = archive.segment(FIRST_RETAINED.minusMonths(2)).orElseThrow().read(accountIds.get(0)).get(0);
+        MovementResponseDTO found = movementService.getMovementById(oldest.id());
+        assertEquals(oldest.date(), found.getDate());
+        assertEquals(0, Money.toAmount(oldest.balance()).compareTo(found.getBalance()));
+        assertThrows(ArchivedPeriodException.class, () -> movementService.deleteMovement(oldest.id()));
+        assertThrows(ResourceNotFoundException.class, () -> movementService.getMovementById(Long.MAX_VALUE));
+
+        // Los saldos archivados no se reescriben: solo la cuenta sin movimientos admite otro saldo inicial
+        assertThrows(ArchivedPeriodException.class, () -> accountService.partialUpdateAccount(accountIds.get(0),
+                new AccountRequestDTO(null, null, new BigDecimal("900.00"), null, null)));
+        assertEquals(before, reports(clientId));
+        accountService.partialUpdateAccount(accountIds.get(2),
+                new AccountRequestDTO(null, null, new BigDecimal("900.00"), null, null));
+        assertEquals(0, new BigDecimal("900.00").compareTo(accountService.getAccountById(accountIds.get(2)).getCurrentBalance()));
+    }
+
+    @Test
+    void archiveBefore_WithAnotherInstanceActive_ShouldNotArchive() {
+        Long accountId = TestAccounts.createAccount(clientService, accountService, "1000.00");
+        movementService.createMovement(new MovementRequestDTO(FIRST_RETAINED.atDay(10).atTime(10, 0),
+                MovementType.DEPOSITO, new BigDecimal("10.00"), accountId));
+        rollup.rollUpThrough(LocalDate.now().minusDays(1));
+        String otherInstance = UUID.randomUUID().toString();
+        jdbcTemplate.update("INSERT INTO movement_archive_node (instance_id, beat) VALUES (?, ?)",
+                otherInstance, Timestamp.valueOf(LocalDateTime.now()));
+        long live = countLive();
+
+        try {
+            assertEquals(0, archiver.archiveBefore(YearMonth.now()));
+            assertEquals(live, countLive());
+        } finally {
+            jdbcTemplate.update("DELETE FROM movement_archive_node WHERE instance_id = ?", otherInstance);
+        }
+    }
+
+    @Test
+    void run_WithDirectoryMissingArchivedMonths_ShouldRefuseToStart() {
+        jdbcTemplate.update("INSERT INTO movement_archive_month (archived_month) VALUES (?)", "2001-01");
+        try {
+            MovementArchiveNodes nodes = new MovementArchiveNodes(jdbcTemplate, new MovementArchive(emptyDirectory), 60_000);
+
+            assertThrows(IllegalStateException.class, () -> nodes.run(null));
+        } finally {
+            jdbcTemplate.update("DELETE FROM movement_archive_month WHERE archived_month = ?", "2001-01");
+        }
+    }
+
+    // Resumen y estado de cuenta JSON de varios periodos, con días completos y parciales dentro y fuera del archivo
+    private String reports(Long clientId) throws IOException {
+        YearMonth oldest = FIRST_RETAINED.minusMonths(2);
+        List<LocalDateTime[]> periods = List.of(
+                new LocalDateTime[]{oldest.atDay(1).atStartOfDay(), LocalDate.now().atTime(LocalTime.MAX)},
+                new LocalDateTime[]{oldest.atDay(4).atTime(13, 0), FIRST_RETAINED.atDay(9).atTime(9, 0)},
+                new LocalDateTime[]{oldest.plusMonths(1).atDay(2).atTime(10, 30), oldest.plusMonths(1).atDay(2).atTime(23, 0)},
+                new LocalDateTime[]{oldest.plusMonths(1).atDay(1).atStartOfDay(), oldest.plusMonths(1).atDay(20).atTime(12, 0)});
+        StringBuilder reports = new StringBuilder();
+        for (LocalDateTime[] period : periods) {
+            for (AccountReportDTO account : reportService.generateAccountSummary(clientId, period[0], period[1]).getAccounts()) {
+                reports.append(account.getOpeningBalance()).append(' ').append(account.getTotalCredits()).append(' ')
+                        .append(account.getTotalDebits()).append(' ').append(account.getAvailableBalance()).append('\n');
+            }
+            ByteArrayOutputStream statement = new ByteArrayOutputStream();
+            reportService.generateAccountStatement(clientId, period[0], period[1], "json", false).writeTo(statement);
+            reports.append(statement).append('\n');
+        }
+        return reports.toString();
+    }
+
+    // Historial de cada cuenta recorrido con páginas chicas, para cruzar el límite entre movement y el archivo
+    // a mitad de una página
+    private String history(List<Long> accountIds) {
+        StringBuilder history = new StringBuilder();
+        for (Long accountId : accountIds) {
+            String cursor = null;
+            do {
+                MovementPageDTO page = movementService.getAccountMovements(accountId, cursor, 7);
+                for (MovementResponseDTO movement : page.getItems()) {
+                    history.append(movement.getId()).append(' ').append(movement.getDate()).append(' ')
+                            .append(movement.getMovementType()).append(' ').append(movement.getValue().setScale(2))
+                            .append(' ').append(movement.getBalance().setScale(2)).append('\n');
+                }
+                cursor = page.getNextCursor();
+            } while (cursor != null);
+        }
+        return history.toString();
+    }
+
+    private long countLive() {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM movement", Long.class);
+    }
+
+    private long countLiveBefore(YearMonth month) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM movement WHERE date < ?", Long.class,
+                Timestamp.valueOf(month.atDay(1).atStartOfDay()));
+    }
+
+    private long archivedRows(YearMonth month) {
+        long[] rows = new long[1];
+        archive.segment(month).orElseThrow().forEach(record -> rows[0]++);
+        return rows[0];
+    }
+}
@@ -0,0 +1,80 @@
+package com.testdevsu.demo.service;
+
+import com.testdevsu.demo.dto.MovementBatchResultDTO;
+import com.testdevsu.demo.dto.MovementRequestDTO;
+import com.testdevsu.demo.model.MovementType;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = {"banking.posting.batch-chunk-size=10",
+        "spring.datasource.url=jdbc:h2:mem:${random.uuid};MODE=MySQL;DB_CLOSE_DELAY=-1;NON_KEYWORDS=VALUE,DAY"})
+class MovementBatchTest {
+
+    @Autowired
+    private ClientService clientService;
+
+    @Autowired
+    private AccountService accountService;
+
+    @Autowired
+    private MovementService movementService;
+
+    @Autowired
+    private MovementArchive movementArchive;
+
+    @Test
+    void createMovements_BusinessRejectionsInChunk_ShouldRejectOnlyThoseItems() {
+        Long accountId = TestAccounts.createAccount(clientService, accountService, "2000.00");
+        LocalDateTime archivedDate = LocalDateTime.of(2001, 6, 15, 10, 0);
+
+        movementArchive.close(YearMonth.from(archivedDate));
+        List<MovementBatchResultDTO> results;
+        try {
+            // Todos en el mismo tramo: depósito, retiro sin saldo, retiro sobre el cupo diario, periodo archivado y
+            // retiros válidos
+            results = movementService.createMovements(List.of(
+                    new MovementRequestDTO(null, MovementType.DEPOSITO, new BigDecimal("100.00"), accountId),
+                    new MovementRequestDTO(null, MovementType.RETIRO, new BigDecimal("5000.00"), accountId),
+                    new MovementRequestDTO(null, MovementType.RETIRO, new BigDecimal("900.00"), accountId),
+                    new MovementRequestDTO(null, MovementType.RETIRO, new BigDecimal("200.00"), accountId),
+                    new MovementRequestDTO(archivedDate, MovementType.DEPOSITO, new BigDecimal("10.00"), accountId),
+                    new MovementRequestDTO(null, MovementType.RETIRO, new BigDecimal("50.00"), accountId)));
+        } finally {
+            movementArchive.reopen();
+        }
+
+        assertEquals(List.of("CREATED", "REJECTED", "CREATED", "REJECTED", "REJECTED", "CREATED"),
+                results.stream().map(MovementBatchResultDTO::getStatus).toList());
+        assertEquals("Saldo no disponible", results.get(1).getError());
+        assertEquals("Cupo diario Excedido", results.get(3).getError());
+        assertTrue(results.get(4).getError().contains("archivado"));
+        assertNull(results.get(4).getMovement());
+        assertEquals(0, results.get(5).getMovement().getBalance().compareTo(new BigDecimal("1150.00")));
+
+        assertEquals(0, accountService.getAccountById(accountId).getCurrentBalance().compareTo(new BigDecimal("1150.00")));
+        assertEquals(3, movementService.getAccountMovements(accountId, null, 50).getItems().size());
+    }
+
+    @Test
+    void createMovements_UnknownAccountAndInvalidItem_ShouldNotAffectOtherAccounts() {
+        Long accountId = TestAccounts.createAccount(clientService, accountService, "100.00");
+
+        List<MovementBatchResultDTO> results = movementService.createMovements(List.of(
+                new MovementRequestDTO(null, MovementType.DEPOSITO, new BigDecimal("10.00"), Long.MAX_VALUE),
+                new MovementRequestDTO(null, MovementType.DEPOSITO, null, accountId),
+                new MovementRequestDTO(null, MovementType.DEPOSITO, new BigDecimal("10.00"), accountId)));
+
+        assertEquals(List.of("REJECTED", "REJECTED", "CREATED"),
+                results.stream().map(MovementBatchResultDTO::getStatus).toList());
+        assertEquals(0, accountService.getAccountById(accountId).getCurrentBalance().compareTo(new BigDecimal("110.00")));
+    }
+}
@@ -0,0 +1,200 @@
+package com.testdevsu.demo.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+// Las sentencias que se mandarían a MySQL, sobre un JdbcTemplate simulado con las particiones que informa la base
+class MovementPartitionMaintenanceTest {
+
+    private static final DateTimeFormatter SUFFIX = DateTimeFormatter.ofPattern("yyyyMM");
+    private static final YearMonth CURRENT = YearMonth.now();
+
+    private JdbcTemplate jdbcTemplate;
+    private MovementArchive archive;
+    private MovementPartitionMaintenance maintenance;
+    private List<String[]> partitions;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        jdbcTemplate = mock(JdbcTemplate.class);
+        archive = mock(MovementArchive.class);
+        maintenance = new MovementPartitionMaintenance(jdbcTemplate, archive, 3, 0);
+        partitions = new ArrayList<>();
+        mockDatabase("MySQL");
+
+        ResultSet rs = mock(ResultSet.class);
+        int[] row = new int[1];
+        when(rs.getString(1)).thenAnswer(invocation -> partitions.get(row[0])[0]);
+        when(rs.getString(2)).thenAnswer(invocation -> partitions.get(row[0])[1]);
+        when(jdbcTemplate.query(contains("information_schema.PARTITIONS"), any(RowMapper.class))).thenAnswer(invocation -> {
+            RowMapper<?> mapper = invocation.getArgument(1);
+            List<Object> mapped = new ArrayList<>();
+            for (row[0] = 0; row[0] < partitions.size(); row[0]++) {
+                mapped.add(mapper.mapRow(rs, row[0]));
+            }
+            return mapped;
+        });
+    }
+
+    @Test
+    void maintain_WithMonthsAhead_ShouldSplitOnlyMissingMonthsFromMax() {
+        partition(CURRENT.minusMonths(1));
+        partition(CURRENT);
+        partition(CURRENT.plusMonths(1));
+        partitions.add(new String[]{"pmax", "MAXVALUE"});
+
+        maintenance.maintain();
+
+        verify(jdbcTemplate).execute("ALTER TABLE movement REORGANIZE PARTITION pmax INTO ("
+                + definition(CURRENT.plusMonths(2)) + ", " + definition(CURRENT.plusMonths(3))
+                + ", PARTITION pmax VALUES LESS THAN (MAXVALUE))");
+    }
+
+    @Test
+    void maintain_WhenHorizonIsCovered_ShouldNotAlterTable() {
+        for (int i = 0; i <= 3; i++) {
+            partition(CURRENT.plusMonths(i));
+        }
+        partitions.add(new String[]{"pmax", "MAXVALUE"});
+
+        maintenance.maintain();
+
+        verify(jdbcTemplate, never()).execute(anyString());
+    }
+
+    @Test
+    void maintain_WithOnlyMaxPartition_ShouldStartFromOldestMovement() {
+        partitions.add(new String[]{"pmax", "MAXVALUE"});
+        YearMonth oldest = CURRENT.minusMonths(2);
+        when(jdbcTemplate.queryForObject("SELECT MIN(date) FROM movement", Timestamp.class))
+                .thenReturn(Timestamp.valueOf(oldest.atDay(15).atTime(10, 0)));
+
+        maintenance.maintain();
+
+        List<String> definitions = new ArrayList<>();
+        for (YearMonth month = oldest; !month.isAfter(CURRENT.plusMonths(3)); month = month.plusMonths(1)) {
+            definitions.add(definition(month));
+        }
+        definitions.add("PARTITION pmax VALUES LESS THAN (MAXVALUE)");
+        verify(jdbcTemplate).execute("ALTER TABLE movement REORGANIZE PARTITION pmax INTO ("
+                + String.join(", ", definitions) + ")");
+    }
+
+    @Test
+    void maintain_WithoutMaxPartition_ShouldAddPartitions() {
+        partition(CURRENT);
+
+        maintenance.maintain();
+
+        verify(jdbcTemplate).execute("ALTER TABLE movement ADD PARTITION (" + definition(CURRENT.plusMonths(1)) + ", "
+                + definition(CURRENT.plusMonths(2)) + ", " + definition(CURRENT.plusMonths(3)) + ")");
+    }
+
+    @Test
+    void maintain_OnOtherDatabases_ShouldDoNothing() {
+        mockDatabase("H2");
+
+        maintenance.maintain();
+
+        verify(jdbcTemplate, never()).query(anyString(), any(RowMapper.class));
+        verify(jdbcTemplate, never()).execute(anyString());
+    }
+
+    @Test
+    void dropPartitionIfEmpty_ShouldDropOnlyEmptyPartitions() {
+        YearMonth month = CURRENT.minusMonths(6);
+        partition(month);
+        partition(month.plusMonths(1));
+        partitions.add(new String[]{"pmax", "MAXVALUE"});
+        String count = "SELECT COUNT(*) FROM movement PARTITION (p" + month.format(SUFFIX) + ")";
+
+        when(jdbcTemplate.queryForObject(count, Integer.class)).thenReturn(3);
+        maintenance.dropPartitionIfEmpty(month);
+        verify(jdbcTemplate, never()).execute(startsWith("ALTER TABLE movement DROP PARTITION"));
+
+        when(jdbcTemplate.queryForObject(count, Integer.class)).thenReturn(0);
+        maintenance.dropPartitionIfEmpty(month);
+        verify(jdbcTemplate).execute("ALTER TABLE movement DROP PARTITION p" + month.format(SUFFIX));
+
+        maintenance.dropPartitionIfEmpty(month.minusMonths(1));
+        verify(jdbcTemplate, times(1)).execute(startsWith("ALTER TABLE movement DROP PARTITION"));
+    }
+
+    @Test
+    void maintain_WithRetention_ShouldDropExpiredPartitionsOnlyOnceArchived() {
+        maintenance = new MovementPartitionMaintenance(jdbcTemplate, archive, 3, 2);
+        for (int i = -4; i <= 3; i++) {
+            partition(CURRENT.plusMonths(i));
+        }
+        partitions.add(new String[]{"pmax", "MAXVALUE"});
+        when(archive.contains(CURRENT.minusMonths(4))).thenReturn(true);
+
+        maintenance.maintain();
+
+        // El mes siguiente no está archivado: se conserva aunque esté vencido
+        verify(jdbcTemplate).execute("ALTER TABLE movement DROP PARTITION p" + CURRENT.minusMonths(4).format(SUFFIX));
+        verify(jdbcTemplate, times(1)).execute(startsWith("ALTER TABLE movement DROP PARTITION"));
+
+        when(archive.contains(CURRENT.minusMonths(3))).thenReturn(true);
+        when(archive.contains(CURRENT.minusMonths(2))).thenReturn(true);
+        partitions.remove(0);
+        maintenance.maintain();
+
+        // Los meses dentro de la retención no se tocan aunque ya estén archivados
+        verify(jdbcTemplate).execute("ALTER TABLE movement DROP PARTITION p" + CURRENT.minusMonths(3).format(SUFFIX));
+        verify(jdbcTemplate, times(2)).execute(startsWith("ALTER TABLE movement DROP PARTITION"));
+    }
+
+    @Test
+    void maintain_WithoutRetention_ShouldKeepArchivedPartitions() {
+        for (int i = -4; i <= 3; i++) {
+            partition(CURRENT.plusMonths(i));
+        }
+        partitions.add(new String[]{"pmax", "MAXVALUE"});
+        when(archive.contains(any(YearMonth.class))).thenReturn(true);
+
+        maintenance.maintain();
+
+        verify(jdbcTemplate, never()).execute(anyString());
+    }
+
+    @Test
+    void partitionClause_ShouldCoverFromFirstMonthToHorizon() {
+        LocalDate firstMonth = CURRENT.minusMonths(1).atDay(20);
+
+        String clause = maintenance.partitionClause(firstMonth);
+
+        assertTrue(clause.startsWith("PARTITION BY RANGE COLUMNS(date) (" + definition(CURRENT.minusMonths(1)) + ", "));
+        assertTrue(clause.endsWith(definition(CURRENT.plusMonths(3)) + ", PARTITION pmax VALUES LESS THAN (MAXVALUE))"));
+        assertEquals(6, clause.split("PARTITION p").length - 1);
+    }
+
+    @SuppressWarnings("unchecked")
+    private void mockDatabase(String product) {
+        when(jdbcTemplate.execute(any(ConnectionCallback.class))).thenReturn(product);
+    }
+
+    private void partition(YearMonth month) {
+        partitions.add(new String[]{"p" + month.format(SUFFIX), "'" + month.plusMonths(1).atDay(1) + " 00:00:00'"});
+    }
+
+    private static String definition(YearMonth month) {
+        return "PARTITION p" + month.format(SUFFIX) + " VALUES LESS THAN ('" + month.plusMonths(1).atDay(1) + " 00:00:00')";
+    }
+}
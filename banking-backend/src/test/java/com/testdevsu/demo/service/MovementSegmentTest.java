@@ -0,0 +1,130 @@
+package com.testdevsu.demo.service;
+
+import com.testdevsu.demo.model.MovementType;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Escribe segmentos a disco y los vuelve a leer mapeados: cada fila tiene que salir igual a como entró
+class MovementSegmentTest {
+
+    private static final YearMonth MONTH = YearMonth.of(2025, 3);
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void read_AfterWriting_ShouldReturnSameRowsPerAccount() throws IOException {
+        LocalDateTime start = MONTH.atDay(1).atStartOfDay();
+        List<MovementRecord> first = List.of(
+                record(40, 5, start.plusHours(8), 150_000, 250_000),
+                // Retiro retroactivo: id mayor que el siguiente y saldo que cae por debajo del anterior
+                record(95, 5, start.plusDays(2).plusNanos(123_000), -87_525, 162_475),
+                record(41, 5, start.plusDays(3), -162_475, 0),
+                // Saldo que no encadena con el anterior más el importe
+                record(42, 5, MONTH.atEndOfMonth().atTime(23, 59, 59, 999_999_000), 1, 7));
+        List<MovementRecord> single = List.of(record(50, 7, start.plusDays(10), -1_000, 99_000));
+        List<MovementRecord> many = new ArrayList<>();
+        long balance = 0;
+        for (int i = 0; i < 1_000; i++) {
+            long value = i % 3 == 0 ? -(i * 7L) : i * 13L;
+            balance += value;
+            many.add(record(1_000 + i, 9, start.plusMinutes(i * 37L), value, balance));
+        }
+
+        MovementSegment segment = write(first, single, many);
+
+        assertEquals(MONTH, segment.month());
+        assertArrayEquals(new long[]{5, 7, 9}, segment.accountIds());
+        assertEquals(first, segment.read(5));
+        assertEquals(single, segment.read(7));
+        assertEquals(many, segment.read(9));
+        List<MovementRecord> all = new ArrayList<>();
+        segment.forEach(all::add);
+        assertEquals(first.size() + single.size() + many.size(), all.size());
+    }
+
+    @Test
+    void read_WithAccountWithoutRows_ShouldReturnEmpty() throws IOException {
+        LocalDateTime start = MONTH.atDay(1).atStartOfDay();
+        MovementSegment segment = write(List.of(record(1, 3, start, 100, 100)), List.of(record(2, 8, start, -100, -100)));
+
+        assertTrue(segment.read(1).isEmpty());
+        assertTrue(segment.read(5).isEmpty());
+        assertTrue(segment.read(10).isEmpty());
+    }
+
+    @Test
+    void find_ShouldLocateRowsByIdAcrossBlocks() throws IOException {
+        LocalDateTime start = MONTH.atDay(1).atStartOfDay();
+        List<MovementRecord> first = List.of(
+                record(40, 5, start.plusHours(8), 150_000, 250_000),
+                record(95, 5, start.plusDays(2), -87_525, 162_475),
+                record(41, 5, start.plusDays(3), -162_475, 0));
+        List<MovementRecord> second = List.of(
+                record(60, 7, start.plusDays(1), 1_000, 1_000),
+                record(70, 7, start.plusDays(2), 2_000, 3_000));
+
+        MovementSegment segment = write(first, second);
+
+        assertEquals(Optional.of(first.get(1)), segment.find(95));
+        assertEquals(Optional.of(second.get(0)), segment.find(60));
+        // Dentro del rango de ids de los dos bloques, pero en ninguno
+        assertEquals(Optional.empty(), segment.find(65));
+        assertEquals(Optional.empty(), segment.find(39));
+        assertEquals(Optional.empty(), segment.find(96));
+    }
+
+    @Test
+    void open_WithoutRows_ShouldReturnEmptySegment() throws IOException {
+        MovementSegment segment = write();
+
+        assertEquals(MONTH, segment.month());
+        assertEquals(0, segment.accountIds().length);
+        assertTrue(segment.read(1).isEmpty());
+        assertTrue(segment.find(1).isEmpty());
+    }
+
+    @Test
+    void add_OutOfOrderOrOtherMonth_ShouldBeRejected() throws IOException {
+        LocalDateTime start = MONTH.atDay(1).atStartOfDay();
+        try (MovementSegment.Writer writer = new MovementSegment.Writer(directory.resolve("rejected.seg"), MONTH)) {
+            writer.add(record(2, 4, start.plusDays(1), 100, 100));
+
+            assertThrows(IllegalArgumentException.class, () -> writer.add(record(1, 4, start, 100, 200)));
+            assertThrows(IllegalArgumentException.class, () -> writer.add(record(3, 3, start.plusDays(2), 100, 200)));
+            assertThrows(IllegalArgumentException.class,
+                    () -> writer.add(record(4, 4, MONTH.plusMonths(1).atDay(1).atStartOfDay(), 100, 200)));
+        }
+    }
+
+    @SafeVarargs
+    private MovementSegment write(List<MovementRecord>... accounts) throws IOException {
+        Path file = directory.resolve("movements.seg");
+        try (MovementSegment.Writer writer = new MovementSegment.Writer(file, MONTH)) {
+            for (List<MovementRecord> account : accounts) {
+                for (MovementRecord record : account) {
+                    writer.add(record);
+                }
+            }
+            writer.finish();
+        }
+        return MovementSegment.open(file);
+    }
+
+    private static MovementRecord record(long id, long accountId, LocalDateTime date, long value, long balance) {
+        return new MovementRecord(id, accountId, date, value < 0 ? MovementType.RETIRO : MovementType.DEPOSITO,
+                value, balance);
+    }
+}
@@ -0,0 +1,7 @@
+package com.testdevsu.demo.service;
+
+import org.springframework.boot.test.context.SpringBootTest;
+
+@SpringBootTest(properties = {"banking.posting.concurrency-mode=optimistic", "banking.posting.optimistic-max-attempts=50", PostingConcurrencyTestSupport.ISOLATED_DATABASE})
+class OptimisticPostingStrategyTest extends PostingConcurrencyTestSupport {
+}
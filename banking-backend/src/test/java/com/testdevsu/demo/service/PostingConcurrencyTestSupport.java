@@ -0,0 +1,123 @@
+package com.testdevsu.demo.service;
+
+import com.testdevsu.demo.dto.MovementRequestDTO;
+import com.testdevsu.demo.dto.MovementResponseDTO;
+import com.testdevsu.demo.exception.ConcurrentPostingException;
+import com.testdevsu.demo.exception.InsufficientBalanceException;
+import com.testdevsu.demo.model.MovementType;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Mismos escenarios para cada banking.posting.concurrency-mode; cada subclase levanta su contexto con una base propia
+@Slf4j
+abstract class PostingConcurrencyTestSupport {
+
+    static final String ISOLATED_DATABASE =
+            "spring.datasource.url=jdbc:h2:mem:${random.uuid};MODE=MySQL;DB_CLOSE_DELAY=-1;NON_KEYWORDS=VALUE,DAY";
+
+    @Autowired
+    private ClientService clientService;
+
+    @Autowired
+    private AccountService accountService;
+
+    @Autowired
+    private MovementService movementService;
+
+    @Test
+    void concurrentWithdrawals_SameAccount_ShouldNeverOverdraw() throws Exception {
+        Long accountId = createAccount("500.00");
+        AtomicInteger accepted = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+
+        List<Callable<Void>> tasks = new ArrayList<>();
+        for (int i = 0; i < 40; i++) {
+            tasks.add(() -> {
+                try {
+                    movementService.createMovement(new MovementRequestDTO(null, MovementType.RETIRO, new BigDecimal("20.00"), accountId));
+                    accepted.incrementAndGet();
+                } catch (InsufficientBalanceException | ConcurrentPostingException e) {
+                    rejected.incrementAndGet();
+                }
+                return null;
+            });
+        }
+        long started = System.nanoTime();
+        runAll(tasks);
+        log.info("{}: {} retiros aceptados, {} rechazados en {} ms", getClass().getSimpleName(),
+                accepted.get(), rejected.get(), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+
+        assertEquals(40, accepted.get() + rejected.get());
+        assertTrue(accepted.get() <= 25);
+        assertEquals(0, balance(accountId).compareTo(new BigDecimal("500.00").subtract(new BigDecimal("20.00").multiply(BigDecimal.valueOf(accepted.get())))));
+        assertEquals(0, balance(accountId).compareTo(lastChainedBalance(accountId)));
+    }
+
+    // Dos movimientos que cruzan entre las mismas cuentas en sentidos opuestos: con el bloqueo en orden de id
+    // ninguno espera al otro indefinidamente y los saldos de ambas cuentas quedan cuadrados
+    @Test
+    void opposingMoves_BetweenTwoAccounts_ShouldNotDeadlock() throws Exception {
+        Long first = createAccount("100.00");
+        Long second = createAccount("100.00");
+        Long fromFirst = movementService.createMovement(new MovementRequestDTO(null, MovementType.DEPOSITO, new BigDecimal("10.00"), first)).getId();
+        Long fromSecond = movementService.createMovement(new MovementRequestDTO(null, MovementType.DEPOSITO, new BigDecimal("30.00"), second)).getId();
+
+        List<Callable<Void>> tasks = List.of(
+                () -> moveBackAndForth(fromFirst, second, first),
+                () -> moveBackAndForth(fromSecond, first, second));
+        runAll(tasks);
+
+        assertEquals(0, balance(first).compareTo(new BigDecimal("110.00")));
+        assertEquals(0, balance(second).compareTo(new BigDecimal("130.00")));
+        assertEquals(0, balance(first).compareTo(lastChainedBalance(first)));
+        assertEquals(0, balance(second).compareTo(lastChainedBalance(second)));
+    }
+
+    private Void moveBackAndForth(Long movementId, Long target, Long home) {
+        for (int i = 0; i < 20; i++) {
+            movementService.partialUpdateMovement(movementId, new MovementRequestDTO(null, null, null, target));
+            movementService.partialUpdateMovement(movementId, new MovementRequestDTO(null, null, null, home));
+        }
+        return null;
+    }
+
+    private static void runAll(List<Callable<Void>> tasks) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<Void>> futures = executor.invokeAll(tasks, 60, TimeUnit.SECONDS);
+            for (Future<Void> future : futures) {
+                // Una tarea cancelada por el tiempo límite indica que quedó bloqueada
+                future.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private Long createAccount(String initialBalance) {
+        return TestAccounts.createAccount(clientService, accountService, initialBalance);
+    }
+
+    private BigDecimal balance(Long accountId) {
+        return accountService.getAccountById(accountId).getCurrentBalance();
+    }
+
+    private BigDecimal lastChainedBalance(Long accountId) {
+        // La página viene de la más reciente a la más antigua
+        List<MovementResponseDTO> movements = movementService.getAccountMovements(accountId, null, 1).getItems();
+        return movements.get(0).getBalance();
+    }
+}
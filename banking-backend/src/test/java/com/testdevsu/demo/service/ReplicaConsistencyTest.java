@@ -0,0 +1,161 @@
+package com.testdevsu.demo.service;
+
+import com.testdevsu.demo.model.Account;
+import com.testdevsu.demo.model.Client;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Reglas de ReplicaConsistency sin base de datos: la transacción se simula con las sincronizaciones de Spring
+class ReplicaConsistencyTest {
+
+    private static final Duration MAX_LAG = Duration.ofSeconds(5);
+
+    private final ReplicaConsistency consistency = new ReplicaConsistency(MAX_LAG);
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            complete(false);
+        }
+    }
+
+    @Test
+    void replicaUsable_WithoutHeartbeat_ShouldBeFalse() {
+        assertFalse(consistency.replicaUsable());
+    }
+
+    @Test
+    void replicaUsable_WithRecentHeartbeat_ShouldBeTrue() {
+        consistency.replicaAppliedThrough(Instant.now());
+
+        assertTrue(consistency.replicaUsable());
+    }
+
+    @Test
+    void replicaUsable_WhenLagExceedsMaxLag_ShouldBeFalse() {
+        consistency.replicaAppliedThrough(Instant.now().minus(MAX_LAG).minusSeconds(1));
+
+        assertFalse(consistency.replicaUsable());
+    }
+
+    @Test
+    void replicaUsable_AfterReplicaUnavailable_ShouldBeFalseUntilNextHeartbeat() {
+        consistency.replicaAppliedThrough(Instant.now());
+        consistency.replicaUnavailable();
+
+        assertFalse(consistency.replicaUsable());
+
+        consistency.replicaAppliedThrough(Instant.now());
+        assertTrue(consistency.replicaUsable());
+    }
+
+    @Test
+    void replicaAppliedThrough_WithOlderHeartbeat_ShouldNotMoveBackwards() {
+        consistency.replicaAppliedThrough(Instant.now());
+        consistency.replicaAppliedThrough(Instant.now().minus(MAX_LAG).minusSeconds(1));
+
+        assertTrue(consistency.replicaUsable());
+    }
+
+    @Test
+    void readingClient_WithPostingNotYetReplicated_ShouldNotUseReplica() {
+        consistency.replicaAppliedThrough(Instant.now().minusMillis(100));
+        consistency.recordPosting(account(10L, 1L));
+
+        TransactionSynchronizationManager.initSynchronization();
+        consistency.readingClient(1L);
+        assertFalse(consistency.replicaUsable());
+        complete(true);
+
+        TransactionSynchronizationManager.initSynchronization();
+        consistency.readingClient(2L);
+        assertTrue(consistency.replicaUsable());
+        complete(true);
+    }
+
+    @Test
+    void readingAccount_AfterReplicaCatchesUp_ShouldUseReplica() {
+        consistency.replicaAppliedThrough(Instant.now().minusMillis(100));
+        consistency.recordPosting(account(10L, 1L));
+
+        TransactionSynchronizationManager.initSynchronization();
+        consistency.readingAccount(10L);
+        assertFalse(consistency.replicaUsable());
+
+        consistency.replicaAppliedThrough(Instant.now().plusMillis(1));
+        assertTrue(consistency.replicaUsable());
+        complete(true);
+    }
+
+    @Test
+    void readingClient_AfterTransactionCompletes_ShouldReleaseScope() {
+        consistency.replicaAppliedThrough(Instant.now().minusMillis(100));
+        consistency.recordPosting(account(10L, 1L));
+
+        TransactionSynchronizationManager.initSynchronization();
+        consistency.readingClient(1L);
+        complete(true);
+
+        // Fuera de la transacción ya no hay cliente asociado: solo cuenta el retraso
+        assertTrue(consistency.replicaUsable());
+    }
+
+    @Test
+    void recordPosting_WhenTransactionRollsBack_ShouldNotMark() {
+        consistency.replicaAppliedThrough(Instant.now().minusMillis(100));
+
+        TransactionSynchronizationManager.initSynchronization();
+        consistency.recordPosting(account(10L, 1L));
+        complete(false);
+
+        TransactionSynchronizationManager.initSynchronization();
+        consistency.readingClient(1L);
+        assertTrue(consistency.replicaUsable());
+        complete(true);
+    }
+
+    @Test
+    void recordPosting_WhenTransactionCommits_ShouldMarkAfterCommit() {
+        consistency.replicaAppliedThrough(Instant.now().minusMillis(100));
+
+        TransactionSynchronizationManager.initSynchronization();
+        consistency.recordPosting(account(10L, 1L));
+        consistency.readingClient(1L);
+        // Antes de confirmar el movimiento no es visible en ninguna base, no hay nada que esperar
+        assertTrue(consistency.replicaUsable());
+        complete(true);
+
+        TransactionSynchronizationManager.initSynchronization();
+        consistency.readingClient(1L);
+        assertFalse(consistency.replicaUsable());
+        complete(true);
+    }
+
+    // Cierra la transacción simulada como lo haría el gestor de transacciones
+    private static void complete(boolean committed) {
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        if (committed) {
+            synchronizations.forEach(TransactionSynchronization::afterCommit);
+        }
+        int status = committed ? TransactionSynchronization.STATUS_COMMITTED : TransactionSynchronization.STATUS_ROLLED_BACK;
+        synchronizations.forEach(synchronization -> synchronization.afterCompletion(status));
+        TransactionSynchronizationManager.clearSynchronization();
+    }
+
+    private static Account account(Long accountId, Long clientId) {
+        Client client = new Client();
+        client.setId(clientId);
+        Account account = new Account();
+        account.setId(accountId);
+        account.setClient(client);
+        return account;
+    }
+}
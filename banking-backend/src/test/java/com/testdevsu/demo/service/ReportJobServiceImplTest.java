@@ -0,0 +1,48 @@
+package com.testdevsu.demo.service;
+
+import com.testdevsu.demo.dto.ReportJobRequestDTO;
+import com.testdevsu.demo.exception.UnsupportedReportFormatException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class ReportJobServiceImplTest {
+
+    @TempDir
+    Path directory;
+
+    private ReportService reportService;
+    private ReportJobServiceImpl reportJobService;
+
+    @BeforeEach
+    void setUp() {
+        reportService = mock(ReportService.class);
+        reportJobService = new ReportJobServiceImpl(reportService, 1, 1, Duration.ofMinutes(1), directory);
+    }
+
+    @AfterEach
+    void tearDown() {
+        reportJobService.shutdown();
+    }
+
+    @Test
+    void submit_WithUnsupportedFormat_ShouldRejectBeforeQueueing() {
+        when(reportService.resolveFormatter("xml", false))
+                .thenThrow(new UnsupportedReportFormatException("Formato de reporte no soportado: xml"));
+        ReportJobRequestDTO request = new ReportJobRequestDTO(1L,
+                LocalDateTime.of(2024, 2, 1, 0, 0), LocalDateTime.of(2024, 2, 29, 23, 59), "xml", false, false);
+
+        assertThrows(UnsupportedReportFormatException.class, () -> reportJobService.submit(request));
+
+        verify(reportService, never()).generateAccountStatement(anyLong(), any(), any(), anyString(), anyBoolean());
+    }
+}
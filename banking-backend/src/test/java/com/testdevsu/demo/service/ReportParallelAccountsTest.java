@@ -0,0 +1,114 @@
+package com.testdevsu.demo.service;
+
+import com.testdevsu.demo.dto.AccountReportDTO;
+import com.testdevsu.demo.dto.ClientReportDTO;
+import com.testdevsu.demo.dto.MovementRequestDTO;
+import com.testdevsu.demo.exception.ResourceNotFoundException;
+import com.testdevsu.demo.model.MovementType;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Cuentas en paralelo con un pool más chico que los reportes simultáneos: ninguno debe quedarse esperando conexiones
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:${random.uuid};MODE=MySQL;DB_CLOSE_DELAY=-1;NON_KEYWORDS=VALUE,DAY",
+        "spring.datasource.hikari.maximum-pool-size=3",
+        "spring.datasource.hikari.connection-timeout=5000",
+        "banking.reports.parallel-accounts=true",
+        "banking.reports.parallel-min-accounts=2",
+        "banking.reports.max-parallel-connections=2",
+        "banking.report-cache.maximum-entry-bytes=1"
+})
+class ReportParallelAccountsTest {
+
+    private static final LocalDateTime START = LocalDateTime.of(2025, 3, 1, 10, 0);
+    private static final int ACCOUNTS = 5;
+
+    @Autowired
+    private ClientService clientService;
+
+    @Autowired
+    private AccountService accountService;
+
+    @Autowired
+    private MovementService movementService;
+
+    @Autowired
+    private ReportService reportService;
+
+    @Test
+    void generateAccountSummary_WithSeveralAccounts_ShouldTotalEachAccount() {
+        Long clientId = createClientWithAccounts();
+
+        ClientReportDTO report = reportService.generateAccountSummary(clientId, START.minusDays(1), START.plusDays(30));
+
+        assertEquals(ACCOUNTS, report.getAccounts().size());
+        for (AccountReportDTO account : report.getAccounts()) {
+            int movements = account.getTotalCredits().intValue() / 10;
+            assertEquals(new BigDecimal("100.00"), account.getOpeningBalance().setScale(2));
+            assertEquals(new BigDecimal("3.50").multiply(BigDecimal.valueOf(movements)).setScale(2),
+                    account.getTotalDebits().setScale(2));
+            assertEquals(new BigDecimal("100.00").add(new BigDecimal("6.50").multiply(BigDecimal.valueOf(movements))),
+                    account.getAvailableBalance().setScale(2));
+        }
+        assertEquals(List.of(0, 1, 2, 3, 4), report.getAccounts().stream()
+                .map(account -> account.getTotalCredits().intValue() / 10)
+                .sorted()
+                .toList());
+    }
+
+    @Test
+    void generateAccountStatement_WithMoreReportsThanConnections_ShouldFinishAll() throws Exception {
+        Long clientId = createClientWithAccounts();
+
+        List<Future<Integer>> reports = new ArrayList<>();
+        try (ExecutorService executor = Executors.newFixedThreadPool(8)) {
+            for (int i = 0; i < 8; i++) {
+                String format = i % 2 == 0 ? "json" : "pdf";
+                reports.add(executor.submit(() -> {
+                    ByteArrayOutputStream out = new ByteArrayOutputStream();
+                    reportService.generateAccountStatement(clientId, START.minusDays(1), START.plusDays(30), format, false)
+                            .writeTo(out);
+                    return out.size();
+                }));
+            }
+            for (Future<Integer> report : reports) {
+                assertTrue(report.get(60, TimeUnit.SECONDS) > 0);
+            }
+        }
+    }
+
+    @Test
+    void generateAccountSummary_WithUnknownClient_ShouldThrowNotFound() {
+        assertThrows(ResourceNotFoundException.class,
+                () -> reportService.generateAccountSummary(999999L, START, START.plusDays(1)));
+    }
+
+    // La cuenta i tiene i depósitos de 10 y i retiros de 3.50
+    private Long createClientWithAccounts() {
+        Long clientId = TestAccounts.createClient(clientService);
+        for (int i = 0; i < ACCOUNTS; i++) {
+            Long accountId = TestAccounts.createAccount(accountService, clientId, "100.00");
+            for (int j = 0; j < i; j++) {
+                movementService.createMovement(new MovementRequestDTO(START.plusDays(j), MovementType.DEPOSITO,
+                        new BigDecimal("10"), accountId));
+                movementService.createMovement(new MovementRequestDTO(START.plusDays(j).plusHours(1), MovementType.RETIRO,
+                        new BigDecimal("3.50"), accountId));
+            }
+        }
+        return clientId;
+    }
+}
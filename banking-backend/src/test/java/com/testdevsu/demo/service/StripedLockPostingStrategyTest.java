@@ -0,0 +1,7 @@
+package com.testdevsu.demo.service;
+
+import org.springframework.boot.test.context.SpringBootTest;
+
+@SpringBootTest(properties = {"banking.posting.concurrency-mode=striped", PostingConcurrencyTestSupport.ISOLATED_DATABASE})
+class StripedLockPostingStrategyTest extends PostingConcurrencyTestSupport {
+}
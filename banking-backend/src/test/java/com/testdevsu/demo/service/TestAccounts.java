@@ -0,0 +1,29 @@
+package com.testdevsu.demo.service;
+
+import com.testdevsu.demo.dto.AccountRequestDTO;
+import com.testdevsu.demo.dto.ClientRequestDTO;
+import java.math.BigDecimal;
+import java.util.UUID;
+
+// Altas de cliente y cuenta con datos únicos para las pruebas de servicio que comparten contexto
+final class TestAccounts {
+
+    private TestAccounts() {
+    }
+
+    static Long createClient(ClientService clientService) {
+        String suffix = UUID.randomUUID().toString().substring(0, 8);
+        return clientService.createClient(new ClientRequestDTO("Jose Lema", "M", 30, "ID" + suffix,
+                "Otavalo sn y principal", "098254785", "CL" + suffix, "1234", true)).getId();
+    }
+
+    static Long createAccount(AccountService accountService, Long clientId, String initialBalance) {
+        String suffix = UUID.randomUUID().toString().substring(0, 8);
+        return accountService.createAccount(new AccountRequestDTO("AC" + suffix, "Ahorros",
+                new BigDecimal(initialBalance), true, clientId)).getId();
+    }
+
+    static Long createAccount(ClientService clientService, AccountService accountService, String initialBalance) {
+        return createAccount(accountService, createClient(clientService), initialBalance);
+    }
+}
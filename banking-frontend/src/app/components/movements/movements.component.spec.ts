@@ -35,7 +35,8 @@ describe('MovementsComponent', () => {
 
   beforeEach(async () => {
     mockMovementService = {
-      getAllMovements: jest.fn(),
+      getMovementsPage: jest.fn(),
+      getAccountMovements: jest.fn(),
       getMovementById: jest.fn(),
       createMovement: jest.fn(),
       updateMovement: jest.fn(),
@@ -79,19 +80,20 @@ describe('MovementsComponent', () => {
 
   describe('ngOnInit', () => {
     it('should load movements on initialization', () => {
-      mockMovementService.getAllMovements.mockReturnValue(of(mockMovements));
+      mockMovementService.getMovementsPage.mockReturnValue(of({ items: mockMovements, nextCursor: null }));
       
       component.ngOnInit();
 
-      expect(mockMovementService.getAllMovements).toHaveBeenCalled();
+      expect(mockMovementService.getMovementsPage).toHaveBeenCalledWith(null);
       expect(component.movements).toEqual(mockMovements);
       expect(component.filteredMovements).toEqual(mockMovements);
+      expect(component.nextCursor).toBeNull();
     });
 
     it('should handle error when loading movements', () => {
       const consoleErrorSpy = jest.spyOn(console, 'error').mockImplementation();
       const errorResponse = { status: 500, message: 'Server error' };
-      mockMovementService.getAllMovements.mockReturnValue(throwError(() => errorResponse));
+      mockMovementService.getMovementsPage.mockReturnValue(throwError(() => errorResponse));
       
       component.ngOnInit();
 
@@ -100,6 +102,30 @@ describe('MovementsComponent', () => {
     });
   });
 
+  describe('loadMore', () => {
+    it('should append the next page using the previous cursor', () => {
+      component.movements = [mockMovements[1]];
+      component.nextCursor = 'cursor-1';
+      mockMovementService.getMovementsPage.mockReturnValue(of({ items: [mockMovements[0]], nextCursor: null }));
+
+      component.loadMore();
+
+      expect(mockMovementService.getMovementsPage).toHaveBeenCalledWith('cursor-1');
+      expect(component.movements.length).toBe(2);
+      expect(component.nextCursor).toBeNull();
+    });
+
+    it('should load the selected account history', () => {
+      component.selectedAccountId = 1;
+      mockMovementService.getAccountMovements.mockReturnValue(of({ items: mockMovements, nextCursor: 'cursor-2' }));
+
+      component.onAccountFilterChange();
+
+      expect(mockMovementService.getAccountMovements).toHaveBeenCalledWith(1, null);
+      expect(component.nextCursor).toBe('cursor-2');
+    });
+  });
+
   describe('filterMovements', () => {
     beforeEach(() => {
       component.movements = mockMovements;
@@ -145,7 +171,7 @@ describe('MovementsComponent', () => {
   describe('saveMovement', () => {
     it('should create new movement successfully', () => {
       mockMovementService.createMovement.mockReturnValue(of(mockMovements[0]));
-      mockMovementService.getAllMovements.mockReturnValue(of(mockMovements));
+      mockMovementService.getMovementsPage.mockReturnValue(of({ items: mockMovements, nextCursor: null }));
       component.isEditMode = false;
 
       component.saveMovement();
@@ -156,7 +182,7 @@ describe('MovementsComponent', () => {
 
     it('should update existing movement successfully', () => {
       mockMovementService.updateMovement.mockReturnValue(of(mockMovements[0]));
-      mockMovementService.getAllMovements.mockReturnValue(of(mockMovements));
+      mockMovementService.getMovementsPage.mockReturnValue(of({ items: mockMovements, nextCursor: null }));
       component.isEditMode = true;
       component.selectedMovementId = mockMovements[0].id;
       component.movements = mockMovements;
@@ -205,7 +231,7 @@ describe('MovementsComponent', () => {
     it('should delete movement successfully', () => {
       mockNotificationService.confirm.mockReturnValue(true);
       mockMovementService.deleteMovement.mockReturnValue(of(void 0));
-      mockMovementService.getAllMovements.mockReturnValue(of([mockMovements[1]]));
+      mockMovementService.getMovementsPage.mockReturnValue(of({ items: [mockMovements[1]], nextCursor: null }));
 
       component.deleteMovement(mockMovements[0]);
 
@@ -1,11 +1,11 @@
 import { Component, OnInit, OnDestroy } from '@angular/core';
 import { CommonModule } from '@angular/common';
 import { FormsModule } from '@angular/forms';
-import { Subject, takeUntil } from 'rxjs';
+import { Observable, Subject, takeUntil } from 'rxjs';
 import { MovementService } from '../../services/movement.service';
 import { AccountService } from '../../services/account.service';
 import { NotificationService } from '../../services/notification.service';
-import { MovementRequest, MovementResponse } from '../../models/movement.model';
+import { MovementPage, MovementRequest, MovementResponse } from '../../models/movement.model';
 import { AccountResponse } from '../../models/account.model';
 
 /**
@@ -24,6 +24,9 @@ export class MovementsComponent implements OnInit, OnDestroy {
   filteredMovements: MovementResponse[] = [];
   accounts: AccountResponse[] = [];
   searchTerm: string = '';
+  selectedAccountId: number = 0;
+  nextCursor: string | null = null;
+  loadingMore: boolean = false;
   showModal: boolean = false;
   isEditMode: boolean = false;
   selectedMovement: MovementRequest = this.getEmptyMovement();
@@ -48,14 +51,18 @@ export class MovementsComponent implements OnInit, OnDestroy {
     this.destroy$.complete();
   }
 
+  /**
+   * Carga la primera página del historial (global o de la cuenta seleccionada)
+   */
   loadMovements(): void {
-    this.movementService.getAllMovements()
+    this.fetchPage(null)
       .pipe(takeUntil(this.destroy$))
       .subscribe({
-        next: (data) => {
-          this.movements = data;
-          this.filteredMovements = data;
+        next: (page) => {
+          this.movements = page.items;
+          this.nextCursor = page.nextCursor ?? null;
           this.enrichMovementsWithAccountNumbers();
+          this.filterMovements();
         },
         error: (error) => {
           const errorMsg = this.notificationService.extractErrorMessage(error);
@@ -65,6 +72,36 @@ export class MovementsComponent implements OnInit, OnDestroy {
       });
   }
 
+  /**
+   * Agrega la siguiente página a partir del cursor de la última recibida
+   */
+  loadMore(): void {
+    if (!this.nextCursor || this.loadingMore) {
+      return;
+    }
+    this.loadingMore = true;
+    this.fetchPage(this.nextCursor)
+      .pipe(takeUntil(this.destroy$))
+      .subscribe({
+        next: (page) => {
+          this.movements = [...this.movements, ...page.items];
+          this.nextCursor = page.nextCursor ?? null;
+          this.loadingMore = false;
+          this.enrichMovementsWithAccountNumbers();
+          this.filterMovements();
+        },
+        error: (error) => {
+          this.loadingMore = false;
+          const errorMsg = this.notificationService.extractErrorMessage(error);
+          this.notificationService.error(errorMsg);
+        }
+      });
+  }
+
+  onAccountFilterChange(): void {
+    this.loadMovements();
+  }
+
   loadAccounts(): void {
     this.accountService.getAllAccounts()
       .pipe(takeUntil(this.destroy$))
@@ -183,6 +220,12 @@ export class MovementsComponent implements OnInit, OnDestroy {
     return account ? account.accountNumber : 'Desconocido';
   }
 
+  private fetchPage(after: string | null): Observable<MovementPage> {
+    return this.selectedAccountId
+      ? this.movementService.getAccountMovements(this.selectedAccountId, after)
+      : this.movementService.getMovementsPage(after);
+  }
+
   private getEmptyMovement(): MovementRequest {
     return {
       date: new Date().toISOString(),
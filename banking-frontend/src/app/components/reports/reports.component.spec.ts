@@ -127,7 +127,7 @@ describe('ReportsComponent', () => {
 
     it('should handle error when downloading PDF', () => {
       const consoleErrorSpy = jest.spyOn(console, 'error').mockImplementation();
-      component.pdfData = 'invalid-base64';
+      component.pdfData = new Blob(['%PDF'], { type: 'application/pdf' });
 
       component.downloadPdf();
 
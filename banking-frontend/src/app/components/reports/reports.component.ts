@@ -29,7 +29,7 @@ export class ReportsComponent implements OnInit, OnDestroy {
   };
   reportData?: AccountStatementReport[];
   filteredReportData?: AccountStatementReport[];
-  pdfData?: string;
+  pdfData?: Blob;
   searchTerm: string = '';
   errorMessage: string = '';
   isLoading: boolean = false;
@@ -125,15 +125,7 @@ export class ReportsComponent implements OnInit, OnDestroy {
     if (!this.pdfData) return;
 
     try {
-      const byteCharacters = atob(this.pdfData);
-      const byteNumbers = new Array(byteCharacters.length);
-      for (let i = 0; i < byteCharacters.length; i++) {
-        byteNumbers[i] = byteCharacters.charCodeAt(i);
-      }
-      const byteArray = new Uint8Array(byteNumbers);
-      const blob = new Blob([byteArray], { type: 'application/pdf' });
-      
-      const url = window.URL.createObjectURL(blob);
+      const url = window.URL.createObjectURL(this.pdfData);
       const link = document.createElement('a');
       link.href = url;
       link.download = `estado-cuenta-${this.reportParams.clientId}-${Date.now()}.pdf`;
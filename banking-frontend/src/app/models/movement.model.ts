@@ -14,3 +14,8 @@ export interface MovementResponse {
   accountId: number;
   accountNumber?: string;
 }
+
+export interface MovementPage {
+  items: MovementResponse[];
+  nextCursor?: string | null;
+}
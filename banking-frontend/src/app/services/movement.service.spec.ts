@@ -26,7 +26,7 @@ describe('MovementService', () => {
     expect(service).toBeTruthy();
   });
 
-  it('should get all movements', () => {
+  it('should get the first page of movements', () => {
     const mockMovements: MovementResponse[] = [
       {
         id: 1,
@@ -38,13 +38,27 @@ describe('MovementService', () => {
       }
     ];
 
-    service.getAllMovements().subscribe(movements => {
-      expect(movements.length).toBe(1);
+    service.getMovementsPage().subscribe(page => {
+      expect(page.items.length).toBe(1);
+      expect(page.nextCursor).toBe('abc');
     });
 
-    const req = httpMock.expectOne(apiUrl);
+    const req = httpMock.expectOne(r => r.url === apiUrl);
     expect(req.request.method).toBe('GET');
-    req.flush(mockMovements);
+    expect(req.request.params.get('limit')).toBe('50');
+    expect(req.request.params.has('after')).toBe(false);
+    req.flush({ items: mockMovements, nextCursor: 'abc' });
+  });
+
+  it('should get the next page of an account history', () => {
+    service.getAccountMovements(1, 'abc', 20).subscribe(page => {
+      expect(page.items.length).toBe(0);
+    });
+
+    const req = httpMock.expectOne(r => r.url === `${environment.apiUrl}/accounts/1/movements`);
+    expect(req.request.params.get('after')).toBe('abc');
+    expect(req.request.params.get('limit')).toBe('20');
+    req.flush({ items: [], nextCursor: null });
   });
 
   it('should create a movement', () => {
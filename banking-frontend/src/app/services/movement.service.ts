@@ -1,8 +1,9 @@
 import { Injectable } from '@angular/core';
-import { HttpClient } from '@angular/common/http';
+import { HttpClient, HttpParams } from '@angular/common/http';
 import { Observable } from 'rxjs';
-import { MovementRequest, MovementResponse } from '../models/movement.model';
+import { MovementPage, MovementRequest, MovementResponse } from '../models/movement.model';
 import { BaseHttpService } from './base-http.service';
+import { environment } from '../../environments/environment';
 
 /**
  * Servicio para gestión de movimientos
@@ -16,8 +17,21 @@ export class MovementService extends BaseHttpService<MovementRequest, MovementRe
     super(http, 'movements');
   }
 
-  getAllMovements(): Observable<MovementResponse[]> {
-    return this.getAll();
+  /**
+   * Obtiene una página de movimientos, del más reciente al más antiguo.
+   * El cursor `after` es el nextCursor devuelto por la página anterior.
+   */
+  getMovementsPage(after?: string | null, limit: number = 50): Observable<MovementPage> {
+    return this.http.get<MovementPage>(this.apiUrl, { params: this.pageParams(after, limit) });
+  }
+
+  /**
+   * Obtiene una página del historial de una cuenta, del más reciente al más antiguo.
+   */
+  getAccountMovements(accountId: number, after?: string | null, limit: number = 50): Observable<MovementPage> {
+    return this.http.get<MovementPage>(`${environment.apiUrl}/accounts/${accountId}/movements`, {
+      params: this.pageParams(after, limit)
+    });
   }
 
   getMovementById(id: number): Observable<MovementResponse> {
@@ -35,4 +49,12 @@ export class MovementService extends BaseHttpService<MovementRequest, MovementRe
   deleteMovement(id: number): Observable<void> {
     return this.delete(id);
   }
+
+  private pageParams(after: string | null | undefined, limit: number): HttpParams {
+    let params = new HttpParams().set('limit', limit.toString());
+    if (after) {
+      params = params.set('after', after);
+    }
+    return params;
+  }
 }
@@ -22,10 +22,11 @@ export class ReportService {
       .set('endDate', params.endDate)
       .set('format', params.format || 'json');
 
+    // El PDF llega como bytes (application/pdf), sin codificar en Base64
     if (params.format === 'pdf') {
       return this.http.get(this.apiUrl, { 
         params: httpParams,
-        responseType: 'text'
+        responseType: 'blob'
       });
     } else {
       return this.http.get<AccountStatementReport[]>(this.apiUrl, { params: httpParams });